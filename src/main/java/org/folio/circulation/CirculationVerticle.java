@@ -2,8 +2,13 @@ package org.folio.circulation;
 
 import java.lang.invoke.MethodHandles;
 
+import org.folio.circulation.domain.ReportRepository;
+import org.folio.circulation.domain.notice.schedule.NearTermNoticeScheduler;
+import org.folio.circulation.domain.notice.schedule.ScheduledNoticeExecutor;
+import org.folio.circulation.infrastructure.serialization.JsonEncoding;
 import org.folio.circulation.resources.CheckInByBarcodeResource;
 import org.folio.circulation.resources.CheckOutByBarcodeResource;
+import org.folio.circulation.resources.CirculationRulesPoliciesResource;
 import org.folio.circulation.resources.CirculationRulesResource;
 import org.folio.circulation.resources.EndPatronActionSessionResource;
 import org.folio.circulation.resources.ItemsInTransitResource;
@@ -26,7 +31,11 @@ import org.folio.circulation.resources.RequestHoldShelfClearanceResource;
 import org.folio.circulation.resources.RequestQueueResource;
 import org.folio.circulation.resources.DueDateScheduledNoticeProcessingResource;
 import org.folio.circulation.resources.RequestScheduledNoticeProcessingResource;
+import org.folio.circulation.resources.ScheduledNoticeProcessingResource;
 import org.folio.circulation.resources.ScheduledAnonymizationProcessingResource;
+import org.folio.circulation.rules.CirculationRulesProcessor;
+import org.folio.circulation.support.http.client.HttpClientProfile;
+import org.folio.circulation.support.http.client.OkapiHttpClient;
 import org.folio.circulation.support.logging.Logging;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -34,7 +43,6 @@ import org.slf4j.LoggerFactory;
 import io.vertx.core.AbstractVerticle;
 import io.vertx.core.Future;
 import io.vertx.core.http.HttpClient;
-import io.vertx.core.http.HttpClientOptions;
 import io.vertx.core.http.HttpServer;
 import io.vertx.ext.web.Router;
 
@@ -49,10 +57,41 @@ public class CirculationVerticle extends AbstractVerticle {
 
     log.info("Starting circulation module");
 
+    if (config().containsKey("rulesEngine")) {
+      CirculationRulesProcessor.setRulesEngineTypes(config().getJsonObject("rulesEngine"));
+    }
+
+    if (config().containsKey("jsonEncoding")) {
+      JsonEncoding.setOptions(config().getJsonObject("jsonEncoding"));
+    }
+
+    if (config().containsKey("reports")) {
+      ReportRepository.setPageFetchingOptions(config().getJsonObject("reports"));
+    }
+
+    if (config().containsKey("scheduledNotices")) {
+      ScheduledNoticeExecutor.setOptions(config().getJsonObject("scheduledNotices"));
+      ScheduledNoticeProcessingResource.setOptions(config().getJsonObject("scheduledNotices"));
+      NearTermNoticeScheduler.setOptions(config().getJsonObject("scheduledNotices"));
+    }
+
+    NearTermNoticeScheduler.start(vertx);
+
     Router router = Router.router(vertx);
 
-    // bump up the connection pool size from the default value of 5
-    HttpClient client = vertx.createHttpClient(new HttpClientOptions().setMaxPoolSize(100));
+    final HttpClientProfile httpClientProfile
+      = HttpClientProfile.from(config().getJsonObject("httpClient"));
+
+    OkapiHttpClient.setProfile(httpClientProfile);
+
+    HttpClient client = vertx.createHttpClient(httpClientProfile.toHttpClientOptions());
+
+    if (httpClientProfile.getMetricsLogIntervalSeconds() > 0) {
+      vertx.setPeriodic(httpClientProfile.getMetricsLogIntervalSeconds() * 1000L,
+        timerId -> log.info("HTTP client (maximum pool size {}): {}",
+          httpClientProfile.getMaxPoolSize(),
+          OkapiHttpClient.getMetrics().snapshot().encode()));
+    }
 
     this.server = vertx.createHttpServer();
 
@@ -96,6 +135,8 @@ public class CirculationVerticle extends AbstractVerticle {
       "/circulation/rules/notice-policy-all",
         client)
         .register(router);
+    new CirculationRulesPoliciesResource("/circulation/rules/policies", client)
+      .register(router);
 
     new DueDateScheduledNoticeProcessingResource(client).register(router);
     new DueDateNotRealTimeScheduledNoticeProcessingResource(client).register(router);
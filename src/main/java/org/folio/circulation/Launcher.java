@@ -2,6 +2,7 @@ package org.folio.circulation;
 
 import io.vertx.core.json.JsonObject;
 import io.vertx.core.logging.Logger;
+import org.apache.commons.lang3.math.NumberUtils;
 import org.folio.circulation.support.VertxAssistant;
 import org.folio.circulation.support.logging.Logging;
 
@@ -64,6 +65,11 @@ public class Launcher {
 
     JsonObject config = new JsonObject();
     write(config, "port", port);
+    config.put("rulesEngine", rulesEngineTypes());
+    config.put("jsonEncoding", jsonEncodingOptions());
+    config.put("reports", reportOptions());
+    config.put("scheduledNotices", scheduledNoticeOptions());
+    config.put("httpClient", httpClientSettings());
 
     CompletableFuture<String> deployed =
       vertxAssistant.deployVerticle(CirculationVerticle.class, config);
@@ -72,4 +78,99 @@ public class Launcher {
       .thenApply(result -> moduleDeploymentId = result)
       .thenAccept(result -> log.info("Server Started"));
   }
+
+  /**
+   * Read the circulation rules engine types from the system properties:
+   * -DrulesEngine=decision-table for all tenants and
+   * -DrulesEngine.diku=drools for the diku tenant.
+   * @return the type for each tenant, the "default" entry for all other tenants
+   */
+  private static JsonObject rulesEngineTypes() {
+    final String prefix = "rulesEngine.";
+
+    JsonObject types = new JsonObject();
+    write(types, "default", System.getProperty("rulesEngine", "drools"));
+
+    for (String name : System.getProperties().stringPropertyNames()) {
+      if (name.startsWith(prefix)) {
+        write(types, name.substring(prefix.length()), System.getProperty(name));
+      }
+    }
+    return types;
+  }
+
+  /**
+   * Read how request and response bodies are encoded and logged from the
+   * system properties -DjsonEncoding.prettyPrint=true and
+   * -DjsonEncoding.maximumLoggedBodyLength
+   * @return the options that are set
+   */
+  private static JsonObject jsonEncodingOptions() {
+    JsonObject options = new JsonObject();
+    if (System.getProperty("jsonEncoding.prettyPrint") != null) {
+      options.put("prettyPrint", Boolean.getBoolean("jsonEncoding.prettyPrint"));
+    }
+    write(options, "maximumLoggedBodyLength",
+      Integer.getInteger("jsonEncoding.maximumLoggedBodyLength"));
+    return options;
+  }
+
+  /**
+   * Read how reports fetch pages of records from the system properties
+   * -Dreports.pageSize and -Dreports.parallelism
+   * @return the options that are set
+   */
+  private static JsonObject reportOptions() {
+    JsonObject options = new JsonObject();
+    write(options, "pageSize", Integer.getInteger("reports.pageSize"));
+    write(options, "parallelism", Integer.getInteger("reports.parallelism"));
+    return options;
+  }
+
+  /**
+   * Read how many scheduled notices are processed at once, for how long each
+   * run keeps processing further pages of due notices and how far ahead
+   * notices are scheduled in memory from the system properties
+   * -DscheduledNotices.concurrency, -DscheduledNotices.drainingTimeBudgetMilliseconds,
+   * -DscheduledNotices.lookAheadMinutes and -DscheduledNotices.tickMilliseconds
+   * @return the options that are set
+   */
+  private static JsonObject scheduledNoticeOptions() {
+    JsonObject options = new JsonObject();
+    write(options, "concurrency", Integer.getInteger("scheduledNotices.concurrency"));
+    write(options, "drainingTimeBudgetMilliseconds",
+      Integer.getInteger("scheduledNotices.drainingTimeBudgetMilliseconds"));
+    write(options, "lookAheadMinutes", Integer.getInteger("scheduledNotices.lookAheadMinutes"));
+    write(options, "tickMilliseconds", Integer.getInteger("scheduledNotices.tickMilliseconds"));
+    return options;
+  }
+
+  /**
+   * Read the settings of the HTTP client used for requests to Okapi from the
+   * system properties, e.g. -DhttpClient.maxPoolSize=200 or -DhttpClient.http2=true
+   * @return the settings that are set
+   */
+  private static JsonObject httpClientSettings() {
+    final String prefix = "httpClient.";
+
+    JsonObject settings = new JsonObject();
+
+    for (String name : System.getProperties().stringPropertyNames()) {
+      if (name.startsWith(prefix)) {
+        final String value = System.getProperty(name);
+        final String setting = name.substring(prefix.length());
+
+        if (value.equalsIgnoreCase("true") || value.equalsIgnoreCase("false")) {
+          settings.put(setting, Boolean.parseBoolean(value));
+        }
+        else if (NumberUtils.isDigits(value)) {
+          settings.put(setting, Long.parseLong(value));
+        }
+        else {
+          settings.put(setting, value);
+        }
+      }
+    }
+    return settings;
+  }
 }
@@ -1,7 +1,10 @@
 package org.folio.circulation.domain;
 
+import static java.util.concurrent.CompletableFuture.completedFuture;
 import static org.folio.circulation.domain.MultipleRecords.from;
 import static org.folio.circulation.support.CqlQuery.exactMatch;
+import static org.folio.circulation.support.Result.succeeded;
+import static org.folio.circulation.support.ResultBinding.mapResult;
 
 import io.vertx.core.json.JsonObject;
 import java.util.Collection;
@@ -12,6 +15,7 @@ import org.folio.circulation.domain.anonymization.config.LoanAnonymizationConfig
 import org.folio.circulation.support.Clients;
 import org.folio.circulation.support.CollectionResourceClient;
 import org.folio.circulation.support.CqlQuery;
+import org.folio.circulation.support.ReferenceDataCache;
 import org.folio.circulation.support.Result;
 import org.joda.time.DateTimeZone;
 
@@ -23,22 +27,63 @@ public class ConfigurationRepository {
 
   private static final int DEFAULT_PAGE_LIMIT = 1;
 
+  /** configuration settings are used for 1 minute before being fetched again */
+  private static final long CACHE_TIME_TO_LIVE_MILLISECONDS = 60 * 1000L;
+  private static final int CACHE_MAXIMUM_SIZE = 10;
+
+  private static final String NOTICES_LIMIT_KEY = "noticesLimit";
+  private static final String SESSION_TIMEOUT_KEY = "sessionTimeout";
+  private static final String TIME_ZONE_KEY = "timeZone";
+
+  private static final ReferenceDataCache<Integer> integerSettings
+    = new ReferenceDataCache<>(CACHE_TIME_TO_LIVE_MILLISECONDS, CACHE_MAXIMUM_SIZE);
+  private static final ReferenceDataCache<DateTimeZone> timeZones
+    = new ReferenceDataCache<>(CACHE_TIME_TO_LIVE_MILLISECONDS, CACHE_MAXIMUM_SIZE);
+
+  private final String tenantId;
   private final CollectionResourceClient configurationClient;
 
   public ConfigurationRepository(Clients clients) {
+    tenantId = clients.getTenantId();
     configurationClient = clients.configurationStorageClient();
   }
 
+  /**
+   * Drop the cached configuration settings of the tenant.
+   */
+  public static void clearCache(String tenantId) {
+    integerSettings.invalidate(tenantId);
+    timeZones.invalidate(tenantId);
+  }
+
+  /**
+   * Drop the cached configuration settings of all tenants.
+   */
+  public static void clearCache() {
+    integerSettings.invalidateAll();
+    timeZones.invalidateAll();
+  }
+
+  /**
+   * Set how long configuration settings fetched from now on are cached.
+   */
+  public static void setCacheTime(long timeToLiveMilliseconds) {
+    integerSettings.setTimeToLive(timeToLiveMilliseconds);
+    timeZones.setTimeToLive(timeToLiveMilliseconds);
+  }
+
   public CompletableFuture<Result<Integer>> lookupSchedulerNoticesProcessingLimit() {
     Result<CqlQuery> cqlQueryResult = defineModuleNameAndConfigNameFilter("NOTIFICATION_SCHEDULER", "noticesLimit");
 
-    return lookupConfigurations(cqlQueryResult, applySearchSchedulerNoticesLimit());
+    return lookupCachedConfiguration(integerSettings, NOTICES_LIMIT_KEY,
+      cqlQueryResult, applySearchSchedulerNoticesLimit());
   }
 
   public CompletableFuture<Result<Integer>> lookupSessionTimeout() {
     Result<CqlQuery> otherSettingsQuery = defineModuleNameAndConfigNameFilter("CHECKOUT", "other_settings");
 
-    return lookupConfigurations(otherSettingsQuery, applySessionTimeout());
+    return lookupCachedConfiguration(integerSettings, SESSION_TIMEOUT_KEY,
+      otherSettingsQuery, applySessionTimeout());
   }
 
   /**
@@ -65,7 +110,27 @@ public class ConfigurationRepository {
   public CompletableFuture<Result<DateTimeZone>> findTimeZoneConfiguration() {
     Result<CqlQuery> cqlQueryResult = defineModuleNameAndConfigNameFilter("ORG", "localeSettings");
 
-    return lookupConfigurations(cqlQueryResult, applySearchDateTimeZone());
+    return lookupCachedConfiguration(timeZones, TIME_ZONE_KEY, cqlQueryResult,
+      applySearchDateTimeZone());
+  }
+
+  private <T> CompletableFuture<Result<T>> lookupCachedConfiguration(
+    ReferenceDataCache<T> cache, String key, Result<CqlQuery> cqlQueryResult,
+    Function<MultipleRecords<Configuration>, T> searchStrategy) {
+
+    final T cachedSetting = cache.get(tenantId, key);
+
+    if (cachedSetting != null) {
+      return completedFuture(succeeded(cachedSetting));
+    }
+
+    final long cacheVersion = cache.getVersion(tenantId);
+
+    return lookupConfigurations(cqlQueryResult, searchStrategy)
+      .thenApply(mapResult(setting -> {
+        cache.put(tenantId, key, setting, cacheVersion);
+        return setting;
+      }));
   }
 
   private <T> CompletableFuture<Result<T>> lookupConfigurations(Result<CqlQuery> cqlQueryResult,
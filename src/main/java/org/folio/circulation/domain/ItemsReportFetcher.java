@@ -1,28 +1,142 @@
 package org.folio.circulation.domain;
 
-import org.folio.circulation.support.Result;
+import static org.folio.circulation.support.Result.failed;
+import static org.folio.circulation.support.Result.succeeded;
+import static org.folio.circulation.support.results.CommonFailures.failedDueToServerError;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+import org.folio.circulation.support.Result;
 
+/**
+ * Fetches every page of items for a report. The first page gives the total
+ * number of records, after which the remaining pages are fetched with at most
+ * the given number of requests in flight at once.
+ * <p>
+ * Pages are passed to the consumer one at a time as they arrive, which may
+ * not be in page order, and are not kept by the fetcher.
+ */
 public class ItemsReportFetcher {
-  private final int currPageNumber;
-  private final List<Result<MultipleRecords<Item>>> resultListOfItems;
+  private final IntFunction<CompletableFuture<Result<MultipleRecords<Item>>>> pageFetcher;
+  private final int pageSize;
+  private final int parallelism;
+  private final Consumer<MultipleRecords<Item>> pageConsumer;
+  private final CompletableFuture<Result<Integer>> fetched = new CompletableFuture<>();
+
+  private int numberOfPages = 1;
+  private int nextPageNumber = 0;
+  private int pagesInFlight = 0;
+  private int totalRecords = 0;
+
+  /**
+   * @param pageFetcher  fetches a page of items by zero based page number
+   * @param pageSize  number of items in a page
+   * @param parallelism  maximum number of pages being fetched at once
+   * @param pageConsumer  receives each page of items
+   */
+  public ItemsReportFetcher(
+    IntFunction<CompletableFuture<Result<MultipleRecords<Item>>>> pageFetcher,
+    int pageSize, int parallelism, Consumer<MultipleRecords<Item>> pageConsumer) {
+
+    this.pageFetcher = pageFetcher;
+    this.pageSize = pageSize;
+    this.parallelism = Math.max(1, parallelism);
+    this.pageConsumer = pageConsumer;
+  }
+
+  /**
+   * @return the total number of records, once every page has been consumed
+   */
+  public CompletableFuture<Result<Integer>> fetchAll() {
+    fetchPages(nextPagesToFetch());
+
+    return fetched;
+  }
 
-  public ItemsReportFetcher(int currPageNumber,
-                            List<Result<MultipleRecords<Item>>> resultListOfItems) {
-    this.currPageNumber = currPageNumber;
-    this.resultListOfItems = resultListOfItems;
+  private void fetchPages(List<Integer> pageNumbers) {
+    pageNumbers.forEach(pageNumber -> fetchPage(pageNumber)
+      .whenComplete((result, throwable) -> {
+        if (throwable != null) {
+          fail(failedDueToServerError(throwable));
+        }
+        else {
+          // failures are not passed on by the future of this callback, so
+          // they would otherwise leave the report without a response
+          try {
+            onPageFetched(pageNumber, result);
+          }
+          catch (Exception e) {
+            fail(failedDueToServerError(e));
+          }
+        }
+      }));
   }
 
-  public int getCurrPageNumber() {
-    return currPageNumber;
+  private CompletableFuture<Result<MultipleRecords<Item>>> fetchPage(int pageNumber) {
+    try {
+      return pageFetcher.apply(pageNumber);
+    }
+    catch (Exception e) {
+      return CompletableFuture.completedFuture(failedDueToServerError(e));
+    }
   }
 
-  public List<Result<MultipleRecords<Item>>> getResultListOfItems() {
-    return resultListOfItems;
+  private void onPageFetched(int pageNumber, Result<MultipleRecords<Item>> result) {
+    if (result.failed()) {
+      fail(failed(result.cause()));
+      return;
+    }
+
+    final MultipleRecords<Item> page = result.value();
+
+    synchronized (this) {
+      if (fetched.isDone()) {
+        return;
+      }
+
+      pagesInFlight--;
+
+      if (pageNumber == 0) {
+        if (page.getTotalRecords() == null) {
+          fetched.complete(failedDueToServerError(
+            "Total number of items was not provided"));
+          return;
+        }
+
+        totalRecords = page.getTotalRecords();
+        numberOfPages = Math.max(1, (totalRecords + pageSize - 1) / pageSize);
+      }
+
+      pageConsumer.accept(page);
+    }
+
+    fetchPages(nextPagesToFetch());
+  }
+
+  private synchronized List<Integer> nextPagesToFetch() {
+    final List<Integer> pageNumbers = new ArrayList<>();
+
+    if (fetched.isDone()) {
+      return pageNumbers;
+    }
+
+    while (pagesInFlight < parallelism && nextPageNumber < numberOfPages) {
+      pageNumbers.add(nextPageNumber++);
+      pagesInFlight++;
+    }
+
+    if (pagesInFlight == 0) {
+      fetched.complete(succeeded(totalRecords));
+    }
+
+    return pageNumbers;
   }
 
-  public int getPageOffset(int pageLimit) {
-    return currPageNumber * pageLimit;
+  private synchronized void fail(Result<Integer> failure) {
+    fetched.complete(failure);
   }
 }
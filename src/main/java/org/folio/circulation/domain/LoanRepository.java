@@ -19,6 +19,7 @@ import static org.folio.circulation.support.results.CommonFailures.failedDueToSe
 
 import java.lang.invoke.MethodHandles;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -171,8 +172,8 @@ public class LoanRepository {
       int fetchLoansLimit, Result<CqlQuery> statusQuery) {
 
     return statusQuery
-        .after(q -> loansStorageClient.getMany(q, fetchLoansLimit))
-        .thenApply(result -> result.next(this::mapResponseToLoans));
+        .after(q -> loansStorageClient.getMany(q, fetchLoansLimit, 0,
+          new MultipleRecordsParser<>(Loan::from, "loans")));
   }
 
   public CompletableFuture<Result<MultipleRecords<Loan>>> findClosedLoans(
@@ -277,6 +278,28 @@ public class LoanRepository {
     return findOpenLoans(item.getItemId());
   }
 
+  /**
+   * Find the open loans of many items, with a query per batch of items
+   * rather than per item
+   *
+   * @return the open loans, with their items
+   */
+  public CompletableFuture<Result<MultipleRecords<Loan>>> findOpenLoansForItems(
+    Collection<Item> items) {
+
+    final Map<String, Item> itemsById = new HashMap<>();
+
+    items.forEach(item -> itemsById.put(item.getItemId(), item));
+
+    final MultipleRecordFetcher<Loan> fetcher =
+      new MultipleRecordFetcher<>(loansStorageClient, "loans", Loan::from);
+
+    return fetcher.findByIndexNameAndQuery(itemsById.keySet(), ITEM_ID,
+      getStatusCQLQuery("Open"))
+      .thenApply(r -> r.map(loans -> loans.mapRecords(
+        loan -> loan.withItem(itemsById.get(loan.getItemId())))));
+  }
+
   private CompletableFuture<Result<MultipleRecords<Loan>>> findOpenLoans(String itemId) {
     final Result<CqlQuery> statusQuery = getStatusCQLQuery("Open");
     final Result<CqlQuery> itemIdQuery = exactMatch(ITEM_ID, itemId);
@@ -1,6 +1,7 @@
 package org.folio.circulation.domain;
 
 import static java.util.Objects.isNull;
+import static java.util.concurrent.CompletableFuture.completedFuture;
 import static java.util.function.Function.identity;
 import static java.util.stream.Collectors.toList;
 import static org.folio.circulation.support.Result.ofAsync;
@@ -8,32 +9,45 @@ import static org.folio.circulation.support.Result.succeeded;
 import static org.folio.circulation.support.ResultBinding.mapResult;
 
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
-import java.util.stream.Collectors;
+import java.util.function.Function;
 
 import org.apache.commons.lang3.StringUtils;
 import org.folio.circulation.support.Clients;
 import org.folio.circulation.support.CollectionResourceClient;
 import org.folio.circulation.support.MultipleRecordFetcher;
+import org.folio.circulation.support.ReferenceDataCache;
 import org.folio.circulation.support.Result;
 import org.folio.circulation.support.SingleRecordFetcher;
 
 import io.vertx.core.json.JsonObject;
 
 public class LocationRepository {
+  /** locations and location units are used for 10 minutes before being fetched again */
+  private static final long CACHE_TIME_TO_LIVE_MILLISECONDS = 10 * 60 * 1000L;
+  private static final int CACHE_MAXIMUM_SIZE = 5000;
 
+  private static final ReferenceDataCache<JsonObject> locationsCache = createCache();
+  private static final ReferenceDataCache<JsonObject> librariesCache = createCache();
+  private static final ReferenceDataCache<JsonObject> campusesCache = createCache();
+  private static final ReferenceDataCache<JsonObject> institutionsCache = createCache();
+
+  private final String tenantId;
   private CollectionResourceClient locationsStorageClient;
   private CollectionResourceClient institutionsStorageClient;
   private CollectionResourceClient campusesStorageClient;
   private CollectionResourceClient librariesStorageClient;
 
-  private LocationRepository(CollectionResourceClient locationsStorageClient,
+  private LocationRepository(String tenantId,
+                             CollectionResourceClient locationsStorageClient,
                              CollectionResourceClient institutionsStorageClient,
                              CollectionResourceClient campusesStorageClient,
                              CollectionResourceClient librariesStorageClient) {
 
+    this.tenantId = tenantId;
     this.locationsStorageClient = locationsStorageClient;
     this.institutionsStorageClient = institutionsStorageClient;
     this.campusesStorageClient = campusesStorageClient;
@@ -42,6 +56,7 @@ public class LocationRepository {
 
   public static LocationRepository using(Clients clients) {
     return new LocationRepository(
+      clients.getTenantId(),
       clients.locationsStorage(),
       clients.institutionsStorage(),
       clients.campusesStorage(),
@@ -49,15 +64,46 @@ public class LocationRepository {
     );
   }
 
+  /**
+   * Drop the cached locations and location units of the tenant.
+   */
+  public static void clearCache(String tenantId) {
+    locationsCache.invalidate(tenantId);
+    librariesCache.invalidate(tenantId);
+    campusesCache.invalidate(tenantId);
+    institutionsCache.invalidate(tenantId);
+  }
+
+  /**
+   * Drop the cached locations and location units of all tenants.
+   */
+  public static void clearCache() {
+    locationsCache.invalidateAll();
+    librariesCache.invalidateAll();
+    campusesCache.invalidateAll();
+    institutionsCache.invalidateAll();
+  }
+
+  /**
+   * Set how long locations and location units fetched from now on are cached.
+   */
+  public static void setCacheTime(long timeToLiveMilliseconds) {
+    locationsCache.setTimeToLive(timeToLiveMilliseconds);
+    librariesCache.setTimeToLive(timeToLiveMilliseconds);
+    campusesCache.setTimeToLive(timeToLiveMilliseconds);
+    institutionsCache.setTimeToLive(timeToLiveMilliseconds);
+  }
+
   public CompletableFuture<Result<Location>> getLocation(Item item) {
     if(isNull(item) || isNull(item.getLocationId())) {
       return ofAsync(() -> null);
     }
 
-    return SingleRecordFetcher.json(locationsStorageClient, "location",
-      response -> succeeded(null))
-      .fetch(item.getLocationId())
-      .thenApply(r -> r.map(Location::from))
+    return fetchRecord(locationsCache, locationsStorageClient, "location",
+      item.getLocationId())
+      .thenApply(r -> r.map(representation -> isNull(representation)
+        ? null
+        : Location.from(representation)))
       .thenCompose(r -> r.after(this::loadLibrary))
       .thenCompose(r -> r.after(this::loadCampus))
       .thenCompose(r -> r.after(this::loadInstitution));
@@ -66,18 +112,23 @@ public class LocationRepository {
   public CompletableFuture<Result<Map<String, Location>>> getLocations(
     Collection<Item> inventoryRecords) {
 
-    List<String> locationIds = inventoryRecords.stream()
+    final List<String> locationIds = inventoryRecords.stream()
       .map(Item::getLocationId)
-      .filter(StringUtils::isNotBlank)
-      .distinct()
-      .collect(Collectors.toList());
+      .collect(toList());
+
+    return fetchRecords(locationsCache, locationsStorageClient, "locations",
+      locationIds)
+      .thenApply(mapResult(this::toLocations))
+      .thenCompose(r -> r.after(this::loadLocationUnitsForLocations));
+  }
 
-    final MultipleRecordFetcher<Location> fetcher = new MultipleRecordFetcher<>(
-      locationsStorageClient, "locations", Location::from);
+  private Map<String, Location> toLocations(Map<String, JsonObject> representations) {
+    final Map<String, Location> locations = new HashMap<>();
 
-    return fetcher.findByIds(locationIds)
-      .thenCompose(this::loadLibrariesForLocations)
-      .thenApply(mapResult(sds -> sds.toMap(Location::getId)));
+    representations.forEach((id, representation) ->
+      locations.put(id, Location.from(representation)));
+
+    return locations;
   }
 
   private CompletableFuture<Result<Location>> loadLibrary(Location location) {
@@ -85,8 +136,8 @@ public class LocationRepository {
       return ofAsync(() -> null);
     }
 
-    return SingleRecordFetcher.json(librariesStorageClient, "library", response -> succeeded(null))
-      .fetch(location.getLibraryId())
+    return fetchRecord(librariesCache, librariesStorageClient, "library",
+      location.getLibraryId())
       .thenApply(r -> r.map(location::withLibraryRepresentation));
   }
 
@@ -95,8 +146,8 @@ public class LocationRepository {
       return ofAsync(() -> null);
     }
 
-    return SingleRecordFetcher.json(campusesStorageClient, "campus", response -> succeeded(null))
-      .fetch(location.getCampusId())
+    return fetchRecord(campusesCache, campusesStorageClient, "campus",
+      location.getCampusId())
       .thenApply(r -> r.map(location::withCampusRepresentation));
   }
 
@@ -105,67 +156,157 @@ public class LocationRepository {
       return ofAsync(() -> null);
     }
 
-    return SingleRecordFetcher.json(institutionsStorageClient, "institution", response -> succeeded(null))
-      .fetch(location.getInstitutionId())
+    return fetchRecord(institutionsCache, institutionsStorageClient,
+      "institution", location.getInstitutionId())
       .thenApply(r -> r.map(location::withInstitutionRepresentation));
   }
 
-  private CompletableFuture<Result<MultipleRecords<Location>>> loadLibrariesForLocations(
-          Result<MultipleRecords<Location>> multipleRecordsResult) {
-
-    return multipleRecordsResult.combineAfter(
-      locations -> getLibraries(locations.getRecords()), (locations, libraries) ->
-        locations.mapRecords(location -> location.withLibraryRepresentation(
-          libraries.getOrDefault(location.getLibraryId(),null))));
-
+  /**
+   * Load the library, campus and institution of each location, with a query
+   * per type of location unit, the same as for a single location
+   */
+  private CompletableFuture<Result<Map<String, Location>>> loadLocationUnitsForLocations(
+    Map<String, Location> locations) {
+
+    final CompletableFuture<Result<Map<String, JsonObject>>> libraries =
+      getLibraries(locations.values());
+    final CompletableFuture<Result<Map<String, JsonObject>>> campuses =
+      getCampuses(locations.values());
+    final CompletableFuture<Result<Map<String, JsonObject>>> institutions =
+      getInstitutions(locations.values());
+
+    return libraries
+      .thenCombine(campuses, (librariesResult, campusesResult) ->
+        librariesResult.combine(campusesResult, LocationUnits::new))
+      .thenCombine(institutions, (unitsResult, institutionsResult) ->
+        unitsResult.combine(institutionsResult, LocationUnits::withInstitutions))
+      .thenApply(mapResult(units -> {
+        final Map<String, Location> withUnits = new HashMap<>();
+
+        locations.forEach((id, location) -> withUnits.put(id, location
+          .withLibraryRepresentation(units.libraries.get(location.getLibraryId()))
+          .withCampusRepresentation(units.campuses.get(location.getCampusId()))
+          .withInstitutionRepresentation(
+            units.institutions.get(location.getInstitutionId()))));
+
+        return withUnits;
+      }));
   }
 
   private CompletableFuture<Result<Map<String, JsonObject>>> getLibraries(
           Collection<Location> locations) {
 
-    final MultipleRecordFetcher<JsonObject> fetcher = new MultipleRecordFetcher<>(
-            librariesStorageClient, "loclibs", identity());
+    return fetchRecords(librariesCache, librariesStorageClient, "loclibs",
+      locationUnitIds(locations, Location::getLibraryId));
+  }
 
-    List<String> libraryIds = locations.stream()
-            .map(Location::getLibraryId)
-            .distinct()
-            .collect(toList());
+  public CompletableFuture<Result<Map<String, JsonObject>>> getCampuses(
+    Collection<Location> locations) {
 
-    return fetcher.findByIds(libraryIds)
-            .thenApply(mapResult(records -> records.toMap(library ->
-                    library.getString("id"))));
+    return fetchRecords(campusesCache, campusesStorageClient, "loccamps",
+      locationUnitIds(locations, Location::getCampusId));
   }
 
-  public CompletableFuture<Result<Map<String, JsonObject>>> getCampuses(
+  public CompletableFuture<Result<Map<String, JsonObject>>> getInstitutions(
     Collection<Location> locations) {
 
-    final MultipleRecordFetcher<JsonObject> fetcher = new MultipleRecordFetcher<>(
-      campusesStorageClient, "loccamps", identity());
+    return fetchRecords(institutionsCache, institutionsStorageClient, "locinsts",
+      locationUnitIds(locations, Location::getInstitutionId));
+  }
 
-    List<String> campusesIds = locations.stream()
-      .map(Location::getCampusId)
-      .distinct()
-      .collect(toList());
+  private static List<String> locationUnitIds(Collection<Location> locations,
+    Function<Location, String> idMapper) {
 
-    return fetcher.findByIds(campusesIds)
-      .thenApply(mapResult(records -> records.toMap(campus ->
-        campus.getString("id"))));
+    return locations.stream()
+      .map(idMapper)
+      .collect(toList());
   }
 
-  public CompletableFuture<Result<Map<String, JsonObject>>> getInstitutions(
-    Collection<Location> locations) {
+  private CompletableFuture<Result<JsonObject>> fetchRecord(
+    ReferenceDataCache<JsonObject> cache, CollectionResourceClient client,
+    String recordType, String id) {
 
-    final MultipleRecordFetcher<JsonObject> fetcher = new MultipleRecordFetcher<>(
-      institutionsStorageClient, "locinsts", identity());
+    final JsonObject cached = cache.get(tenantId, id);
 
-    List<String> institutionsIds = locations.stream()
-      .map(Location::getInstitutionId)
+    if (cached != null) {
+      return completedFuture(succeeded(cached));
+    }
+
+    final long cacheVersion = cache.getVersion(tenantId);
+
+    return SingleRecordFetcher.json(client, recordType, response -> succeeded(null))
+      .fetch(id)
+      .thenApply(mapResult(record -> {
+        cache.put(tenantId, id, record, cacheVersion);
+        return record;
+      }));
+  }
+
+  private CompletableFuture<Result<Map<String, JsonObject>>> fetchRecords(
+    ReferenceDataCache<JsonObject> cache, CollectionResourceClient client,
+    String recordsPropertyName, Collection<String> ids) {
+
+    final List<String> distinctIds = ids.stream()
+      .filter(StringUtils::isNotBlank)
       .distinct()
       .collect(toList());
 
-    return fetcher.findByIds(institutionsIds)
-      .thenApply(mapResult(records -> records.toMap(institution ->
-        institution.getString("id"))));
+    final Map<String, JsonObject> cached = cache.getAll(tenantId, distinctIds);
+
+    final List<String> missingIds = distinctIds.stream()
+      .filter(id -> !cached.containsKey(id))
+      .collect(toList());
+
+    if (missingIds.isEmpty()) {
+      return completedFuture(succeeded(cached));
+    }
+
+    final long cacheVersion = cache.getVersion(tenantId);
+
+    final MultipleRecordFetcher<JsonObject> fetcher = new MultipleRecordFetcher<>(
+      client, recordsPropertyName, identity());
+
+    return fetcher.findByIds(missingIds)
+      .thenApply(mapResult(records -> {
+        final Map<String, JsonObject> found = new HashMap<>(cached);
+
+        records.getRecords().forEach(record -> {
+          final String id = record.getString("id");
+
+          cache.put(tenantId, id, record, cacheVersion);
+          found.put(id, record);
+        });
+
+        return found;
+      }));
+  }
+
+  private static class LocationUnits {
+    private final Map<String, JsonObject> libraries;
+    private final Map<String, JsonObject> campuses;
+    private final Map<String, JsonObject> institutions;
+
+    private LocationUnits(Map<String, JsonObject> libraries,
+      Map<String, JsonObject> campuses) {
+
+      this(libraries, campuses, new HashMap<>());
+    }
+
+    private LocationUnits(Map<String, JsonObject> libraries,
+      Map<String, JsonObject> campuses, Map<String, JsonObject> institutions) {
+
+      this.libraries = libraries;
+      this.campuses = campuses;
+      this.institutions = institutions;
+    }
+
+    private LocationUnits withInstitutions(Map<String, JsonObject> institutions) {
+      return new LocationUnits(libraries, campuses, institutions);
+    }
   }
 
+  private static ReferenceDataCache<JsonObject> createCache() {
+    return new ReferenceDataCache<>(CACHE_TIME_TO_LIVE_MILLISECONDS,
+      CACHE_MAXIMUM_SIZE);
+  }
 }
@@ -0,0 +1,129 @@
+package org.folio.circulation.domain;
+
+import static org.folio.circulation.support.Result.succeeded;
+import static org.folio.circulation.support.results.CommonFailures.failedDueToServerError;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import org.folio.circulation.support.Result;
+import org.folio.circulation.support.http.client.StreamingBodyParser;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.parsetools.JsonEvent;
+import io.vertx.core.parsetools.JsonParser;
+
+/**
+ * Maps each record of a multiple records body as it is parsed, so that only
+ * the mapped records are held rather than the whole document as well.
+ */
+public class MultipleRecordsParser<T> implements StreamingBodyParser<MultipleRecords<T>> {
+  private static final String TOTAL_RECORDS_PROPERTY_NAME = "totalRecords";
+
+  private final JsonParser parser = JsonParser.newParser();
+  private final Function<JsonObject, T> mapper;
+  private final String recordsPropertyName;
+  private final List<T> records = new ArrayList<>();
+  private Integer totalRecords;
+  private int depth = 0;
+  private boolean withinRecords = false;
+  private Throwable failure;
+
+  public MultipleRecordsParser(Function<JsonObject, T> mapper,
+    String recordsPropertyName) {
+
+    this.mapper = mapper;
+    this.recordsPropertyName = recordsPropertyName;
+
+    parser.handler(this::handleEvent);
+    parser.exceptionHandler(this::fail);
+  }
+
+  @Override
+  public void handle(Buffer chunk) {
+    if (failure != null) {
+      return;
+    }
+
+    try {
+      parser.handle(chunk);
+    }
+    catch (Exception e) {
+      fail(e);
+    }
+  }
+
+  @Override
+  public Result<MultipleRecords<T>> end() {
+    if (failure == null) {
+      try {
+        parser.end();
+      }
+      catch (Exception e) {
+        fail(e);
+      }
+    }
+
+    if (failure != null) {
+      return failedDueToServerError(failure);
+    }
+
+    return succeeded(new MultipleRecords<>(records, totalRecords));
+  }
+
+  private void handleEvent(JsonEvent event) {
+    if (failure != null) {
+      return;
+    }
+
+    try {
+      switch (event.type()) {
+        case START_ARRAY:
+          // records arrive whole rather than as separate events for each property
+          if (depth == 1 && recordsPropertyName.equals(event.fieldName())) {
+            withinRecords = true;
+            parser.objectValueMode();
+          }
+          depth++;
+          break;
+
+        case START_OBJECT:
+          depth++;
+          break;
+
+        case END_ARRAY:
+        case END_OBJECT:
+          depth--;
+
+          if (withinRecords && depth == 1) {
+            withinRecords = false;
+            parser.objectEventMode();
+          }
+          break;
+
+        case VALUE:
+          if (withinRecords && depth == 2 && event.isObject()) {
+            records.add(mapper.apply(event.objectValue()));
+          }
+          else if (depth == 1 && TOTAL_RECORDS_PROPERTY_NAME.equals(event.fieldName())) {
+            totalRecords = event.integerValue();
+          }
+          break;
+
+        default:
+          break;
+      }
+    }
+    catch (Exception e) {
+      fail(e);
+    }
+  }
+
+  private void fail(Throwable cause) {
+    if (failure == null) {
+      failure = cause;
+    }
+  }
+}
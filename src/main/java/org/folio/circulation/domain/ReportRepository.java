@@ -2,67 +2,74 @@ package org.folio.circulation.domain;
 
 import static org.folio.circulation.support.CqlQuery.exactMatch;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 import org.folio.circulation.support.Clients;
 import org.folio.circulation.support.CollectionResourceClient;
 import org.folio.circulation.support.CqlQuery;
 import org.folio.circulation.support.Result;
 
+import io.vertx.core.json.JsonObject;
+
 public class ReportRepository {
+  public static final int PAGE_LIMIT = 100;
+  private static final int DEFAULT_PARALLELISM = 5;
 
-  private final CollectionResourceClient itemsClient;
+  private static volatile int pageSize = PAGE_LIMIT;
+  private static volatile int parallelism = DEFAULT_PARALLELISM;
 
-  private static final int PAGE_LIMIT = 100;
+  private final CollectionResourceClient itemsClient;
 
   public ReportRepository(Clients clients) {
     itemsClient = clients.itemsStorage();
   }
 
-  public CompletableFuture<Result<ItemsReportFetcher>> getAllItemsByField(String fieldName, String fieldValue) {
-    CompletableFuture<Result<ItemsReportFetcher>> future = new CompletableFuture<>();
-    ItemsReportFetcher itemsReportFetcher = new ItemsReportFetcher(0, new ArrayList<>());
-    fetchNextPage(itemsReportFetcher, future, fieldName, fieldValue);
-    return future;
+  /**
+   * Set how reports fetch all the pages of records, from the options
+   * "pageSize" (default {@value #PAGE_LIMIT}) and "parallelism"
+   * (default {@value #DEFAULT_PARALLELISM})
+   */
+  public static void setPageFetchingOptions(JsonObject options) {
+    pageSize = Math.max(1, options.getInteger("pageSize", PAGE_LIMIT));
+    parallelism = Math.max(1, options.getInteger("parallelism", DEFAULT_PARALLELISM));
   }
 
-  private ItemsReportFetcher fillResultItemContext(ItemsReportFetcher itemsReportFetcher,
-                                                   Result<MultipleRecords<Item>> itemRecords) {
-    List<Result<MultipleRecords<Item>>> resultListOfItems = itemsReportFetcher.getResultListOfItems();
-    resultListOfItems.add(itemRecords);
-    int newPageNumber = itemsReportFetcher.getCurrPageNumber() + 1;
-    return new ItemsReportFetcher(newPageNumber, resultListOfItems);
+  /**
+   * Fetch every page of items with the field value, several pages at a time
+   *
+   * @param pageConsumer  receives each page of items as it arrives, one at a time
+   * @return the total number of items, once every page has been consumed
+   */
+  public CompletableFuture<Result<Integer>> getAllItemsByField(String fieldName,
+    String fieldValue, Consumer<MultipleRecords<Item>> pageConsumer) {
+
+    final int size = pageSize;
+
+    return new ItemsReportFetcher(
+      pageNumber -> getItemsPage(fieldName, fieldValue, pageNumber * size, size),
+      size, parallelism, pageConsumer)
+      .fetchAll();
   }
 
-  private void fetchNextPage(ItemsReportFetcher itemsReportFetcher,
-                             CompletableFuture<Result<ItemsReportFetcher>> future,
-                             String fieldName, String fieldValue) {
-    getItemsByField(itemsReportFetcher, fieldName, fieldValue)
-      .thenApply(itemRecords -> {
-          ItemsReportFetcher reportFetcher = fillResultItemContext(itemsReportFetcher, itemRecords);
-          int totalRecords = itemRecords.value().getTotalRecords();
-
-          if (totalRecords > reportFetcher.getPageOffset(PAGE_LIMIT)) {
-            fetchNextPage(reportFetcher, future, fieldName, fieldValue);
-          } else {
-            future.complete(Result.of(() -> reportFetcher));
-          }
-          return itemRecords;
-        }
-      );
+  /**
+   * Fetch one page of items, for processing a report one page at a time
+   *
+   * @param pageNumber  zero based number of the page of {@value #PAGE_LIMIT} items
+   */
+  public CompletableFuture<Result<MultipleRecords<Item>>> getItemsPageByField(
+    String fieldName, String fieldValue, int pageNumber) {
+
+    return getItemsPage(fieldName, fieldValue, pageNumber * PAGE_LIMIT, PAGE_LIMIT);
   }
 
-  private CompletableFuture<Result<MultipleRecords<Item>>> getItemsByField(ItemsReportFetcher itemsReportFetcher,
-                                                                           String fieldName, String fieldValue) {
+  private CompletableFuture<Result<MultipleRecords<Item>>> getItemsPage(
+    String fieldName, String fieldValue, int offset, int limit) {
+
     final Result<CqlQuery> itemStatusQuery = exactMatch(fieldName, fieldValue);
-    int pageOffset = itemsReportFetcher.getCurrPageNumber() * PAGE_LIMIT;
 
     return itemStatusQuery
-      .after(query -> itemsClient.getMany(query, PAGE_LIMIT, pageOffset))
-      .thenApply(result -> result
-        .next(response -> MultipleRecords.from(response, Item::from, "items")));
+      .after(query -> itemsClient.getMany(query, limit, offset,
+        new MultipleRecordsParser<>(Item::from, "items")));
   }
-
 }
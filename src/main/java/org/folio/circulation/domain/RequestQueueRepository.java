@@ -6,8 +6,13 @@ import static org.folio.circulation.support.CqlQuery.exactMatchAny;
 import static org.folio.circulation.support.CqlSortBy.ascending;
 import static org.folio.circulation.support.Result.succeeded;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 
 import org.folio.circulation.support.Clients;
 import org.folio.circulation.support.CqlQuery;
@@ -51,17 +56,33 @@ public class RequestQueueRepository {
       .thenApply(r -> r.map(RequestQueue::new));
   }
 
-  public CompletableFuture<Result<RequestQueue>> getRequestQueueWithoutItemLookup(String itemId) {
-    final Result<CqlQuery> itemIdQuery = exactMatch("itemId", itemId);
+  /**
+   * Get the request queues of many items, with a query per batch of items
+   * rather than per item
+   *
+   * @return the request queue for each item id, empty when the item has no open requests
+   */
+  public CompletableFuture<Result<Map<String, RequestQueue>>> getRequestQueuesWithoutItemLookup(
+    Collection<String> itemIds) {
+
     final Result<CqlQuery> statusQuery = exactMatchAny("status", RequestStatus.openStates());
 
-    final int maximumSupportedRequestQueueSize = 1000;
+    return requestRepository.findByItemIdsWithoutItems(itemIds, statusQuery)
+      .thenApply(r -> r.map(requests -> groupByItemId(itemIds, requests)));
+  }
 
-    return itemIdQuery.combine(statusQuery, CqlQuery::and)
-      .map(q -> q.sortBy(ascending("position")))
-      .after(query -> requestRepository.findByWithoutItems(query, maximumSupportedRequestQueueSize))
-      .thenApply(r -> r.map(MultipleRecords::getRecords))
-      .thenApply(r -> r.map(RequestQueue::new));
+  private Map<String, RequestQueue> groupByItemId(Collection<String> itemIds,
+    MultipleRecords<Request> requests) {
+
+    final Map<String, List<Request>> requestsByItemId = requests.getRecords().stream()
+      .collect(Collectors.groupingBy(Request::getItemId));
+
+    final Map<String, RequestQueue> queues = new HashMap<>();
+
+    itemIds.forEach(itemId -> queues.put(itemId,
+      new RequestQueue(requestsByItemId.getOrDefault(itemId, new ArrayList<>()))));
+
+    return queues;
   }
 
   CompletableFuture<Result<RequestQueue>> updateRequestsWithChangedPositions(
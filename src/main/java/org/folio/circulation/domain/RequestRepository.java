@@ -18,6 +18,7 @@ import org.folio.circulation.support.CollectionResourceClient;
 import org.folio.circulation.support.CqlQuery;
 import org.folio.circulation.support.FetchSingleRecord;
 import org.folio.circulation.support.ItemRepository;
+import org.folio.circulation.support.MultipleRecordFetcher;
 import org.folio.circulation.support.RecordNotFoundFailure;
 import org.folio.circulation.support.Result;
 import org.folio.circulation.support.SingleRecordFetcher;
@@ -103,11 +104,15 @@ public class RequestRepository {
         itemRepository.fetchItemsFor(requests, Request::withItem));
   }
 
-  CompletableFuture<Result<MultipleRecords<Request>>> findByWithoutItems(
-    CqlQuery query, Integer pageLimit) {
+  /**
+   * Find the requests of many items matching the query, with a query per
+   * batch of item ids rather than per item
+   */
+  CompletableFuture<Result<MultipleRecords<Request>>> findByItemIdsWithoutItems(
+    Collection<String> itemIds, Result<CqlQuery> query) {
 
-    return requestsStorageClient.getMany(query, pageLimit)
-      .thenApply(result -> result.next(this::mapResponseToRequests));
+    return new MultipleRecordFetcher<>(requestsStorageClient, "requests", Request::from)
+      .findByIndexNameAndQuery(itemIds, "itemId", query);
   }
 
   private Result<MultipleRecords<Request>> mapResponseToRequests(Response response) {
@@ -0,0 +1,155 @@
+package org.folio.circulation.domain;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.folio.circulation.support.Result.succeeded;
+
+import java.lang.invoke.MethodHandles;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import org.folio.circulation.support.Result;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Per tenant snapshot of all service points, keyed by id.
+ * <p>
+ * A snapshot older than the refresh age is still used while a reload of the
+ * whole collection runs in the background. A snapshot older than the maximum
+ * age is not used, callers wait for the reload instead.
+ */
+class ServicePointCache {
+  private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  private static class Snapshot {
+    private final Map<String, ServicePoint> servicePoints;
+    private final long loaded;
+
+    private Snapshot(Map<String, ServicePoint> servicePoints, long loaded) {
+      this.servicePoints = Collections.unmodifiableMap(servicePoints);
+      this.loaded = loaded;
+    }
+  }
+
+  private final ConcurrentMap<String, Snapshot> snapshots = new ConcurrentHashMap<>();
+  private final ConcurrentMap<String, CompletableFuture<Result<Snapshot>>> reloads
+    = new ConcurrentHashMap<>();
+  private final LongSupplier clock;
+  private volatile long refreshAgeMilliseconds;
+  private volatile long maximumAgeMilliseconds;
+
+  ServicePointCache(long refreshAgeMilliseconds, long maximumAgeMilliseconds) {
+    this(refreshAgeMilliseconds, maximumAgeMilliseconds, System::currentTimeMillis);
+  }
+
+  ServicePointCache(long refreshAgeMilliseconds, long maximumAgeMilliseconds,
+    LongSupplier clock) {
+
+    this.refreshAgeMilliseconds = refreshAgeMilliseconds;
+    this.maximumAgeMilliseconds = maximumAgeMilliseconds;
+    this.clock = clock;
+  }
+
+  /**
+   * @param loader  fetches all service points of the tenant
+   * @return all service points of the tenant by id
+   */
+  CompletableFuture<Result<Map<String, ServicePoint>>> getAll(String tenantId,
+    Supplier<CompletableFuture<Result<Collection<ServicePoint>>>> loader) {
+
+    final Snapshot snapshot = snapshots.get(tenantId);
+    final long age = snapshot == null ? Long.MAX_VALUE : clock.getAsLong() - snapshot.loaded;
+
+    if (age < refreshAgeMilliseconds) {
+      return completedFuture(succeeded(snapshot.servicePoints));
+    }
+
+    final CompletableFuture<Result<Snapshot>> reload = reload(tenantId, loader);
+
+    if (age < maximumAgeMilliseconds) {
+      return completedFuture(succeeded(snapshot.servicePoints));
+    }
+
+    return reload.thenApply(r -> r.map(loaded -> loaded.servicePoints));
+  }
+
+  /**
+   * Add service points that were fetched individually, because they were created
+   * after the snapshot was loaded, to the current snapshot.
+   */
+  void add(String tenantId, Collection<ServicePoint> servicePoints) {
+    if (servicePoints.isEmpty()) {
+      return;
+    }
+
+    snapshots.computeIfPresent(tenantId, (key, snapshot) -> {
+      final Map<String, ServicePoint> merged = new HashMap<>(snapshot.servicePoints);
+
+      servicePoints.forEach(servicePoint -> merged.put(servicePoint.getId(), servicePoint));
+
+      return new Snapshot(merged, snapshot.loaded);
+    });
+  }
+
+  void clear(String tenantId) {
+    snapshots.remove(tenantId);
+  }
+
+  void clear() {
+    snapshots.clear();
+  }
+
+  void setCacheTime(long refreshAgeMilliseconds, long maximumAgeMilliseconds) {
+    this.refreshAgeMilliseconds = refreshAgeMilliseconds;
+    this.maximumAgeMilliseconds = maximumAgeMilliseconds;
+  }
+
+  private CompletableFuture<Result<Snapshot>> reload(String tenantId,
+    Supplier<CompletableFuture<Result<Collection<ServicePoint>>>> loader) {
+
+    final CompletableFuture<Result<Snapshot>> reload = new CompletableFuture<>();
+    final CompletableFuture<Result<Snapshot>> running = reloads.putIfAbsent(tenantId, reload);
+
+    if (running != null) {
+      return running;
+    }
+
+    final long started = clock.getAsLong();
+
+    loader.get()
+      .thenApply(r -> r.map(servicePoints -> install(tenantId, servicePoints, started)))
+      .whenComplete((result, throwable) -> {
+        reloads.remove(tenantId, reload);
+
+        if (throwable != null) {
+          log.error("Cannot load service points of tenant {}", tenantId, throwable);
+          reload.completeExceptionally(throwable);
+        } else {
+          reload.complete(result);
+        }
+      });
+
+    return reload;
+  }
+
+  private Snapshot install(String tenantId, Collection<ServicePoint> servicePoints,
+    long loaded) {
+
+    final Map<String, ServicePoint> byId = new HashMap<>();
+
+    servicePoints.forEach(servicePoint -> byId.put(servicePoint.getId(), servicePoint));
+
+    final Snapshot snapshot = new Snapshot(byId, loaded);
+
+    snapshots.put(tenantId, snapshot);
+
+    return snapshot;
+  }
+}
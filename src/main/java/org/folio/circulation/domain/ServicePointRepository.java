@@ -1,13 +1,17 @@
 package org.folio.circulation.domain;
 
+import static java.util.Collections.singletonList;
 import static java.util.concurrent.CompletableFuture.completedFuture;
 import static org.folio.circulation.support.Result.ofAsync;
 import static org.folio.circulation.support.Result.succeeded;
+import static org.folio.circulation.support.ResultBinding.mapResult;
 
 import java.lang.invoke.MethodHandles;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
@@ -16,7 +20,6 @@ import java.util.stream.Stream;
 
 import org.folio.circulation.support.Clients;
 import org.folio.circulation.support.CollectionResourceClient;
-import org.folio.circulation.support.FetchSingleRecord;
 import org.folio.circulation.support.MultipleRecordFetcher;
 import org.folio.circulation.support.Result;
 import org.slf4j.Logger;
@@ -25,12 +28,48 @@ import org.slf4j.LoggerFactory;
 public class ServicePointRepository {
   private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
 
+  /** all service points are fetched again in the background after 1 minute */
+  private static final long CACHE_REFRESH_AGE_MILLISECONDS = 60 * 1000L;
+  /** service points older than 10 minutes are not used */
+  private static final long CACHE_MAXIMUM_AGE_MILLISECONDS = 10 * 60 * 1000L;
+  private static final int MAXIMUM_SERVICE_POINTS = 1000;
+
+  private static final ServicePointCache cache = new ServicePointCache(
+    CACHE_REFRESH_AGE_MILLISECONDS, CACHE_MAXIMUM_AGE_MILLISECONDS);
+
+  private final String tenantId;
   private final CollectionResourceClient servicePointsStorageClient;
 
   public ServicePointRepository(Clients clients) {
+    tenantId = clients.getTenantId();
     servicePointsStorageClient = clients.servicePointsStorage();
   }
 
+  /**
+   * Drop the cached service points of the tenant.
+   */
+  public static void clearCache(String tenantId) {
+    cache.clear(tenantId);
+  }
+
+  /**
+   * Drop the cached service points of all tenants.
+   */
+  public static void clearCache() {
+    cache.clear();
+  }
+
+  /**
+   * Set when cached service points are fetched again.
+   * @param refreshAgeMilliseconds  age after which they are fetched in the background
+   * @param maximumAgeMilliseconds  age after which they are not used anymore
+   */
+  public static void setCacheTime(long refreshAgeMilliseconds,
+    long maximumAgeMilliseconds) {
+
+    cache.setCacheTime(refreshAgeMilliseconds, maximumAgeMilliseconds);
+  }
+
   public CompletableFuture<Result<ServicePoint>> getServicePointById(UUID id) {
     if(id == null) {
       return ofAsync(() -> null);
@@ -44,11 +83,64 @@ public class ServicePointRepository {
       return ofAsync(() -> null);
     }
 
-    return FetchSingleRecord.<ServicePoint>forRecord("service point")
-        .using(servicePointsStorageClient)
-        .mapTo(ServicePoint::new)
-        .whenNotFound(succeeded(null))
-        .fetch(id);
+    return getServicePointsByIds(singletonList(id))
+      .thenApply(mapResult(servicePoints -> servicePoints.get(id)));
+  }
+
+  /**
+   * Service points are served from a snapshot of all of the tenant's service
+   * points, only those created since it was loaded are fetched.
+   *
+   * @param ids  ids of the service points
+   * @return the service points that exist, by id
+   */
+  public CompletableFuture<Result<Map<String, ServicePoint>>> getServicePointsByIds(
+    Collection<String> ids) {
+
+    return cache.getAll(tenantId, this::fetchAllServicePoints)
+      .thenCompose(r -> r.after(cached -> fetchMissingServicePoints(cached, ids)));
+  }
+
+  private CompletableFuture<Result<Map<String, ServicePoint>>> fetchMissingServicePoints(
+    Map<String, ServicePoint> cached, Collection<String> ids) {
+
+    final Map<String, ServicePoint> found = new HashMap<>();
+    final List<String> missingIds = new ArrayList<>();
+
+    ids.stream()
+      .filter(Objects::nonNull)
+      .distinct()
+      .forEach(id -> {
+        if (cached.containsKey(id)) {
+          found.put(id, cached.get(id));
+        } else {
+          missingIds.add(id);
+        }
+      });
+
+    if (missingIds.isEmpty()) {
+      return completedFuture(succeeded(found));
+    }
+
+    return createServicePointsFetcher().findByIds(missingIds)
+      .thenApply(mapResult(fetched -> {
+        cache.add(tenantId, fetched.getRecords());
+
+        fetched.getRecords().forEach(servicePoint ->
+          found.put(servicePoint.getId(), servicePoint));
+
+        return found;
+      }));
+  }
+
+  private CompletableFuture<Result<Collection<ServicePoint>>> fetchAllServicePoints() {
+    log.info("Fetching all service points of tenant {}", tenantId);
+
+    return servicePointsStorageClient.getManyWithRawQueryStringParameters(
+      "limit=" + MAXIMUM_SERVICE_POINTS)
+      .thenApply(response -> MultipleRecords.from(response, ServicePoint::from,
+        "servicepoints"))
+      .thenApply(mapResult(MultipleRecords::getRecords));
   }
   
   public CompletableFuture<Result<ServicePoint>> getServicePointForRequest(Request request) {
@@ -97,29 +189,27 @@ public class ServicePointRepository {
       return completedFuture(succeeded(multipleLoans));
     }
 
-    final MultipleRecordFetcher<ServicePoint> fetcher = createServicePointsFetcher();
-    
-    return fetcher.findByIds(servicePointsToFetch)
-      .thenApply(multipleServicePointsResult -> multipleServicePointsResult.next(
-          multipleServicePoints -> {
-            List<Loan> newLoanList = new ArrayList<>();
-            Collection<ServicePoint> spCollection = multipleServicePoints.getRecords();
-            for(Loan loan : loans) {
-              Loan newLoan = loan;
-              for(ServicePoint servicePoint : spCollection) {
-                if(loan.getCheckInServicePointId() != null &&
-                    loan.getCheckInServicePointId().equals(servicePoint.getId())) {
-                  newLoan = newLoan.withCheckinServicePoint(servicePoint);
-                }
-                if(loan.getCheckoutServicePointId() != null &&
-                    loan.getCheckoutServicePointId().equals(servicePoint.getId())) {
-                  newLoan = newLoan.withCheckoutServicePoint(servicePoint);
-                }
-              }
-              newLoanList.add(newLoan);
-            }
-            return succeeded(new MultipleRecords<>(newLoanList, multipleLoans.getTotalRecords()));
-          }));
+    return getServicePointsByIds(servicePointsToFetch)
+      .thenApply(mapResult(servicePoints -> multipleLoans.mapRecords(loan ->
+        withServicePoints(loan, servicePoints))));
+  }
+
+  private static Loan withServicePoints(Loan loan,
+    Map<String, ServicePoint> servicePoints) {
+
+    Loan newLoan = loan;
+
+    if(loan.getCheckInServicePointId() != null &&
+        servicePoints.containsKey(loan.getCheckInServicePointId())) {
+      newLoan = newLoan.withCheckinServicePoint(
+        servicePoints.get(loan.getCheckInServicePointId()));
+    }
+    if(loan.getCheckoutServicePointId() != null &&
+        servicePoints.containsKey(loan.getCheckoutServicePointId())) {
+      newLoan = newLoan.withCheckoutServicePoint(
+        servicePoints.get(loan.getCheckoutServicePointId()));
+    }
+    return newLoan;
   }
 
   public CompletableFuture<Result<MultipleRecords<Request>>> findServicePointsForRequests(
@@ -138,35 +228,24 @@ public class ServicePointRepository {
       return completedFuture(succeeded(multipleRequests));
     }
 
-    final MultipleRecordFetcher<ServicePoint> fetcher = createServicePointsFetcher();
-
-    return fetcher.findByIds(servicePointsToFetch)
-        .thenApply(multipleServicePointsResult -> multipleServicePointsResult.next(
-          multipleServicePoints -> {
-            List<Request> newRequestList = new ArrayList<>();
-            Collection<ServicePoint> spCollection = multipleServicePoints.getRecords();
-            for(Request request : requests) {
-              Request newRequest = null;
-              boolean foundSP = false; //Have we found a matching service point for the request?
-              for(ServicePoint servicePoint : spCollection) { 
-                if(request.getPickupServicePointId() != null &&
-                    request.getPickupServicePointId().equals(servicePoint.getId())) {                
-                  newRequest = request.withPickupServicePoint(servicePoint);
-                  foundSP = true;
-                  break;
-                }
-              }
-              if(!foundSP) {
-                log.info("No service point (out of {}) found for request {} (pickupServicePointId {})",
-                    spCollection.size(), request.getId(), request.getPickupServicePointId());
-                newRequest = request;
-              }
-              newRequestList.add(newRequest);
-            }
-
-            return succeeded(
-              new MultipleRecords<>(newRequestList, multipleRequests.getTotalRecords()));
-          }));
+    return getServicePointsByIds(servicePointsToFetch)
+      .thenApply(mapResult(servicePoints -> multipleRequests.mapRecords(request ->
+        withPickupServicePoint(request, servicePoints))));
+  }
+
+  private static Request withPickupServicePoint(Request request,
+    Map<String, ServicePoint> servicePoints) {
+
+    final ServicePoint servicePoint = servicePoints.get(
+      request.getPickupServicePointId());
+
+    if(servicePoint == null) {
+      log.info("No service point (out of {}) found for request {} (pickupServicePointId {})",
+          servicePoints.size(), request.getId(), request.getPickupServicePointId());
+      return request;
+    }
+
+    return request.withPickupServicePoint(servicePoint);
   }
 
   private MultipleRecordFetcher<ServicePoint> createServicePointsFetcher() {
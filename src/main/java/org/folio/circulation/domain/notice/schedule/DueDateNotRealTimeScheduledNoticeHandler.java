@@ -1,7 +1,6 @@
 package org.folio.circulation.domain.notice.schedule;
 
 import static java.util.concurrent.CompletableFuture.completedFuture;
-import static org.folio.circulation.support.AsyncCoordinationUtil.allOf;
 import static org.folio.circulation.support.Result.succeeded;
 import static org.folio.circulation.support.ResultBinding.mapResult;
 
@@ -12,11 +11,9 @@ import java.util.stream.Collectors;
 import org.apache.commons.lang3.tuple.Pair;
 import org.folio.circulation.domain.Loan;
 import org.folio.circulation.domain.LoanAndRelatedRecords;
-import org.folio.circulation.domain.LoanRepository;
 import org.folio.circulation.domain.User;
 import org.folio.circulation.domain.notice.PatronNoticeService;
 import org.folio.circulation.domain.notice.TemplateContextUtil;
-import org.folio.circulation.domain.policy.LoanPolicyRepository;
 import org.folio.circulation.support.Clients;
 import org.folio.circulation.support.Result;
 import org.joda.time.DateTime;
@@ -27,53 +24,70 @@ import io.vertx.core.json.JsonObject;
 public class DueDateNotRealTimeScheduledNoticeHandler {
 
   public static DueDateNotRealTimeScheduledNoticeHandler using(Clients clients, DateTime systemTime) {
+    final ScheduledNoticeContextLoader contextLoader = ScheduledNoticeContextLoader.using(clients);
+    final PatronNoticeService patronNoticeService = PatronNoticeService.using(clients);
+    final ScheduledNoticeBatchWriter noticeWriter = new ScheduledNoticeBatchWriter(
+      ScheduledNoticesRepository.using(clients));
 
     return new DueDateNotRealTimeScheduledNoticeHandler(
-      DueDateScheduledNoticeHandler.using(clients, systemTime),
-      new LoanRepository(clients),
-      new LoanPolicyRepository(clients),
-      PatronNoticeService.using(clients));
+      new DueDateScheduledNoticeHandler(contextLoader, patronNoticeService,
+        noticeWriter, systemTime),
+      contextLoader, patronNoticeService, noticeWriter);
   }
 
   private final DueDateScheduledNoticeHandler dueDateScheduledNoticeHandler;
-  private final LoanRepository loanRepository;
-  private final LoanPolicyRepository loanPolicyRepository;
+  private final ScheduledNoticeContextLoader contextLoader;
   private final PatronNoticeService patronNoticeService;
+  private final ScheduledNoticeBatchWriter noticeWriter;
 
   public DueDateNotRealTimeScheduledNoticeHandler(
     DueDateScheduledNoticeHandler dueDateScheduledNoticeHandler,
-    LoanRepository loanRepository,
-    LoanPolicyRepository loanPolicyRepository,
-    PatronNoticeService patronNoticeService) {
+    ScheduledNoticeContextLoader contextLoader,
+    PatronNoticeService patronNoticeService,
+    ScheduledNoticeBatchWriter noticeWriter) {
 
     this.dueDateScheduledNoticeHandler = dueDateScheduledNoticeHandler;
-    this.loanRepository = loanRepository;
-    this.loanPolicyRepository = loanPolicyRepository;
+    this.contextLoader = contextLoader;
     this.patronNoticeService = patronNoticeService;
+    this.noticeWriter = noticeWriter;
   }
 
   public CompletableFuture<Result<Void>> handleNotices(
     List<List<ScheduledNotice>> noticeGroups) {
 
-    CompletableFuture<Result<Void>> future = completedFuture(succeeded(null));
-    for (List<ScheduledNotice> noticeGroup : noticeGroups) {
-      future = future.thenCompose(r -> r.after(v -> handleNoticeGroup(noticeGroup)));
-    }
-    return future.thenApply(mapResult(v -> null));
+    final List<ScheduledNotice> notices = noticeGroups.stream()
+      .flatMap(List::stream)
+      .collect(Collectors.toList());
+
+    return contextLoader.loadLoans(notices)
+      .thenCompose(r -> r.after(context -> ScheduledNoticeExecutor.create()
+        .execute(noticeGroups, this::describeGroup,
+          noticeGroup -> handleNoticeGroup(noticeGroup, context))))
+      .thenCompose(r -> r.after(v -> noticeWriter.flush()));
   }
 
-  private CompletableFuture<Result<Void>> handleNoticeGroup(List<ScheduledNotice> noticeGroup) {
-  return allOf(noticeGroup, this::getContext)
-      .thenCompose(r -> r.after(this::sendGroupedNotice))
+  private String describeGroup(List<ScheduledNotice> noticeGroup) {
+    return noticeGroup.stream()
+      .map(ScheduledNotice::getId)
+      .collect(Collectors.joining(", "));
+  }
+
+  private CompletableFuture<Result<Void>> handleNoticeGroup(
+    List<ScheduledNotice> noticeGroup, ScheduledNoticeContext context) {
+
+    return Result.combineAll(noticeGroup.stream()
+        .map(notice -> getContext(notice, context))
+        .collect(Collectors.toList()))
+      .after(this::sendGroupedNotice)
       .thenCompose(r -> r.after(this::updateGroupedNotice))
       .thenApply(mapResult(p -> null));
   }
 
-  private CompletableFuture<Result<Pair<ScheduledNotice, LoanAndRelatedRecords>>> getContext(ScheduledNotice notice) {
-    return loanRepository.getById(notice.getLoanId())
-      .thenApply(mapResult(LoanAndRelatedRecords::new))
-      .thenCompose(r -> r.after(loanPolicyRepository::lookupLoanPolicy))
-      .thenApply(mapResult(relatedRecords -> Pair.of(notice, relatedRecords)));
+  private Result<Pair<ScheduledNotice, LoanAndRelatedRecords>> getContext(
+    ScheduledNotice notice, ScheduledNoticeContext context) {
+
+    return context.getLoanAndRelatedRecords(notice)
+      .map(relatedRecords -> Pair.of(notice, relatedRecords));
   }
 
   private CompletableFuture<Result<List<Pair<ScheduledNotice, LoanAndRelatedRecords>>>> sendGroupedNotice(
@@ -6,14 +6,11 @@ import static org.folio.circulation.support.Result.succeeded;
 import java.util.Collection;
 import java.util.concurrent.CompletableFuture;
 
-import org.folio.circulation.domain.ConfigurationRepository;
 import org.folio.circulation.domain.Loan;
 import org.folio.circulation.domain.LoanAndRelatedRecords;
-import org.folio.circulation.domain.LoanRepository;
 import org.folio.circulation.domain.notice.TemplateContextUtil;
 import org.folio.circulation.domain.notice.NoticeTiming;
 import org.folio.circulation.domain.notice.PatronNoticeService;
-import org.folio.circulation.domain.policy.LoanPolicyRepository;
 import org.folio.circulation.support.Clients;
 import org.folio.circulation.support.Result;
 import org.joda.time.DateTime;
@@ -24,56 +21,50 @@ public class DueDateScheduledNoticeHandler {
 
   public static DueDateScheduledNoticeHandler using(Clients clients, DateTime systemTime) {
     return new DueDateScheduledNoticeHandler(
-      new LoanRepository(clients),
-      new LoanPolicyRepository(clients),
-      new ConfigurationRepository(clients),
+      ScheduledNoticeContextLoader.using(clients),
       PatronNoticeService.using(clients),
-      ScheduledNoticesRepository.using(clients),
+      new ScheduledNoticeBatchWriter(ScheduledNoticesRepository.using(clients)),
       systemTime);
   }
 
-  private LoanRepository loanRepository;
-  private LoanPolicyRepository loanPolicyRepository;
-  private ConfigurationRepository configurationRepository;
+  private ScheduledNoticeContextLoader contextLoader;
   private PatronNoticeService patronNoticeService;
-  private ScheduledNoticesRepository scheduledNoticesRepository;
+  private ScheduledNoticeBatchWriter noticeWriter;
   private DateTime systemTime;
 
   public DueDateScheduledNoticeHandler(
-    LoanRepository loanRepository, LoanPolicyRepository loanPolicyRepository,
-    ConfigurationRepository configurationRepository,
+    ScheduledNoticeContextLoader contextLoader,
     PatronNoticeService patronNoticeService,
-    ScheduledNoticesRepository scheduledNoticesRepository, DateTime systemTime) {
+    ScheduledNoticeBatchWriter noticeWriter, DateTime systemTime) {
 
-    this.loanRepository = loanRepository;
-    this.loanPolicyRepository = loanPolicyRepository;
-    this.configurationRepository = configurationRepository;
+    this.contextLoader = contextLoader;
     this.patronNoticeService = patronNoticeService;
-    this.scheduledNoticesRepository = scheduledNoticesRepository;
+    this.noticeWriter = noticeWriter;
     this.systemTime = systemTime;
   }
 
   public CompletableFuture<Result<Collection<ScheduledNotice>>> handleNotices(Collection<ScheduledNotice> scheduledNotices) {
-    CompletableFuture<Result<ScheduledNotice>> future = completedFuture(succeeded(null));
-    for (ScheduledNotice scheduledNotice : scheduledNotices) {
-      future = future.thenCompose(r -> r.after(v -> handleNotice(scheduledNotice)));
-    }
-    return future.thenApply(r -> r.map(v -> scheduledNotices));
+    return contextLoader.loadLoans(scheduledNotices)
+      .thenCompose(r -> r.after(context -> ScheduledNoticeExecutor.create()
+        .execute(scheduledNotices, ScheduledNotice::getId,
+          notice -> handleNotice(notice, context))))
+      .thenCompose(r -> r.after(v -> noticeWriter.flush()))
+      .thenApply(r -> r.map(v -> scheduledNotices));
   }
 
-  private CompletableFuture<Result<ScheduledNotice>> handleNotice(ScheduledNotice notice) {
+  private CompletableFuture<Result<ScheduledNotice>> handleNotice(
+    ScheduledNotice notice, ScheduledNoticeContext context) {
+
     if (notice.getLoanId() != null) {
-      return handleDueDateNotice(notice);
+      return handleDueDateNotice(notice, context);
     }
     return completedFuture(succeeded(notice));
   }
 
-  private CompletableFuture<Result<ScheduledNotice>> handleDueDateNotice(ScheduledNotice notice) {
-    return loanRepository.getById(notice.getLoanId())
-      .thenApply(r -> r.map(LoanAndRelatedRecords::new))
-      .thenCompose(r -> r.after(loanPolicyRepository::lookupLoanPolicy))
-      .thenCompose(r -> r.combineAfter(configurationRepository::findTimeZoneConfiguration,
-        LoanAndRelatedRecords::withTimeZone))
+  private CompletableFuture<Result<ScheduledNotice>> handleDueDateNotice(
+    ScheduledNotice notice, ScheduledNoticeContext context) {
+
+    return completedFuture(context.getLoanAndRelatedRecords(notice))
       .thenCompose(r -> r.after(records -> sendNotice(records, notice)))
       .thenCompose(r -> r.after(relatedRecords -> updateNotice(relatedRecords, notice)));
   }
@@ -99,7 +90,7 @@ public class DueDateScheduledNoticeHandler {
     ScheduledNoticeConfig noticeConfig = notice.getConfiguration();
 
     if (loan.isClosed() || !noticeConfig.isRecurring()) {
-      return scheduledNoticesRepository.delete(notice);
+      return noticeWriter.delete(notice);
     }
 
     DateTime recurringNoticeNextRunTime = notice.getNextRunTime()
@@ -111,10 +102,10 @@ public class DueDateScheduledNoticeHandler {
     ScheduledNotice nextRecurringNotice = notice.withNextRunTime(recurringNoticeNextRunTime);
 
     if (nextRecurringNoticeIsNotRelevant(nextRecurringNotice, loan)) {
-      return scheduledNoticesRepository.delete(notice);
+      return noticeWriter.delete(notice);
     }
 
-    return scheduledNoticesRepository.update(nextRecurringNotice);
+    return noticeWriter.update(nextRecurringNotice);
   }
 
   public boolean noticeIsNotRelevant(ScheduledNotice notice, Loan loan) {
@@ -0,0 +1,275 @@
+package org.folio.circulation.domain.notice.schedule;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.folio.circulation.domain.notice.schedule.TriggeringEvent.DUE_DATE;
+import static org.folio.circulation.domain.notice.schedule.TriggeringEvent.HOLD_EXPIRATION;
+import static org.folio.circulation.domain.notice.schedule.TriggeringEvent.REQUEST_EXPIRATION;
+import static org.folio.circulation.support.Result.succeeded;
+import static org.folio.circulation.support.ResultBinding.mapResult;
+
+import java.lang.invoke.MethodHandles;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import org.folio.circulation.support.Clients;
+import org.folio.circulation.support.Result;
+import org.folio.circulation.support.TimingWheel;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Fires the real time scheduled notices of a tenant that are due within the
+ * next few minutes from memory, when they are due, rather than waiting for a
+ * processing run to find them.
+ * <p>
+ * Each processing run looks ahead for the notices due within the look ahead
+ * period, and notices created in the meantime are added directly. Storage
+ * remains the source of truth: notices are fetched again before they are
+ * fired, so those deleted or rescheduled since are not sent, and notices not
+ * fired before a restart are found by the next processing run.
+ */
+public class NearTermNoticeScheduler {
+  private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  private static final List<TriggeringEvent> TRIGGERING_EVENTS =
+    Arrays.asList(DUE_DATE, HOLD_EXPIRATION, REQUEST_EXPIRATION);
+
+  private static final int DEFAULT_TICK_MILLISECONDS = 1000;
+  private static final int WHEEL_SIZE = 60;
+
+  /**
+   * failures to contact storage are only logged by the clients of the
+   * scheduler, so notices still being fired after this long are given back
+   * to the processing runs rather than waited for
+   */
+  private static final long FIRING_TIMEOUT_MILLISECONDS = 60 * 1000L;
+
+  private static final Map<String, NearTermNoticeScheduler> schedulers =
+    new ConcurrentHashMap<>();
+
+  private static volatile int lookAheadMinutes = 0;
+  private static volatile int tickMilliseconds = DEFAULT_TICK_MILLISECONDS;
+
+  private final TimingWheel<String> wheel;
+  private final Map<String, ScheduledNotice> scheduledNotices = new HashMap<>();
+  private final Map<String, Long> noticesInProgress = new HashMap<>();
+
+  /**
+   * Clients created for the processing run that last looked ahead, without
+   * the user or request of that run. Processing runs are triggered by Okapi
+   * timers every few seconds, and so the token they are made with is assumed
+   * to still be accepted for at least the look ahead period. A notice that
+   * cannot be fired because it no longer is, is found again by the next run
+   */
+  private volatile Clients clients;
+
+  /**
+   * Set how far ahead notices are scheduled in memory, and how often they
+   * are checked for being due. Notices are only scheduled in memory when the
+   * look ahead period is set, by default they are not
+   */
+  public static void setOptions(JsonObject options) {
+    lookAheadMinutes = Math.max(0, options.getInteger("lookAheadMinutes", 0));
+    tickMilliseconds = Math.max(1,
+      options.getInteger("tickMilliseconds", DEFAULT_TICK_MILLISECONDS));
+  }
+
+  public static boolean isEnabled() {
+    return lookAheadMinutes > 0;
+  }
+
+  /**
+   * Fire the notices that are due every tick, when enabled
+   */
+  public static void start(Vertx vertx) {
+    if (!isEnabled()) {
+      return;
+    }
+
+    vertx.setPeriodic(tickMilliseconds, timerId -> schedulers.values()
+      .forEach(scheduler -> scheduler.fireDueNotices(DateTime.now(DateTimeZone.UTC))));
+  }
+
+  public static NearTermNoticeScheduler forTenant(String tenantId) {
+    return schedulers.computeIfAbsent(tenantId,
+      notUsed -> new NearTermNoticeScheduler(System.currentTimeMillis()));
+  }
+
+  /**
+   * Schedule a newly created notice, when the tenant already has a scheduler
+   */
+  static void scheduleIfStarted(String tenantId, ScheduledNotice notice) {
+    if (!isEnabled() || tenantId == null) {
+      return;
+    }
+
+    final NearTermNoticeScheduler scheduler = schedulers.get(tenantId);
+
+    if (scheduler != null) {
+      scheduler.schedule(notice);
+    }
+  }
+
+  private NearTermNoticeScheduler(long startTime) {
+    this.wheel = new TimingWheel<>(tickMilliseconds, WHEEL_SIZE, startTime);
+  }
+
+  /**
+   * Schedule the notices with the given triggering events that become due
+   * within the look ahead period
+   *
+   * @param detachedClients  clients used to fire notices from then on, which
+   * must not respond to the request of the processing run
+   */
+  public CompletableFuture<Result<Void>> lookAhead(Clients detachedClients,
+    ScheduledNoticesRepository scheduledNoticesRepository,
+    List<TriggeringEvent> triggeringEvents, int limit) {
+
+    clients = detachedClients;
+
+    final DateTime now = DateTime.now(DateTimeZone.UTC);
+
+    return scheduledNoticesRepository.findNoticesDueBetween(now,
+      now.plusMinutes(lookAheadMinutes), triggeringEvents, limit)
+      .thenApply(mapResult(notices -> {
+        notices.getRecords().forEach(this::schedule);
+        return null;
+      }));
+  }
+
+  /**
+   * @return whether the notice is to be fired by this scheduler, and so
+   * should not be processed by a processing run
+   */
+  public synchronized boolean isScheduled(ScheduledNotice notice) {
+    return scheduledNotices.containsKey(notice.getId());
+  }
+
+  synchronized void schedule(ScheduledNotice notice) {
+    if (!notice.getConfiguration().sendInRealTime()
+      || !TRIGGERING_EVENTS.contains(notice.getTriggeringEvent())
+      || noticesInProgress.containsKey(notice.getId())) {
+      return;
+    }
+
+    final long dueAt = notice.getNextRunTime().getMillis();
+
+    if (dueAt > DateTime.now().plusMinutes(lookAheadMinutes).getMillis()) {
+      return;
+    }
+
+    final ScheduledNotice previous = scheduledNotices.put(notice.getId(), notice);
+
+    if (previous == null || previous.getNextRunTime().getMillis() != dueAt) {
+      wheel.add(notice.getId(), dueAt);
+    }
+  }
+
+  void fireDueNotices(DateTime now) {
+    final List<ScheduledNotice> dueNotices;
+
+    synchronized (this) {
+      releaseStalledNotices(now.getMillis());
+
+      dueNotices = wheel.advanceTo(now.getMillis()).stream()
+        .distinct()
+        .map(scheduledNotices::get)
+        .filter(Objects::nonNull)
+        .filter(notice -> !notice.getNextRunTime().isAfter(now))
+        .filter(notice -> noticesInProgress.putIfAbsent(notice.getId(),
+          now.getMillis()) == null)
+        .collect(Collectors.toList());
+    }
+
+    if (dueNotices.isEmpty()) {
+      return;
+    }
+
+    final List<String> ids = dueNotices.stream()
+      .map(ScheduledNotice::getId)
+      .collect(Collectors.toList());
+
+    final Clients tenantClients = clients;
+
+    if (tenantClients == null) {
+      finished(dueNotices);
+      return;
+    }
+
+    ScheduledNoticesRepository.using(tenantClients).findByIds(ids)
+      .thenCompose(r -> r.after(notices -> handleNotices(tenantClients,
+        notices.getRecords().stream()
+          .filter(notice -> !notice.getNextRunTime().isAfter(now))
+          .collect(Collectors.toList()), now)))
+      .whenComplete((result, throwable) -> {
+        if (throwable != null) {
+          log.error("Failed to fire scheduled notices {}", ids, throwable);
+        }
+        else if (result.failed()) {
+          log.error("Failed to fire scheduled notices {}: {}", ids, result.cause());
+        }
+
+        finished(dueNotices);
+      });
+  }
+
+  private CompletableFuture<Result<Void>> handleNotices(Clients clients,
+    Collection<ScheduledNotice> notices, DateTime now) {
+
+    final Map<Boolean, List<ScheduledNotice>> byDueDate = notices.stream()
+      .collect(Collectors.partitioningBy(
+        notice -> notice.getTriggeringEvent() == DUE_DATE));
+
+    final CompletableFuture<Result<Collection<ScheduledNotice>>> dueDateNotices =
+      byDueDate.get(true).isEmpty()
+        ? completedFuture(succeeded(byDueDate.get(true)))
+        : DueDateScheduledNoticeHandler.using(clients, now)
+          .handleNotices(byDueDate.get(true));
+
+    final CompletableFuture<Result<Collection<ScheduledNotice>>> requestNotices =
+      byDueDate.get(false).isEmpty()
+        ? completedFuture(succeeded(byDueDate.get(false)))
+        : RequestScheduledNoticeHandler.using(clients)
+          .handleNotices(byDueDate.get(false));
+
+    return dueDateNotices.thenCombine(requestNotices, (dueDate, request) ->
+      dueDate.combine(request, (first, second) -> null));
+  }
+
+  private void releaseStalledNotices(long now) {
+    noticesInProgress.entrySet().removeIf(inProgress -> {
+      if (inProgress.getValue() + FIRING_TIMEOUT_MILLISECONDS > now) {
+        return false;
+      }
+
+      log.warn("Gave up waiting for scheduled notice {} to be fired",
+        inProgress.getKey());
+
+      scheduledNotices.remove(inProgress.getKey());
+      return true;
+    });
+  }
+
+  /**
+   * Forget the fired notices, those that are still due, because they could
+   * not be sent, are found again by the next processing run
+   */
+  private synchronized void finished(Collection<ScheduledNotice> notices) {
+    notices.forEach(notice -> {
+      noticesInProgress.remove(notice.getId());
+      scheduledNotices.remove(notice.getId());
+    });
+  }
+}
@@ -0,0 +1,40 @@
+package org.folio.circulation.domain.notice.schedule;
+
+/**
+ * How many scheduled notices were processed in a run, and how quickly
+ */
+public class NoticeProcessingStatistics {
+  private final int processed;
+  private final int failed;
+  private final long elapsedMilliseconds;
+
+  public NoticeProcessingStatistics(int processed, int failed,
+    long elapsedMilliseconds) {
+
+    this.processed = processed;
+    this.failed = failed;
+    this.elapsedMilliseconds = elapsedMilliseconds;
+  }
+
+  public int getProcessed() {
+    return processed;
+  }
+
+  public int getFailed() {
+    return failed;
+  }
+
+  public long getElapsedMilliseconds() {
+    return elapsedMilliseconds;
+  }
+
+  public double getNoticesPerSecond() {
+    return processed * 1000.0 / Math.max(1, elapsedMilliseconds);
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%d processed (%d failed) in %d ms, %.1f per second",
+      processed, failed, elapsedMilliseconds, getNoticesPerSecond());
+  }
+}
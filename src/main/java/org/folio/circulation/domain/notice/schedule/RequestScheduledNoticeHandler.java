@@ -26,28 +26,27 @@ public class RequestScheduledNoticeHandler {
     return new RequestScheduledNoticeHandler(
       RequestRepository.using(clients, true),
       PatronNoticeService.using(clients),
-      ScheduledNoticesRepository.using(clients));
+      new ScheduledNoticeBatchWriter(ScheduledNoticesRepository.using(clients)));
   }
 
   private RequestRepository requestRepository;
   private PatronNoticeService patronNoticeService;
-  private ScheduledNoticesRepository scheduledNoticesRepository;
+  private ScheduledNoticeBatchWriter noticeWriter;
 
   private RequestScheduledNoticeHandler(RequestRepository requestRepository,
                                         PatronNoticeService patronNoticeService,
-                                        ScheduledNoticesRepository scheduledNoticesRepository) {
+                                        ScheduledNoticeBatchWriter noticeWriter) {
 
     this.requestRepository = requestRepository;
     this.patronNoticeService = patronNoticeService;
-    this.scheduledNoticesRepository = scheduledNoticesRepository;
+    this.noticeWriter = noticeWriter;
   }
 
   public CompletableFuture<Result<Collection<ScheduledNotice>>> handleNotices(Collection<ScheduledNotice> scheduledNotices) {
-    CompletableFuture<Result<ScheduledNotice>> future = completedFuture(succeeded(null));
-    for (ScheduledNotice scheduledNotice : scheduledNotices) {
-      future = future.thenCompose(r -> r.after(v -> handleRequestNotice(scheduledNotice)));
-    }
-    return future.thenApply(r -> r.map(v -> scheduledNotices));
+    return ScheduledNoticeExecutor.create()
+      .execute(scheduledNotices, ScheduledNotice::getId, this::handleRequestNotice)
+      .thenCompose(r -> r.after(v -> noticeWriter.flush()))
+      .thenApply(r -> r.map(v -> scheduledNotices));
   }
 
   private CompletableFuture<Result<ScheduledNotice>> handleRequestNotice(ScheduledNotice notice) {
@@ -83,13 +82,13 @@ public class RequestScheduledNoticeHandler {
     }
 
     if (request.isClosed() || !noticeConfig.isRecurring()) {
-      return scheduledNoticesRepository.delete(notice);
+      return noticeWriter.delete(notice);
     }
 
     ScheduledNotice nextRecurringNotice = getNextRecurringNotice(notice, noticeConfig);
     return nextRecurringNoticeIsNotRelevant(nextRecurringNotice, request) ?
-      scheduledNoticesRepository.delete(notice) :
-      scheduledNoticesRepository.update(nextRecurringNotice);
+      noticeWriter.delete(notice) :
+      noticeWriter.update(nextRecurringNotice);
   }
 
   private ScheduledNotice getNextRecurringNotice(ScheduledNotice notice, ScheduledNoticeConfig noticeConfig) {
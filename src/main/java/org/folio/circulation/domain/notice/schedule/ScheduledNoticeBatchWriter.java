@@ -0,0 +1,100 @@
+package org.folio.circulation.domain.notice.schedule;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.folio.circulation.support.AsyncCoordinationUtil.allResultsOf;
+import static org.folio.circulation.support.Result.succeeded;
+
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.folio.circulation.support.Result;
+import org.folio.circulation.support.results.CommonFailures;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Collects the changes to scheduled notices made while processing them, so
+ * that they are written to storage together once every notice has been
+ * processed. Notices to delete are deleted with a query per batch of ids,
+ * rather than a request per notice.
+ * <p>
+ * A change that cannot be written is logged, the notice is then processed
+ * again by a later run.
+ */
+public class ScheduledNoticeBatchWriter {
+  private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  private final ScheduledNoticesRepository scheduledNoticesRepository;
+  private final List<ScheduledNotice> noticesToUpdate = new ArrayList<>();
+  private final List<String> noticeIdsToDelete = new ArrayList<>();
+
+  public ScheduledNoticeBatchWriter(
+    ScheduledNoticesRepository scheduledNoticesRepository) {
+
+    this.scheduledNoticesRepository = scheduledNoticesRepository;
+  }
+
+  /**
+   * Collect the notice to be updated when the changes are written
+   */
+  public synchronized CompletableFuture<Result<ScheduledNotice>> update(
+    ScheduledNotice notice) {
+
+    noticesToUpdate.add(notice);
+
+    return completedFuture(succeeded(notice));
+  }
+
+  /**
+   * Collect the notice to be deleted when the changes are written
+   */
+  public synchronized CompletableFuture<Result<ScheduledNotice>> delete(
+    ScheduledNotice notice) {
+
+    noticeIdsToDelete.add(notice.getId());
+
+    return completedFuture(succeeded(notice));
+  }
+
+  /**
+   * Write the changes collected so far
+   */
+  public CompletableFuture<Result<Void>> flush() {
+    final List<ScheduledNotice> updates;
+    final List<String> deletions;
+
+    synchronized (this) {
+      updates = new ArrayList<>(noticesToUpdate);
+      deletions = new ArrayList<>(noticeIdsToDelete);
+
+      noticesToUpdate.clear();
+      noticeIdsToDelete.clear();
+    }
+
+    final CompletableFuture<Void> deleted = scheduledNoticesRepository
+      .deleteByIds(deletions)
+      .exceptionally(CommonFailures::failedDueToServerError)
+      .thenAccept(result -> {
+        if (result.failed()) {
+          log.error("Failed to delete {} scheduled notices: {}",
+            deletions.size(), result.cause());
+        }
+      });
+
+    final CompletableFuture<Void> updated = allResultsOf(updates,
+      scheduledNoticesRepository::update)
+      .thenAccept(results -> {
+        for (int index = 0; index < results.size(); index++) {
+          if (results.get(index).failed()) {
+            log.error("Failed to update scheduled notice {}: {}",
+              updates.get(index).getId(), results.get(index).cause());
+          }
+        }
+      });
+
+    return CompletableFuture.allOf(deleted, updated)
+      .thenApply(notUsed -> succeeded(null));
+  }
+}
@@ -0,0 +1,44 @@
+package org.folio.circulation.domain.notice.schedule;
+
+import static org.folio.circulation.support.Result.failed;
+
+import java.util.Map;
+
+import org.folio.circulation.domain.Loan;
+import org.folio.circulation.domain.LoanAndRelatedRecords;
+import org.folio.circulation.support.RecordNotFoundFailure;
+import org.folio.circulation.support.Result;
+import org.joda.time.DateTimeZone;
+
+/**
+ * Records needed to send a batch of scheduled notices, fetched for the whole
+ * batch at once. A record that could not be fetched for a notice is kept as
+ * a failure of that notice only
+ */
+public class ScheduledNoticeContext {
+  private final Map<String, Result<Loan>> loans;
+  private final DateTimeZone timeZone;
+
+  /**
+   * @param loans  loans with their item, user and loan policy, by loan id
+   * @param timeZone  time zone of the tenant
+   */
+  public ScheduledNoticeContext(Map<String, Result<Loan>> loans,
+    DateTimeZone timeZone) {
+
+    this.loans = loans;
+    this.timeZone = timeZone;
+  }
+
+  public Result<LoanAndRelatedRecords> getLoanAndRelatedRecords(
+    ScheduledNotice notice) {
+
+    final Result<Loan> loan = loans.get(notice.getLoanId());
+
+    if (loan == null) {
+      return failed(new RecordNotFoundFailure("loan", notice.getLoanId()));
+    }
+
+    return loan.map(foundLoan -> new LoanAndRelatedRecords(foundLoan, timeZone));
+  }
+}
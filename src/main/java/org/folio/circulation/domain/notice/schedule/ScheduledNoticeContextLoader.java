@@ -0,0 +1,167 @@
+package org.folio.circulation.domain.notice.schedule;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.folio.circulation.support.AsyncCoordinationUtil.allResultsOf;
+import static org.folio.circulation.support.Result.succeeded;
+import static org.folio.circulation.support.results.CommonFailures.failedDueToServerError;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.folio.circulation.domain.ConfigurationRepository;
+import org.folio.circulation.domain.Item;
+import org.folio.circulation.domain.Loan;
+import org.folio.circulation.domain.LoanRepository;
+import org.folio.circulation.domain.MultipleRecords;
+import org.folio.circulation.domain.User;
+import org.folio.circulation.domain.UserRepository;
+import org.folio.circulation.domain.policy.LoanPolicy;
+import org.folio.circulation.domain.policy.LoanPolicyRepository;
+import org.folio.circulation.support.Clients;
+import org.folio.circulation.support.Result;
+import org.folio.circulation.support.results.CommonFailures;
+
+/**
+ * Fetches the records needed to send a batch of scheduled notices with a
+ * query per type of record, rather than fetching them for each notice
+ */
+public class ScheduledNoticeContextLoader {
+  public static ScheduledNoticeContextLoader using(Clients clients) {
+    return new ScheduledNoticeContextLoader(
+      new LoanRepository(clients),
+      new UserRepository(clients),
+      new LoanPolicyRepository(clients),
+      new ConfigurationRepository(clients));
+  }
+
+  private final LoanRepository loanRepository;
+  private final UserRepository userRepository;
+  private final LoanPolicyRepository loanPolicyRepository;
+  private final ConfigurationRepository configurationRepository;
+
+  public ScheduledNoticeContextLoader(LoanRepository loanRepository,
+    UserRepository userRepository, LoanPolicyRepository loanPolicyRepository,
+    ConfigurationRepository configurationRepository) {
+
+    this.loanRepository = loanRepository;
+    this.userRepository = userRepository;
+    this.loanPolicyRepository = loanPolicyRepository;
+    this.configurationRepository = configurationRepository;
+  }
+
+  /**
+   * Fetch the loans of the notices, with their items, users and loan policies
+   */
+  public CompletableFuture<Result<ScheduledNoticeContext>> loadLoans(
+    Collection<ScheduledNotice> notices) {
+
+    final List<String> loanIds = notices.stream()
+      .map(ScheduledNotice::getLoanId)
+      .filter(Objects::nonNull)
+      .distinct()
+      .collect(Collectors.toList());
+
+    return loanRepository.findByIds(loanIds)
+      .thenComposeAsync(r -> r.after(userRepository::findUsersForLoans))
+      .thenComposeAsync(r -> r.after(this::withLoanPolicies))
+      .thenComposeAsync(r -> r.combineAfter(
+        configurationRepository::findTimeZoneConfiguration,
+        ScheduledNoticeContext::new));
+  }
+
+  private CompletableFuture<Result<Map<String, Result<Loan>>>> withLoanPolicies(
+    MultipleRecords<Loan> multipleLoans) {
+
+    final List<Loan> loans = new ArrayList<>(multipleLoans.getRecords());
+
+    if (loans.isEmpty()) {
+      return completedFuture(succeeded(new HashMap<>()));
+    }
+
+    return lookupPolicyIds(loans)
+      .thenCompose(policyIds -> lookupPolicies(policyIds)
+        .thenApply(policies -> {
+          final Map<String, Result<Loan>> loansWithPolicies = new HashMap<>();
+
+          for (int index = 0; index < loans.size(); index++) {
+            final Loan loan = loans.get(index);
+
+            loansWithPolicies.put(loan.getId(), policyIds.get(index)
+              .next(policies::get)
+              .map(loan::withLoanPolicy));
+          }
+
+          return succeeded(loansWithPolicies);
+        }));
+  }
+
+  /**
+   * Apply the circulation rules for all of the loans at once, or for each
+   * loan separately when that fails, so that only the notices of those loans
+   * the rules cannot be applied for fail
+   *
+   * @return the loan policy id of each loan, in the same order as the loans
+   */
+  private CompletableFuture<List<Result<String>>> lookupPolicyIds(List<Loan> loans) {
+    final List<Pair<Item, User>> itemsAndUsers = loans.stream()
+      .map(loan -> Pair.of(loan.getItem(), loan.getUser()))
+      .collect(Collectors.toList());
+
+    return lookupPolicyIdsAtOnce(itemsAndUsers)
+      .thenCompose(policyIds -> {
+        if (policyIds.succeeded()) {
+          return completedFuture(policyIds.value().stream()
+            .map(Result::succeeded)
+            .collect(Collectors.toList()));
+        }
+
+        return allResultsOf(loans, loan ->
+          loanPolicyRepository.lookupPolicyId(loan.getItem(), loan.getUser()));
+      });
+  }
+
+  private CompletableFuture<Result<List<String>>> lookupPolicyIdsAtOnce(
+    List<Pair<Item, User>> itemsAndUsers) {
+
+    try {
+      return loanPolicyRepository.lookupPolicyIds(itemsAndUsers)
+        .exceptionally(CommonFailures::failedDueToServerError);
+    }
+    catch (Exception e) {
+      return completedFuture(failedDueToServerError(e));
+    }
+  }
+
+  /**
+   * Fetch each distinct loan policy once, cached policies are not fetched
+   *
+   * @return the result of fetching each policy, by policy id
+   */
+  private CompletableFuture<Map<String, Result<LoanPolicy>>> lookupPolicies(
+    List<Result<String>> policyIds) {
+
+    final List<String> distinctPolicyIds = policyIds.stream()
+      .filter(policyId -> policyId.succeeded())
+      .map(Result::value)
+      .distinct()
+      .collect(Collectors.toList());
+
+    return allResultsOf(distinctPolicyIds, loanPolicyRepository::lookupPolicy)
+      .thenApply(policies -> {
+        final Map<String, Result<LoanPolicy>> policiesById = new HashMap<>();
+
+        for (int index = 0; index < distinctPolicyIds.size(); index++) {
+          policiesById.put(distinctPolicyIds.get(index), policies.get(index));
+        }
+
+        return policiesById;
+      });
+  }
+}
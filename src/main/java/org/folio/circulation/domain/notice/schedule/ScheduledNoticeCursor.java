@@ -0,0 +1,88 @@
+package org.folio.circulation.domain.notice.schedule;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.joda.time.DateTime;
+
+/**
+ * Position within notices ordered by next run time and id, used to find the
+ * page of notices after those already processed by the same run, including
+ * notices that are still due because they could not be processed.
+ * <p>
+ * Storage queries cannot combine conditions on the next run time and the id
+ * with "or", so the next page is found from the next run time of the last
+ * notice onwards, skipping the notices with that next run time that have
+ * already been processed.
+ */
+public class ScheduledNoticeCursor {
+  private final DateTime nextRunTime;
+  private final Set<String> processedIds;
+
+  private ScheduledNoticeCursor(DateTime nextRunTime, Set<String> processedIds) {
+    this.nextRunTime = nextRunTime;
+    this.processedIds = processedIds;
+  }
+
+  public static ScheduledNoticeCursor start() {
+    return new ScheduledNoticeCursor(null, Collections.emptySet());
+  }
+
+  public boolean isStart() {
+    return nextRunTime == null;
+  }
+
+  /**
+   * @return the earliest next run time of the notices after this position
+   */
+  public DateTime getNextRunTime() {
+    return nextRunTime;
+  }
+
+  /**
+   * @return how many of the notices from the next run time onwards have
+   * already been processed
+   */
+  public int getNumberOfProcessedNotices() {
+    return processedIds.size();
+  }
+
+  /**
+   * @param notices  notices from the next run time onwards, in order
+   * @return those notices that have not already been processed
+   */
+  public List<ScheduledNotice> skipProcessed(Collection<ScheduledNotice> notices) {
+    return notices.stream()
+      .filter(notice -> !processedIds.contains(notice.getId()))
+      .collect(Collectors.toList());
+  }
+
+  /**
+   * @param notices  the page of notices processed after this position, in order
+   * @return the position after those notices
+   */
+  public ScheduledNoticeCursor after(List<ScheduledNotice> notices) {
+    if (notices.isEmpty()) {
+      return this;
+    }
+
+    final DateTime lastNextRunTime = notices.get(notices.size() - 1).getNextRunTime();
+
+    final Set<String> processedAtLastNextRunTime = new HashSet<>();
+
+    if (!isStart() && lastNextRunTime.isEqual(nextRunTime)) {
+      processedAtLastNextRunTime.addAll(processedIds);
+    }
+
+    notices.stream()
+      .filter(notice -> notice.getNextRunTime().isEqual(lastNextRunTime))
+      .map(ScheduledNotice::getId)
+      .forEach(processedAtLastNextRunTime::add);
+
+    return new ScheduledNoticeCursor(lastNextRunTime, processedAtLastNextRunTime);
+  }
+}
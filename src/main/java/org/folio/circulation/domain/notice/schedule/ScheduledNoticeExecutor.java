@@ -0,0 +1,165 @@
+package org.folio.circulation.domain.notice.schedule;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.folio.circulation.support.Result.succeeded;
+import static org.folio.circulation.support.results.CommonFailures.failedDueToServerError;
+
+import java.lang.invoke.MethodHandles;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+import org.folio.circulation.support.Result;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Processes scheduled notices with at most the configured number of them in
+ * progress at once.
+ * <p>
+ * The failure of a notice is logged and counted, and does not stop the
+ * processing of the others, so the result is always successful and describes
+ * how many notices were processed and how quickly.
+ */
+public class ScheduledNoticeExecutor {
+  private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  private static final int DEFAULT_CONCURRENCY = 16;
+
+  private static volatile int concurrency = DEFAULT_CONCURRENCY;
+
+  private final int maximumInProgress;
+  private final LongSupplier nanoClock;
+
+  /**
+   * Set how many notices are processed at once from now on
+   */
+  public static void setOptions(JsonObject options) {
+    concurrency = Math.max(1, options.getInteger("concurrency", DEFAULT_CONCURRENCY));
+  }
+
+  public static ScheduledNoticeExecutor create() {
+    return new ScheduledNoticeExecutor(concurrency, System::nanoTime);
+  }
+
+  ScheduledNoticeExecutor(int maximumInProgress, LongSupplier nanoClock) {
+    this.maximumInProgress = Math.max(1, maximumInProgress);
+    this.nanoClock = nanoClock;
+  }
+
+  /**
+   * @param notices  notices, or groups of notices, to process
+   * @param description  describes a notice when its processing fails
+   * @param handler  processes a single notice
+   * @return statistics of the processing, once every notice has been processed
+   */
+  public <T, R> CompletableFuture<Result<NoticeProcessingStatistics>> execute(
+    Collection<T> notices, Function<T, String> description,
+    Function<T, CompletableFuture<Result<R>>> handler) {
+
+    return new Execution<>(notices, description, handler).start();
+  }
+
+  private class Execution<T, R> {
+    private final Iterator<T> remaining;
+    private final Function<T, String> description;
+    private final Function<T, CompletableFuture<Result<R>>> handler;
+    private final CompletableFuture<Result<NoticeProcessingStatistics>> executed
+      = new CompletableFuture<>();
+    private final long startedAt = nanoClock.getAsLong();
+
+    private int inProgress = 0;
+    private int processed = 0;
+    private int failed = 0;
+    private boolean starting = false;
+
+    private Execution(Collection<T> notices, Function<T, String> description,
+      Function<T, CompletableFuture<Result<R>>> handler) {
+
+      this.remaining = notices.iterator();
+      this.description = description;
+      this.handler = handler;
+    }
+
+    private CompletableFuture<Result<NoticeProcessingStatistics>> start() {
+      startNotices();
+
+      return executed;
+    }
+
+    /**
+     * Notices that complete straight away free their place while still
+     * within this loop, which then carries on rather than starting the next
+     * notice from their completion, so that the stack does not grow with the
+     * number of notices
+     */
+    private void startNotices() {
+      synchronized (this) {
+        if (starting) {
+          return;
+        }
+
+        starting = true;
+      }
+
+      while (true) {
+        final T notice;
+
+        synchronized (this) {
+          if (inProgress >= maximumInProgress || !remaining.hasNext()) {
+            starting = false;
+
+            if (inProgress == 0 && !remaining.hasNext()) {
+              finish();
+            }
+
+            return;
+          }
+
+          notice = remaining.next();
+          inProgress++;
+        }
+
+        process(notice).thenAccept(result -> onProcessed(notice, result));
+      }
+    }
+
+    private CompletableFuture<Result<R>> process(T notice) {
+      try {
+        return handler.apply(notice)
+          .exceptionally(e -> failedDueToServerError(e));
+      }
+      catch (Exception e) {
+        return completedFuture(failedDueToServerError(e));
+      }
+    }
+
+    private void onProcessed(T notice, Result<R> result) {
+      synchronized (this) {
+        inProgress--;
+        processed++;
+
+        if (result.failed()) {
+          failed++;
+          log.error("Failed to process scheduled notice {}: {}",
+            description.apply(notice), result.cause());
+        }
+      }
+
+      startNotices();
+    }
+
+    private void finish() {
+      final NoticeProcessingStatistics statistics = new NoticeProcessingStatistics(
+        processed, failed, (nanoClock.getAsLong() - startedAt) / 1_000_000);
+
+      log.info("Processed scheduled notices: {}", statistics);
+
+      executed.complete(succeeded(statistics));
+    }
+  }
+}
@@ -1,13 +1,19 @@
 package org.folio.circulation.domain.notice.schedule;
 
 import static java.util.function.Function.identity;
+import static org.apache.commons.collections4.ListUtils.partition;
 import static org.folio.circulation.domain.notice.schedule.JsonScheduledNoticeMapper.mapToJson;
+import static org.folio.circulation.support.AsyncCoordinationUtil.allOf;
 import static org.folio.circulation.support.CqlQuery.exactMatch;
 import static org.folio.circulation.support.CqlQuery.exactMatchAny;
+import static org.folio.circulation.support.CqlQuery.greaterThan;
+import static org.folio.circulation.support.ResultBinding.mapResult;
 import static org.folio.circulation.support.http.CommonResponseInterpreters.noContentRecordInterpreter;
 import static org.folio.circulation.support.http.ResponseMapping.flatMapUsingJson;
 import static org.folio.circulation.support.http.ResponseMapping.forwardOnFailure;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
@@ -17,6 +23,8 @@ import org.folio.circulation.support.Clients;
 import org.folio.circulation.support.CollectionResourceClient;
 import org.folio.circulation.support.CqlQuery;
 import org.folio.circulation.support.CqlSortBy;
+import org.folio.circulation.support.CqlSortClause;
+import org.folio.circulation.support.MultipleRecordFetcher;
 import org.folio.circulation.support.Result;
 import org.folio.circulation.support.http.client.Response;
 import org.folio.circulation.support.http.client.ResponseInterpreter;
@@ -26,16 +34,23 @@ import org.joda.time.DateTimeZone;
 import io.vertx.core.json.JsonObject;
 
 public class ScheduledNoticesRepository {
+  private static final int MAX_DELETE_BATCH_SIZE = 50;
+
+  private static final CqlSortBy NEXT_RUN_TIME_ORDER = CqlSortBy.sortBy(
+    CqlSortClause.ascending("nextRunTime"), CqlSortClause.ascending("id"));
+
   public static ScheduledNoticesRepository using(Clients clients) {
     return new ScheduledNoticesRepository(
-      clients.scheduledNoticesStorageClient());
+      clients.scheduledNoticesStorageClient(), clients.getTenantId());
   }
 
   private final CollectionResourceClient scheduledNoticesStorageClient;
+  private final String tenantId;
 
   private ScheduledNoticesRepository(
-    CollectionResourceClient scheduledNoticesStorageClient) {
+    CollectionResourceClient scheduledNoticesStorageClient, String tenantId) {
     this.scheduledNoticesStorageClient = scheduledNoticesStorageClient;
+    this.tenantId = tenantId;
   }
 
   public CompletableFuture<Result<ScheduledNotice>> create(ScheduledNotice scheduledNotice) {
@@ -46,7 +61,11 @@ public class ScheduledNoticesRepository {
       .flatMapOn(201, flatMapUsingJson(JsonScheduledNoticeMapper::mapFromJson));
 
     return scheduledNoticesStorageClient.post(representation)
-      .thenApply(interpreter::apply);
+      .thenApply(interpreter::apply)
+      .thenApply(r -> r.map(createdNotice -> {
+        NearTermNoticeScheduler.scheduleIfStarted(tenantId, createdNotice);
+        return createdNotice;
+      }));
   }
 
   public CompletableFuture<Result<MultipleRecords<ScheduledNotice>>> findNotices(
@@ -64,6 +83,70 @@ public class ScheduledNoticesRepository {
       .after(query -> findBy(query, pageLimit));
   }
 
+  /**
+   * Find the page of notices after the cursor, ordered by next run time and id
+   */
+  public CompletableFuture<Result<MultipleRecords<ScheduledNotice>>> findNotices(
+    DateTime timeLimit, boolean realTime, List<TriggeringEvent> triggeringEvents,
+    ScheduledNoticeCursor cursor, int pageLimit) {
+
+    List<String> triggeringEventRepresentations = triggeringEvents.stream()
+      .map(TriggeringEvent::getRepresentation)
+      .collect(Collectors.toList());
+
+    Result<CqlQuery> query = CqlQuery.lessThan("nextRunTime", timeLimit.withZone(DateTimeZone.UTC))
+      .combine(exactMatch("noticeConfig.sendInRealTime", Boolean.toString(realTime)), CqlQuery::and)
+      .combine(exactMatchAny("triggeringEvent", triggeringEventRepresentations), CqlQuery::and);
+
+    if (!cursor.isStart()) {
+      //Next run times are stored to the millisecond, so this includes the
+      //notices at the next run time of the cursor
+      query = query.combine(greaterThan("nextRunTime",
+        cursor.getNextRunTime().minusMillis(1).withZone(DateTimeZone.UTC)), CqlQuery::and);
+    }
+
+    final int numberToFetch = pageLimit + cursor.getNumberOfProcessedNotices();
+
+    return query
+      .map(cqlQuery -> cqlQuery.sortBy(NEXT_RUN_TIME_ORDER))
+      .after(cqlQuery -> findBy(cqlQuery, numberToFetch))
+      .thenApply(mapResult(notices -> new MultipleRecords<>(
+        cursor.skipProcessed(notices.getRecords()).stream()
+          .limit(pageLimit)
+          .collect(Collectors.toList()),
+        notices.getTotalRecords())));
+  }
+
+  /**
+   * Find the real time notices that become due from now until the time limit,
+   * ordered by next run time and id
+   */
+  public CompletableFuture<Result<MultipleRecords<ScheduledNotice>>> findNoticesDueBetween(
+    DateTime now, DateTime timeLimit, List<TriggeringEvent> triggeringEvents,
+    int pageLimit) {
+
+    List<String> triggeringEventRepresentations = triggeringEvents.stream()
+      .map(TriggeringEvent::getRepresentation)
+      .collect(Collectors.toList());
+
+    return greaterThan("nextRunTime", now.withZone(DateTimeZone.UTC))
+      .combine(CqlQuery.lessThan("nextRunTime", timeLimit.withZone(DateTimeZone.UTC)), CqlQuery::and)
+      .combine(exactMatch("noticeConfig.sendInRealTime", Boolean.toString(true)), CqlQuery::and)
+      .combine(exactMatchAny("triggeringEvent", triggeringEventRepresentations), CqlQuery::and)
+      .map(cqlQuery -> cqlQuery.sortBy(NEXT_RUN_TIME_ORDER))
+      .after(query -> findBy(query, pageLimit));
+  }
+
+  public CompletableFuture<Result<MultipleRecords<ScheduledNotice>>> findByIds(
+    Collection<String> ids) {
+
+    return new MultipleRecordFetcher<>(scheduledNoticesStorageClient,
+      "scheduledNotices", identity())
+      .findByIds(ids)
+      .thenApply(r -> r.next(records -> records.flatMapRecords(
+        JsonScheduledNoticeMapper::mapFromJson)));
+  }
+
   private CompletableFuture<Result<MultipleRecords<ScheduledNotice>>> findBy(
     CqlQuery cqlQuery, int pageLimit) {
 
@@ -88,6 +171,16 @@ public class ScheduledNoticesRepository {
       .thenApply(interpreter::apply);
   }
 
+  /**
+   * Delete the notices with a query per batch of ids, rather than a request
+   * per notice
+   */
+  public CompletableFuture<Result<Void>> deleteByIds(Collection<String> ids) {
+    return allOf(partition(new ArrayList<>(ids), MAX_DELETE_BATCH_SIZE),
+      batchOfIds -> exactMatchAny("id", batchOfIds).after(this::deleteMany))
+      .thenApply(mapResult(responses -> null));
+  }
+
   CompletableFuture<Result<Response>> deleteByLoanId(String loanId) {
     return exactMatch("loanId", loanId).after(this::deleteMany);
   }
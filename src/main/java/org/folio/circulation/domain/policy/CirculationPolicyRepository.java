@@ -1,24 +1,28 @@
 package org.folio.circulation.domain.policy;
 
 import static java.util.concurrent.CompletableFuture.completedFuture;
-import static org.folio.circulation.support.Result.failed;
 import static org.folio.circulation.support.Result.succeeded;
+import static org.folio.circulation.support.ResultBinding.mapResult;
 import static org.folio.circulation.support.results.CommonFailures.failedDueToServerError;
 
 import java.lang.invoke.MethodHandles;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+import org.apache.commons.lang3.tuple.Pair;
 
 import org.folio.circulation.domain.Item;
 import org.folio.circulation.domain.Loan;
 import org.folio.circulation.domain.Request;
 import org.folio.circulation.domain.User;
-import org.folio.circulation.support.CirculationRulesClient;
+import org.folio.circulation.rules.CirculationRulesProcessor;
+import org.folio.circulation.rules.PolicyDecision;
+import org.folio.circulation.rules.RulesExecutionParameters;
 import org.folio.circulation.support.CollectionResourceClient;
-import org.folio.circulation.support.ForwardOnFailure;
+import org.folio.circulation.support.ReferenceDataCache;
 import org.folio.circulation.support.Result;
 import org.folio.circulation.support.SingleRecordFetcher;
-import org.folio.circulation.support.http.client.Response;
-import org.folio.circulation.support.http.client.ResponseHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -27,14 +31,20 @@ import io.vertx.core.json.JsonObject;
 public abstract class CirculationPolicyRepository<T> {
   private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
 
-  private final CirculationRulesClient circulationRulesClient;
+  final String tenantId;
+  final CirculationRulesProcessor circulationRulesProcessor;
   final CollectionResourceClient policyStorageClient;
+  final ReferenceDataCache<T> policyCache;
 
   CirculationPolicyRepository(
-    CirculationRulesClient circulationRulesClient,
-    CollectionResourceClient policyStorageClient) {
-    this.circulationRulesClient = circulationRulesClient;
+    String tenantId,
+    CirculationRulesProcessor circulationRulesProcessor,
+    CollectionResourceClient policyStorageClient,
+    ReferenceDataCache<T> policyCache) {
+    this.tenantId = tenantId;
+    this.circulationRulesProcessor = circulationRulesProcessor;
     this.policyStorageClient = policyStorageClient;
+    this.policyCache = policyCache;
   }
 
   public CompletableFuture<Result<T>> lookupPolicy(Loan loan) {
@@ -54,73 +64,97 @@ public abstract class CirculationPolicyRepository<T> {
   }
 
   private Result<T> mapToPolicy(JsonObject json) {
-    if (log.isInfoEnabled()) {
-      log.info("Mapping json to policy {}", json.encodePrettily());
+    if (log.isDebugEnabled()) {
+      log.debug("Mapping json to policy {}", json.encode());
     }
 
     return toPolicy(json);
   }
 
   public CompletableFuture<Result<T>> lookupPolicy(String policyId) {
+    final T cachedPolicy = policyCache.get(tenantId, policyId);
+
+    if (cachedPolicy != null) {
+      return completedFuture(succeeded(cachedPolicy));
+    }
+
     log.info("Looking up policy with id {}", policyId);
 
+    final long cacheVersion = policyCache.getVersion(tenantId);
+
     return SingleRecordFetcher.json(policyStorageClient, "circulation policy",
       response -> failedDueToServerError(getPolicyNotFoundErrorMessage(policyId)))
       .fetch(policyId)
-      .thenApply(result -> result.next(this::mapToPolicy));
+      .thenApply(result -> result.next(this::mapToPolicy))
+      .thenCompose(result -> result.after(this::withRelatedRecords))
+      .thenApply(mapResult(policy -> {
+        policyCache.put(tenantId, policyId, policy, cacheVersion);
+        return policy;
+      }));
   }
 
-  public CompletableFuture<Result<String>> lookupPolicyId(Item item, User user) {
-    CompletableFuture<Result<String>> findLoanPolicyCompleted = new CompletableFuture<>();
-
-    if (item.isNotFound()) {
-      return completedFuture(failedDueToServerError(
-        "Unable to apply circulation rules for unknown item"));
-    }
-
-    if (item.doesNotHaveHolding()) {
-      return completedFuture(failedDueToServerError(
-        "Unable to apply circulation rules for unknown holding"));
-    }
-
-    String loanTypeId = item.determineLoanTypeForItem();
-    String locationId = item.getLocationId();
-    String materialTypeId = item.getMaterialTypeId();
-    String patronGroupId = user.getPatronGroupId();
+  /**
+   * Fetch records the policy refers to, the policy is cached together with them.
+   */
+  protected CompletableFuture<Result<T>> withRelatedRecords(T policy) {
+    return completedFuture(succeeded(policy));
+  }
 
-    CompletableFuture<Response> circulationRulesResponse = new CompletableFuture<>();
+  public CompletableFuture<Result<String>> lookupPolicyId(Item item, User user) {
+    return toRulesExecutionParameters(item, user)
+      .after(circulationRulesProcessor::getPolicyDecision)
+      .thenApply(r -> r.map(decision -> {
+        final String policyId = getPolicyId(decision);
 
-    log.info(
-      "Applying circulation rules for material type: {}, patron group: {}, loan type: {}, location: {}",
-      materialTypeId, patronGroupId, loanTypeId, locationId);
+        log.info("Policy to fetch based upon rules {}", policyId);
 
-    circulationRulesClient.applyRules(loanTypeId, locationId, materialTypeId,
-      patronGroupId, ResponseHandler.any(circulationRulesResponse));
+        return policyId;
+      }));
+  }
 
-    circulationRulesResponse.thenAcceptAsync(response -> {
-      if (response.getStatusCode() == 404) {
-        findLoanPolicyCompleted.complete(failedDueToServerError(
-          "Unable to apply circulation rules"));
-      } else if (response.getStatusCode() != 200) {
-        findLoanPolicyCompleted.complete(failed(
-          new ForwardOnFailure(response)));
-      } else {
-        log.info("Rules response {}", response.getBody());
+  /**
+   * Apply the circulation rules for many items and users at once.
+   * @param itemsAndUsers  the items and users to apply the rules for
+   * @return the policy ids in the same order as itemsAndUsers
+   */
+  public CompletableFuture<Result<List<String>>> lookupPolicyIds(
+    List<Pair<Item, User>> itemsAndUsers) {
+
+    final List<Result<RulesExecutionParameters>> parameters = itemsAndUsers.stream()
+      .map(itemAndUser -> toRulesExecutionParameters(
+        itemAndUser.getLeft(), itemAndUser.getRight()))
+      .collect(Collectors.toList());
+
+    return Result.combineAll(parameters)
+      .after(circulationRulesProcessor::getPolicyDecisions)
+      .thenApply(r -> r.map(decisions -> decisions.stream()
+        .map(this::getPolicyId)
+        .collect(Collectors.toList())));
+  }
 
-        String policyId = fetchPolicyId(response.getJson());
+  private static Result<RulesExecutionParameters> toRulesExecutionParameters(
+    Item item, User user) {
 
-        log.info("Policy to fetch based upon rules {}", policyId);
+    if (item.isNotFound()) {
+      return failedDueToServerError(
+        "Unable to apply circulation rules for unknown item");
+    }
 
-        findLoanPolicyCompleted.complete(succeeded(policyId));
-      }
-    });
+    if (item.doesNotHaveHolding()) {
+      return failedDueToServerError(
+        "Unable to apply circulation rules for unknown holding");
+    }
 
-    return findLoanPolicyCompleted;
+    return succeeded(RulesExecutionParameters.forItemAndUser(item, user));
   }
 
   protected abstract String getPolicyNotFoundErrorMessage(String policyId);
 
   protected abstract Result<T> toPolicy(JsonObject representation);
 
-  protected abstract String fetchPolicyId(JsonObject jsonObject);
+  /**
+   * @param decision  the policies of the matching circulation rule
+   * @return the id of the policy of this repository's type
+   */
+  protected abstract String getPolicyId(PolicyDecision decision);
 }
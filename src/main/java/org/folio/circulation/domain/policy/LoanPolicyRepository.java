@@ -1,6 +1,7 @@
 package org.folio.circulation.domain.policy;
 
 import static java.util.Objects.isNull;
+import static java.util.concurrent.CompletableFuture.completedFuture;
 import static org.folio.circulation.domain.policy.LoanPolicy.unknown;
 import static org.folio.circulation.support.Result.ofAsync;
 import static org.folio.circulation.support.Result.succeeded;
@@ -8,6 +9,8 @@ import static org.folio.circulation.support.ResultBinding.mapResult;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -17,10 +20,12 @@ import java.util.stream.Collectors;
 import org.folio.circulation.domain.Loan;
 import org.folio.circulation.domain.LoanAndRelatedRecords;
 import org.folio.circulation.domain.MultipleRecords;
+import org.folio.circulation.rules.PolicyDecision;
 import org.folio.circulation.support.Clients;
 import org.folio.circulation.support.CollectionResourceClient;
 import org.folio.circulation.support.FetchSingleRecord;
 import org.folio.circulation.support.MultipleRecordFetcher;
+import org.folio.circulation.support.ReferenceDataCache;
 import org.folio.circulation.support.Result;
 
 import io.vertx.core.json.JsonObject;
@@ -30,7 +35,8 @@ public class LoanPolicyRepository extends CirculationPolicyRepository<LoanPolicy
   private final CollectionResourceClient fixedDueDateSchedulesStorageClient;
 
   public LoanPolicyRepository(Clients clients) {
-    super(clients.circulationLoanRules(), clients.loanPoliciesStorage());
+    super(clients.getTenantId(), clients.circulationRulesProcessor(),
+      clients.loanPoliciesStorage(), PolicyCaches.loanPolicies);
     this.fixedDueDateSchedulesStorageClient = clients.fixedDueDateSchedules();
   }
 
@@ -53,11 +59,26 @@ public class LoanPolicyRepository extends CirculationPolicyRepository<LoanPolicy
       return ofAsync(() -> unknown(null));
     }
 
+    final LoanPolicy cachedPolicy = policyCache.get(tenantId, loanPolicyId);
+
+    if (cachedPolicy != null) {
+      return completedFuture(succeeded(cachedPolicy));
+    }
+
+    final long cacheVersion = policyCache.getVersion(tenantId);
+
     return FetchSingleRecord.<LoanPolicy>forRecord("loan policy")
       .using(policyStorageClient)
       .mapTo(LoanPolicy::from)
-      .whenNotFound(succeeded(unknown(loanPolicyId)))
-      .fetch(loanPolicyId);
+      .whenNotFound(succeeded(null))
+      .fetch(loanPolicyId)
+      .thenCompose(r -> r.after(policy -> isNull(policy)
+        ? completedFuture(succeeded(unknown(loanPolicyId)))
+        : withRelatedRecords(policy)
+          .thenApply(mapResult(withSchedules -> {
+            policyCache.put(tenantId, loanPolicyId, withSchedules, cacheVersion);
+            return withSchedules;
+          }))));
   }
 
   public CompletableFuture<Result<MultipleRecords<Loan>>> findLoanPoliciesForLoans(MultipleRecords<Loan> multipleLoans) {
@@ -77,10 +98,33 @@ public class LoanPolicyRepository extends CirculationPolicyRepository<LoanPolicy
             .distinct()
             .collect(Collectors.toSet());
 
+    final Map<String, LoanPolicy> cachedPolicies = policyCache.getAll(tenantId,
+      loansToFetch);
+
+    final List<String> policiesToFetch = loansToFetch.stream()
+      .filter(id -> !cachedPolicies.containsKey(id))
+      .collect(Collectors.toList());
+
+    if (policiesToFetch.isEmpty()) {
+      return completedFuture(succeeded(cachedPolicies));
+    }
+
+    final long cacheVersion = policyCache.getVersion(tenantId);
+
     final MultipleRecordFetcher<LoanPolicy> fetcher = createLoanPoliciesFetcher();
 
-    return fetcher.findByIds(loansToFetch)
-      .thenApply(mapResult(r -> r.toMap(LoanPolicy::getId)));
+    return fetcher.findByIds(policiesToFetch)
+      .thenCompose(r -> r.after(fetched -> withSchedules(fetched.getRecords())))
+      .thenApply(mapResult(fetchedPolicies -> {
+        final Map<String, LoanPolicy> policies = new HashMap<>(cachedPolicies);
+
+        fetchedPolicies.forEach(policy -> {
+          policyCache.put(tenantId, policy.getId(), policy, cacheVersion);
+          policies.put(policy.getId(), policy);
+        });
+
+        return policies;
+      }));
   }
 
   private MultipleRecordFetcher<LoanPolicy> createLoanPoliciesFetcher() {
@@ -88,52 +132,85 @@ public class LoanPolicyRepository extends CirculationPolicyRepository<LoanPolicy
   }
 
   @Override
-  public CompletableFuture<Result<LoanPolicy>> lookupPolicy(Loan loan) {
-    return super.lookupPolicy(loan)
-      .thenComposeAsync(r -> r.after(this::lookupSchedules));
+  protected CompletableFuture<Result<LoanPolicy>> withRelatedRecords(
+    LoanPolicy loanPolicy) {
+
+    return lookupSchedules(loanPolicy);
   }
 
   private CompletableFuture<Result<LoanPolicy>> lookupSchedules(LoanPolicy loanPolicy) {
-    List<String> scheduleIds = new ArrayList<>();
+    return withSchedules(Collections.singletonList(loanPolicy))
+      .thenApply(mapResult(policies -> policies.get(0)));
+  }
 
-    final String loanScheduleId = loanPolicy.getLoansFixedDueDateScheduleId();
-    final String alternateRenewalsSchedulesId = loanPolicy.getAlternateRenewalsFixedDueDateScheduleId();
+  /**
+   * Fetch the fixed due date schedules of many policies at once, so that
+   * policies fetched together are the same as those fetched one at a time
+   */
+  private CompletableFuture<Result<List<LoanPolicy>>> withSchedules(
+    Collection<LoanPolicy> loanPolicies) {
 
-    if (loanScheduleId != null) {
-      scheduleIds.add(loanScheduleId);
-    }
+    final List<String> scheduleIds = new ArrayList<>();
 
-    if (alternateRenewalsSchedulesId != null) {
-      scheduleIds.add(alternateRenewalsSchedulesId);
-    }
+    loanPolicies.forEach(loanPolicy -> {
+      scheduleIds.add(loanPolicy.getLoansFixedDueDateScheduleId());
+      scheduleIds.add(loanPolicy.getAlternateRenewalsFixedDueDateScheduleId());
+    });
+
+    scheduleIds.removeIf(Objects::isNull);
 
     if (scheduleIds.isEmpty()) {
-      return CompletableFuture.completedFuture(succeeded(loanPolicy));
+      return completedFuture(succeeded(new ArrayList<>(loanPolicies)));
     }
 
     return getSchedules(scheduleIds)
-      .thenApply(r -> r.next(schedules -> {
-        final FixedDueDateSchedules loanSchedule = schedules.getOrDefault(
-          loanScheduleId, new NoFixedDueDateSchedules());
-
-        final FixedDueDateSchedules renewalSchedule = schedules.getOrDefault(
-          alternateRenewalsSchedulesId, new NoFixedDueDateSchedules());
-
-        return succeeded(loanPolicy
-          .withDueDateSchedules(loanSchedule)
-          .withAlternateRenewalSchedules(renewalSchedule));
-      }));
+      .thenApply(mapResult(schedules -> loanPolicies.stream()
+        .map(loanPolicy -> loanPolicy
+          .withDueDateSchedules(schedules.getOrDefault(
+            loanPolicy.getLoansFixedDueDateScheduleId(),
+            new NoFixedDueDateSchedules()))
+          .withAlternateRenewalSchedules(schedules.getOrDefault(
+            loanPolicy.getAlternateRenewalsFixedDueDateScheduleId(),
+            new NoFixedDueDateSchedules())))
+        .collect(Collectors.toList())));
   }
 
   private CompletableFuture<Result<Map<String, FixedDueDateSchedules>>> getSchedules(
     Collection<String> schedulesIds) {
 
+    final ReferenceDataCache<FixedDueDateSchedules> schedulesCache
+      = PolicyCaches.fixedDueDateSchedules;
+
+    final Map<String, FixedDueDateSchedules> cachedSchedules
+      = schedulesCache.getAll(tenantId, schedulesIds);
+
+    final List<String> schedulesToFetch = schedulesIds.stream()
+      .filter(id -> !cachedSchedules.containsKey(id))
+      .distinct()
+      .collect(Collectors.toList());
+
+    if (schedulesToFetch.isEmpty()) {
+      return completedFuture(succeeded(cachedSchedules));
+    }
+
+    final long cacheVersion = schedulesCache.getVersion(tenantId);
+
     final MultipleRecordFetcher<FixedDueDateSchedules> fetcher
       = new MultipleRecordFetcher<>(fixedDueDateSchedulesStorageClient,
         "fixedDueDateSchedules", FixedDueDateSchedules::from);
 
-    return fetcher.findByIds(schedulesIds)
-      .thenApply(mapResult(schedules -> schedules.toMap(FixedDueDateSchedules::getId)));
+    return fetcher.findByIds(schedulesToFetch)
+      .thenApply(mapResult(schedules -> {
+        final Map<String, FixedDueDateSchedules> allSchedules
+          = new HashMap<>(cachedSchedules);
+
+        schedules.getRecords().forEach(schedule -> {
+          schedulesCache.put(tenantId, schedule.getId(), schedule, cacheVersion);
+          allSchedules.put(schedule.getId(), schedule);
+        });
+
+        return allSchedules;
+      }));
   }
 
   @Override
@@ -148,7 +225,7 @@ public class LoanPolicyRepository extends CirculationPolicyRepository<LoanPolicy
   }
 
   @Override
-  protected String fetchPolicyId(JsonObject jsonObject) {
-    return jsonObject.getString("loanPolicyId");
+  protected String getPolicyId(PolicyDecision decision) {
+    return decision.getLoanPolicyId();
   }
 }
@@ -4,6 +4,7 @@ import java.util.function.Function;
 
 import org.folio.circulation.domain.notice.PatronNoticePolicy;
 import org.folio.circulation.domain.notice.PatronNoticePolicyMapper;
+import org.folio.circulation.rules.PolicyDecision;
 import org.folio.circulation.support.Clients;
 import org.folio.circulation.support.Result;
 
@@ -20,7 +21,8 @@ public class PatronNoticePolicyRepository extends CirculationPolicyRepository<Pa
   private PatronNoticePolicyRepository(
     Clients clients,
     Function<JsonObject, Result<PatronNoticePolicy>> patronNoticePolicyMapper) {
-    super(clients.circulationNoticeRules(), clients.patronNoticePolicesStorageClient());
+    super(clients.getTenantId(), clients.circulationRulesProcessor(),
+      clients.patronNoticePolicesStorageClient(), PolicyCaches.noticePolicies);
     this.patronNoticePolicyMapper = patronNoticePolicyMapper;
   }
 
@@ -35,7 +37,7 @@ public class PatronNoticePolicyRepository extends CirculationPolicyRepository<Pa
   }
 
   @Override
-  protected String fetchPolicyId(JsonObject jsonObject) {
-    return jsonObject.getString("noticePolicyId");
+  protected String getPolicyId(PolicyDecision decision) {
+    return decision.getNoticePolicyId();
   }
 }
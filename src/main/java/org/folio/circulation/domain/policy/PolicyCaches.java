@@ -0,0 +1,56 @@
+package org.folio.circulation.domain.policy;
+
+import org.folio.circulation.domain.notice.PatronNoticePolicy;
+import org.folio.circulation.support.ReferenceDataCache;
+
+/**
+ * Per tenant caches of parsed policies and fixed due date schedules, shared
+ * by all policy repositories.
+ */
+public class PolicyCaches {
+  /** policies are used for 5 minutes before being fetched again */
+  private static final long DEFAULT_TIME_TO_LIVE_MILLISECONDS = 5 * 60 * 1000L;
+  private static final int MAXIMUM_SIZE = 1000;
+
+  static final ReferenceDataCache<LoanPolicy> loanPolicies = createCache();
+  static final ReferenceDataCache<FixedDueDateSchedules> fixedDueDateSchedules
+    = createCache();
+  static final ReferenceDataCache<RequestPolicy> requestPolicies = createCache();
+  static final ReferenceDataCache<PatronNoticePolicy> noticePolicies = createCache();
+
+  private PolicyCaches() { }
+
+  /**
+   * Drop the cached policies and schedules of the tenant.
+   */
+  public static void clearCache(String tenantId) {
+    loanPolicies.invalidate(tenantId);
+    fixedDueDateSchedules.invalidate(tenantId);
+    requestPolicies.invalidate(tenantId);
+    noticePolicies.invalidate(tenantId);
+  }
+
+  /**
+   * Drop the cached policies and schedules of all tenants.
+   */
+  public static void clearCache() {
+    loanPolicies.invalidateAll();
+    fixedDueDateSchedules.invalidateAll();
+    requestPolicies.invalidateAll();
+    noticePolicies.invalidateAll();
+  }
+
+  /**
+   * Set how long policies and schedules fetched from now on are cached.
+   */
+  public static void setCacheTime(long timeToLiveMilliseconds) {
+    loanPolicies.setTimeToLive(timeToLiveMilliseconds);
+    fixedDueDateSchedules.setTimeToLive(timeToLiveMilliseconds);
+    requestPolicies.setTimeToLive(timeToLiveMilliseconds);
+    noticePolicies.setTimeToLive(timeToLiveMilliseconds);
+  }
+
+  private static <T> ReferenceDataCache<T> createCache() {
+    return new ReferenceDataCache<>(DEFAULT_TIME_TO_LIVE_MILLISECONDS, MAXIMUM_SIZE);
+  }
+}
@@ -11,6 +11,7 @@ public class RequestProperties {
   public static final String HOLD_SHELF_EXPIRATION_DATE = "holdShelfExpirationDate";
   public static final String REQUEST_DATE = "requestDate";
   public static final String REQUEST_EXPIRATION_DATE = "requestExpirationDate";
+  public static final String AWAITING_PICKUP_REQUEST_CLOSED_DATE = "awaitingPickupRequestClosedDate";
   public static final String CANCELLATION_ADDITIONAL_INFORMATION = "cancellationAdditionalInformation";
   public static final String CANCELLATION_REASON_ID = "cancellationReasonId";
   public static final String CANCELLATION_REASON_NAME = "name";
@@ -0,0 +1,48 @@
+package org.folio.circulation.infrastructure.serialization;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.Json;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Encodes request and response bodies, compactly unless pretty printing has
+ * been turned on for debugging, straight to a buffer rather than via a string.
+ */
+public class JsonEncoding {
+  private static final int DEFAULT_MAXIMUM_LOGGED_BODY_LENGTH = 1000;
+
+  private static volatile boolean prettyPrint = false;
+  private static volatile int maximumLoggedBodyLength = DEFAULT_MAXIMUM_LOGGED_BODY_LENGTH;
+
+  private JsonEncoding() { }
+
+  /**
+   * Set the encoding from the options "prettyPrint" (default false) and
+   * "maximumLoggedBodyLength" (default {@value #DEFAULT_MAXIMUM_LOGGED_BODY_LENGTH})
+   */
+  public static void setOptions(JsonObject options) {
+    prettyPrint = options.getBoolean("prettyPrint", false);
+    maximumLoggedBodyLength = options.getInteger("maximumLoggedBodyLength",
+      DEFAULT_MAXIMUM_LOGGED_BODY_LENGTH);
+  }
+
+  public static Buffer encode(Object body) {
+    if (prettyPrint) {
+      return Buffer.buffer(Json.encodePrettily(body), "UTF-8");
+    }
+
+    return Json.encodeToBuffer(body);
+  }
+
+  /**
+   * @return the start of the body, up to the maximum logged length
+   */
+  public static String forLogging(Buffer body) {
+    if (body.length() <= maximumLoggedBodyLength) {
+      return body.toString("UTF-8");
+    }
+
+    return String.format("%s... (%d bytes)",
+      body.getString(0, maximumLoggedBodyLength, "UTF-8"), body.length());
+  }
+}
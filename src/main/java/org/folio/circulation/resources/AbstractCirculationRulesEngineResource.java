@@ -5,14 +5,12 @@ import static org.folio.circulation.support.Result.succeeded;
 import static org.folio.circulation.support.http.server.ServerErrorResponse.internalError;
 
 import java.lang.invoke.MethodHandles;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
 import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.folio.circulation.domain.Location;
-import org.folio.circulation.rules.Drools;
-import org.folio.circulation.rules.Text2Drools;
+import org.folio.circulation.rules.CirculationRulesProcessor;
+import org.folio.circulation.rules.RulesEngine;
 import org.folio.circulation.support.Clients;
 import org.folio.circulation.support.CollectionResourceClient;
 import org.folio.circulation.support.FetchSingleRecord;
@@ -20,7 +18,6 @@ import org.folio.circulation.support.OkJsonResponseResult;
 import org.folio.circulation.support.Result;
 import org.folio.circulation.support.ServerErrorFailure;
 import org.folio.circulation.support.http.server.ClientErrorResponse;
-import org.folio.circulation.support.http.server.ForwardResponse;
 import org.folio.circulation.support.http.server.WebContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -49,23 +46,6 @@ public abstract class AbstractCirculationRulesEngineResource extends Resource {
   private final String applyPath;
   private final String applyAllPath;
 
-  /** after this time the rules get loaded before executing the circulation rules engine */
-  private static long maxAgeInMilliseconds = 5000;
-  /** after this time the circulation rules engine is executed first for a fast reply
-   * and then the circulation rules get reloaded */
-  private static long triggerAgeInMilliseconds = 4000;
-
-  private class Rules {
-    String rulesAsText = "";
-    String rulesAsDrools = "";
-    Drools drools;
-    /** System.currentTimeMillis() of the last load/reload of the rules from the storage */
-    long reloadTimestamp;
-    boolean reloadInitiated = false;
-  }
-  /** rules and Drools for each tenantId */
-  private static Map<String,Rules> rulesMap = new HashMap<>();
-
   /**
    * Set the cache time.
    * @param triggerAgeInMilliseconds  after this time the circulation rules engine is executed first for a fast reply
@@ -73,29 +53,15 @@ public abstract class AbstractCirculationRulesEngineResource extends Resource {
    * @param maxAgeInMilliseconds  after this time the rules get loaded before executing the circulation rules engine
    */
   public static void setCacheTime(long triggerAgeInMilliseconds, long maxAgeInMilliseconds) {
-    AbstractCirculationRulesEngineResource.triggerAgeInMilliseconds = triggerAgeInMilliseconds;
-    AbstractCirculationRulesEngineResource.maxAgeInMilliseconds = maxAgeInMilliseconds;
+    CirculationRulesProcessor.setCacheTime(triggerAgeInMilliseconds, maxAgeInMilliseconds);
   }
 
   /**
-   * Completely drop the cache. This enforces rebuilding the drools rules
+   * Completely drop the cache. This enforces rebuilding the rules engine
    * even when the circulation rules haven't changed.
    */
   public static void dropCache() {
-    rulesMap.clear();
-  }
-
-  /**
-   * Enforce reload of the tenant's circulation rules.
-   * This doesn't rebuild the drools rules if the circulation rules haven't changed.
-   * @param tenantId  id of the tenant
-   */
-  static void clearCache(String tenantId) {
-    Rules rules = rulesMap.get(tenantId);
-    if (rules == null) {
-      return;
-    }
-    rules.reloadTimestamp = 0;
+    CirculationRulesProcessor.dropCache();
   }
 
   /**
@@ -120,117 +86,33 @@ public abstract class AbstractCirculationRulesEngineResource extends Resource {
     router.get(applyAllPath).handler(this::applyAll);
   }
 
-  private String getTenantId(RoutingContext routingContext) {
-    return new WebContext(routingContext).getTenantId();
-  }
-
-  private boolean isCurrent(Rules rules) {
-    if (rules == null) {
-      return false;
-    }
-    return rules.reloadTimestamp + maxAgeInMilliseconds > System.currentTimeMillis();
-  }
-
-  /**
-   * Reload is needed if the last reload is TRIGGER_AGE_IN_MILLISECONDS old
-   * and a reload hasn't been initiated yet.
-   * @param rules - rules to reload
-   * @return whether reload is needed
-   */
-  private boolean reloadNeeded(Rules rules) {
-    if (rules.reloadInitiated) {
-      return false;
-    }
-    return rules.reloadTimestamp + triggerAgeInMilliseconds < System.currentTimeMillis();
-  }
-
   /**
-   * Load the circulation rules from the storage module.
-   * @param rules - where to store the rules and reload information
-   * @param routingContext - where to report any error
-   * @param done - invoked after success
-   */
-  private void reloadRules(Rules rules, RoutingContext routingContext, Handler<Void> done) {
-    final Clients clients = Clients.create(new WebContext(routingContext), client);
-    CollectionResourceClient circulationRulesClient = clients.circulationRulesStorage();
-
-    if (circulationRulesClient == null) {
-      return;
-    }
-
-    circulationRulesClient.get().thenAccept(response -> {
-      try {
-        if (response.getStatusCode() != 200) {
-          ForwardResponse.forward(routingContext.response(), response);
-          log.error("{} {}", response.getStatusCode(), response.getBody());
-          return;
-        }
-
-        rules.reloadTimestamp = System.currentTimeMillis();
-        rules.reloadInitiated = false;
-        JsonObject circulationRules = new JsonObject(response.getBody());
-        if (log.isDebugEnabled()) {
-          log.debug("circulationRules = {}", circulationRules.encodePrettily());
-        }
-        String rulesAsText = circulationRules.getString("rulesAsText");
-        if (rulesAsText == null) {
-          throw new NullPointerException("rulesAsText");
-        }
-        if (rules.rulesAsText.equals(rulesAsText)) {
-          done.handle(null);
-          return;
-        }
-        rules.rulesAsText = rulesAsText;
-        rules.rulesAsDrools = Text2Drools.convert(rulesAsText);
-        log.debug("rulesAsDrools = {}", rules.rulesAsDrools);
-        rules.drools = new Drools(rules.rulesAsDrools);
-        done.handle(null);
-      }
-      catch (Exception e) {
-        log.error("reloadRules", e);
-        if (routingContext.response().ended()) {
-          return;
-        }
-        internalError(routingContext.response(), ExceptionUtils.getStackTrace(e));
-      }
-    });
-  }
-
-  /**
-   * Return a Drools for the tenantId of the routingContext. On error send the
+   * Return the rules engine for the tenantId of the routingContext. On error send the
    * error message via the routingContext's response.
    * @param routingContext - where to get the tenantId and send any error message
-   * @param droolsHandler - where to provide the Drools
+   * @param rulesEngineHandler - where to provide the rules engine
    */
-  protected void drools(RoutingContext routingContext, Handler<Drools> droolsHandler) {
+  protected void rulesEngine(RoutingContext routingContext, Handler<RulesEngine> rulesEngineHandler) {
     try {
-      String tenantId = getTenantId(routingContext);
-      Rules rules = rulesMap.get(tenantId);
-      if (isCurrent(rules)) {
-        droolsHandler.handle(rules.drools);
-        if (reloadNeeded(rules)) {
-          rules.reloadInitiated = true;
-          reloadRules(rules, routingContext, done -> {});
-        }
-        return;
-      }
+      final Clients clients = Clients.create(new WebContext(routingContext), client);
 
-      if (rules == null) {
-        rules = new Rules();
-        rulesMap.put(tenantId, rules);
-      }
-      Rules finalRules = rules;
+      clients.circulationRulesProcessor().getRulesEngine().thenAccept(result -> {
+        if (result.failed()) {
+          if (!routingContext.response().ended()) {
+            result.cause().writeTo(routingContext.response());
+          }
+          return;
+        }
 
-      reloadRules(rules, routingContext, done -> {
         try {
-          droolsHandler.handle(finalRules.drools);
+          rulesEngineHandler.handle(result.value());
         } catch (Exception e) {
-          log.error("drools droolsHandler", e);
+          log.error("rulesEngine rulesEngineHandler", e);
           internalError(routingContext.response(), ExceptionUtils.getStackTrace(e));
         }
       });
     } catch (Exception e) {
-      log.error("drools", e);
+      log.error("rulesEngine", e);
       internalError(routingContext.response(), ExceptionUtils.getStackTrace(e));
     }
   }
@@ -255,7 +137,7 @@ public abstract class AbstractCirculationRulesEngineResource extends Resource {
     if (invalidApplyParameters(request)) {
       return;
     }
-    drools(routingContext, drools -> {
+    rulesEngine(routingContext, rulesEngine -> {
       try {
         final CollectionResourceClient locationsStorageClient =
           Clients.create(new WebContext(routingContext), client).locationsStorage();
@@ -265,7 +147,7 @@ public abstract class AbstractCirculationRulesEngineResource extends Resource {
           .mapTo(Location::from)
           .whenNotFound(failed(new ServerErrorFailure("Can`t find location")))
           .fetch(request.params().get(LOCATION_ID_NAME))
-          .thenCompose(r -> r.after(location -> getPolicyId(request.params(), drools, location)))
+          .thenCompose(r -> r.after(location -> getPolicyId(request.params(), rulesEngine, location)))
           .thenCompose(r -> r.after(this::buildJsonResult))
           .thenApply(OkJsonResponseResult::from)
           .thenAccept(result -> result.writeTo(routingContext.response()));
@@ -282,7 +164,7 @@ public abstract class AbstractCirculationRulesEngineResource extends Resource {
       policyId)));
   }
 
-  private void applyAll(RoutingContext routingContext, Drools drools) {
+  private void applyAll(RoutingContext routingContext, RulesEngine rulesEngine) {
     HttpServerRequest request = routingContext.request();
     if (invalidApplyParameters(request)) {
       return;
@@ -297,7 +179,7 @@ public abstract class AbstractCirculationRulesEngineResource extends Resource {
         .mapTo(Location::from)
         .whenNotFound(failed(new ServerErrorFailure("Can`t find location")))
         .fetch(request.params().get(LOCATION_ID_NAME))
-        .thenCompose(r -> r.after(location -> getPolicies(request.params(), drools, location)))
+        .thenCompose(r -> r.after(location -> getPolicies(request.params(), rulesEngine, location)))
         .thenCompose(r -> r.after(this::buildJsonResult))
         .thenApply(OkJsonResponseResult::from)
         .thenAccept(result -> result.writeTo(routingContext.response()));
@@ -316,14 +198,14 @@ public abstract class AbstractCirculationRulesEngineResource extends Resource {
   private void applyAll(RoutingContext routingContext) {
     String circulationRules = routingContext.pathParam("circulation_rules");
     if (circulationRules == null) {
-      drools(routingContext, drools -> applyAll(routingContext, drools));
+      rulesEngine(routingContext, rulesEngine -> applyAll(routingContext, rulesEngine));
       return;
     }
 
     try {
-      String droolsFile = Text2Drools.convert(circulationRules);
-      Drools drools = new Drools(droolsFile);
-      applyAll(routingContext, drools);
+      String tenantId = new WebContext(routingContext).getTenantId();
+      applyAll(routingContext,
+        CirculationRulesProcessor.createRulesEngine(tenantId, circulationRules));
     }
     catch (Exception e) {
       log.error("applyAll", e);
@@ -339,9 +221,9 @@ public abstract class AbstractCirculationRulesEngineResource extends Resource {
         invalidUuid(request, LOCATION_ID_NAME);
   }
 
-  protected abstract CompletableFuture<Result<String>> getPolicyId(MultiMap params, Drools drools, Location location);
+  protected abstract CompletableFuture<Result<String>> getPolicyId(MultiMap params, RulesEngine rulesEngine, Location location);
 
   protected abstract String getPolicyIdKey();
 
-  protected abstract CompletableFuture<Result<JsonArray>> getPolicies(MultiMap params, Drools drools, Location location);
+  protected abstract CompletableFuture<Result<JsonArray>> getPolicies(MultiMap params, RulesEngine rulesEngine, Location location);
 }
@@ -0,0 +1,149 @@
+package org.folio.circulation.resources;
+
+import static org.folio.circulation.support.JsonArrayHelper.toList;
+import static org.folio.circulation.support.JsonPropertyFetcher.getProperty;
+import static org.folio.circulation.support.JsonPropertyWriter.write;
+import static org.folio.circulation.support.Result.succeeded;
+import static org.folio.circulation.support.ValidationErrorFailure.failedValidation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.folio.circulation.rules.PolicyDecision;
+import org.folio.circulation.rules.RulesExecutionParameters;
+import org.folio.circulation.support.Clients;
+import org.folio.circulation.support.OkJsonResponseResult;
+import org.folio.circulation.support.Result;
+import org.folio.circulation.support.RouteRegistration;
+import org.folio.circulation.support.http.server.WebContext;
+
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.Router;
+import io.vertx.ext.web.RoutingContext;
+
+/**
+ * Applies the circulation rules for many combinations of item type, loan type,
+ * patron type and location in one request, returning the loan, request, notice,
+ * overdue fine and lost item fee policy of each combination.
+ */
+public class CirculationRulesPoliciesResource extends Resource {
+  /** maximum number of combinations in a single request */
+  static final int MAXIMUM_PARAMETERS = 1000;
+
+  private static final String PARAMETERS = "parameters";
+  private static final String ITEM_TYPE_ID = "itemTypeId";
+  private static final String LOAN_TYPE_ID = "loanTypeId";
+  private static final String PATRON_TYPE_ID = "patronTypeId";
+  private static final String LOCATION_ID = "locationId";
+
+  private final String rootPath;
+
+  public CirculationRulesPoliciesResource(String rootPath, HttpClient client) {
+    super(client);
+    this.rootPath = rootPath;
+  }
+
+  @Override
+  public void register(Router router) {
+    RouteRegistration routeRegistration = new RouteRegistration(rootPath, router);
+
+    routeRegistration.create(this::apply);
+  }
+
+  private void apply(RoutingContext routingContext) {
+    final Clients clients = Clients.create(new WebContext(routingContext), client);
+
+    final Result<List<RulesExecutionParameters>> parametersResult
+      = toParameters(routingContext.getBodyAsJson());
+
+    if (parametersResult.failed()) {
+      parametersResult.cause().writeTo(routingContext.response());
+      return;
+    }
+
+    final List<RulesExecutionParameters> parameters = parametersResult.value();
+
+    clients.circulationRulesProcessor().getPolicyDecisions(parameters)
+      .thenApply(r -> r.map(decisions -> toJson(parameters, decisions)))
+      .thenApply(OkJsonResponseResult::from)
+      .thenAccept(result -> result.writeTo(routingContext.response()));
+  }
+
+  private static Result<List<RulesExecutionParameters>> toParameters(
+    JsonObject body) {
+
+    final JsonArray array = body == null ? null : body.getJsonArray(PARAMETERS);
+
+    if (array == null) {
+      return failedValidation("Parameters are required", PARAMETERS, null);
+    }
+
+    if (array.size() > MAXIMUM_PARAMETERS) {
+      return failedValidation(String.format(
+        "At most %d parameters are allowed", MAXIMUM_PARAMETERS),
+        PARAMETERS, String.valueOf(array.size()));
+    }
+
+    final List<RulesExecutionParameters> parameters = new ArrayList<>(array.size());
+
+    for (JsonObject json : toList(array)) {
+      for (String name : new String[] {
+        ITEM_TYPE_ID, LOAN_TYPE_ID, PATRON_TYPE_ID, LOCATION_ID }) {
+
+        if (invalidUuid(getProperty(json, name))) {
+          return failedValidation("A valid UUID is required", name,
+            getProperty(json, name));
+        }
+      }
+
+      parameters.add(new RulesExecutionParameters(
+        getProperty(json, ITEM_TYPE_ID), getProperty(json, LOAN_TYPE_ID),
+        getProperty(json, PATRON_TYPE_ID), getProperty(json, LOCATION_ID), null));
+    }
+
+    return succeeded(parameters);
+  }
+
+  private static boolean invalidUuid(String value) {
+    if (value == null) {
+      return true;
+    }
+
+    try {
+      UUID.fromString(value);
+      return false;
+    } catch (IllegalArgumentException e) {
+      return true;
+    }
+  }
+
+  private static JsonObject toJson(List<RulesExecutionParameters> parameters,
+    List<PolicyDecision> decisions) {
+
+    final JsonArray policies = new JsonArray();
+
+    for (int index = 0; index < parameters.size(); index++) {
+      final RulesExecutionParameters parameter = parameters.get(index);
+      final PolicyDecision decision = decisions.get(index);
+      final JsonObject json = new JsonObject();
+
+      write(json, ITEM_TYPE_ID, parameter.getMaterialTypeId());
+      write(json, LOAN_TYPE_ID, parameter.getLoanTypeId());
+      write(json, PATRON_TYPE_ID, parameter.getPatronGroupId());
+      write(json, LOCATION_ID, parameter.getLocationId());
+      write(json, "loanPolicyId", decision.getLoanPolicyId());
+      write(json, "requestPolicyId", decision.getRequestPolicyId());
+      write(json, "noticePolicyId", decision.getNoticePolicyId());
+      write(json, "overduePolicyId", decision.getOverduePolicyId());
+      write(json, "lostItemPolicyId", decision.getLostItemPolicyId());
+      write(json, "circulationRuleLine", decision.getCirculationRuleLine());
+
+      policies.add(json);
+    }
+
+    return new JsonObject().put("policies", policies);
+  }
+}
@@ -6,6 +6,7 @@ import java.lang.invoke.MethodHandles;
 
 import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.folio.circulation.rules.CirculationRulesException;
+import org.folio.circulation.rules.CirculationRulesProcessor;
 import org.folio.circulation.rules.Text2Drools;
 import org.folio.circulation.support.Clients;
 import org.folio.circulation.support.CollectionResourceClient;
@@ -110,15 +111,24 @@ public class CirculationRulesResource extends Resource {
       internalError(routingContext.response(), ExceptionUtils.getStackTrace(e));
       return;
     }
-    LoanCirculationRulesEngineResource.clearCache(new WebContext(routingContext).getTenantId());
-    RequestCirculationRulesEngineResource.clearCache(new WebContext(routingContext).getTenantId());
+    final String tenantId = new WebContext(routingContext).getTenantId();
+    final String rulesAsText = rulesInput.getString("rulesAsText");
 
     loansRulesClient.put(rulesInput.copy()).thenAccept(response -> {
-      if (response.getStatusCode() == 204) {
-        SuccessResponse.noContent(routingContext.response());
-      } else {
+      if (response.getStatusCode() != 204) {
         ForwardResponse.forward(routingContext.response(), response);
+        return;
       }
+
+      // compile before replying so that the next rules engine request uses the new rules
+      CirculationRulesProcessor.rulesSaved(tenantId, rulesAsText)
+        .thenAccept(result -> {
+          if (result.failed()) {
+            log.error("Cannot compile saved circulation rules, reloading them on next use");
+            CirculationRulesProcessor.clearCache(tenantId);
+          }
+          SuccessResponse.noContent(routingContext.response());
+        });
     });
   }
 
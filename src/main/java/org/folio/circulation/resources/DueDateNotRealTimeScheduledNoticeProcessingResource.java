@@ -14,6 +14,7 @@ import java.util.stream.Stream;
 import org.folio.circulation.domain.MultipleRecords;
 import org.folio.circulation.domain.notice.schedule.DueDateNotRealTimeScheduledNoticeHandler;
 import org.folio.circulation.domain.notice.schedule.ScheduledNotice;
+import org.folio.circulation.domain.notice.schedule.ScheduledNoticeCursor;
 import org.folio.circulation.domain.notice.schedule.ScheduledNoticeGroupDefinition;
 import org.folio.circulation.domain.notice.schedule.ScheduledNoticesRepository;
 import org.folio.circulation.domain.notice.schedule.TriggeringEvent;
@@ -46,8 +47,11 @@ public class DueDateNotRealTimeScheduledNoticeProcessingResource extends Schedul
 
   @Override
   protected CompletableFuture<Result<MultipleRecords<ScheduledNotice>>> findNoticesToSend(
-    ScheduledNoticesRepository scheduledNoticesRepository, int limit) {
+    ScheduledNoticesRepository scheduledNoticesRepository, ScheduledNoticeCursor cursor,
+    int limit) {
 
+    //Notices are grouped by recipient and template rather than ordered by next
+    //run time, so only the first page is processed and the cursor is not used
     DateTime timeLimit = LocalDate.now().toDateTime(LocalTime.MIDNIGHT);
     return scheduledNoticesRepository.findNotices(timeLimit, false,
       Collections.singletonList(TriggeringEvent.DUE_DATE),
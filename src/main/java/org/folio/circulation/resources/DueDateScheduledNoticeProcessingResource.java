@@ -3,15 +3,16 @@ package org.folio.circulation.resources;
 import static org.folio.circulation.support.ResultBinding.mapResult;
 
 import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
 import org.folio.circulation.domain.MultipleRecords;
 import org.folio.circulation.domain.notice.schedule.DueDateScheduledNoticeHandler;
 import org.folio.circulation.domain.notice.schedule.ScheduledNotice;
+import org.folio.circulation.domain.notice.schedule.ScheduledNoticeCursor;
 import org.folio.circulation.domain.notice.schedule.ScheduledNoticesRepository;
 import org.folio.circulation.domain.notice.schedule.TriggeringEvent;
 import org.folio.circulation.support.Clients;
-import org.folio.circulation.support.CqlSortBy;
 import org.folio.circulation.support.Result;
 import org.joda.time.DateTime;
 import org.joda.time.DateTimeZone;
@@ -26,12 +27,23 @@ public class DueDateScheduledNoticeProcessingResource extends ScheduledNoticePro
 
   @Override
   protected CompletableFuture<Result<MultipleRecords<ScheduledNotice>>> findNoticesToSend(
-    ScheduledNoticesRepository scheduledNoticesRepository, int limit) {
+    ScheduledNoticesRepository scheduledNoticesRepository, ScheduledNoticeCursor cursor,
+    int limit) {
 
     return scheduledNoticesRepository.findNotices(
       DateTime.now(DateTimeZone.UTC), true,
       Collections.singletonList(TriggeringEvent.DUE_DATE),
-      CqlSortBy.ascending("nextRunTime"), limit);
+      cursor, limit);
+  }
+
+  @Override
+  protected boolean canDrain() {
+    return true;
+  }
+
+  @Override
+  protected List<TriggeringEvent> getNearTermTriggeringEvents() {
+    return Collections.singletonList(TriggeringEvent.DUE_DATE);
   }
 
   @Override
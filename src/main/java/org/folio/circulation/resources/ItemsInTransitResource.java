@@ -2,30 +2,28 @@ package org.folio.circulation.resources;
 
 import static java.util.concurrent.CompletableFuture.completedFuture;
 import static org.folio.circulation.domain.ItemStatus.IN_TRANSIT;
-import static org.folio.circulation.support.AsyncCoordinationUtil.allOf;
 import static org.folio.circulation.support.CqlQuery.exactMatch;
 import static org.folio.circulation.support.CqlQuery.exactMatchAny;
 import static org.folio.circulation.support.CqlSortBy.ascending;
 import static org.folio.circulation.support.Result.of;
 import static org.folio.circulation.support.Result.succeeded;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
-import java.util.stream.Collector;
 import java.util.stream.Collectors;
 
 import io.vertx.core.http.HttpClient;
-import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import io.vertx.ext.web.Router;
 import io.vertx.ext.web.RoutingContext;
 import org.folio.circulation.domain.InTransitReportEntry;
 import org.folio.circulation.domain.Item;
-import org.folio.circulation.domain.ItemsReportFetcher;
 import org.folio.circulation.domain.Loan;
 import org.folio.circulation.domain.MultipleRecords;
 import org.folio.circulation.domain.PatronGroupRepository;
@@ -41,11 +39,12 @@ import org.folio.circulation.support.CollectionResourceClient;
 import org.folio.circulation.support.CqlQuery;
 import org.folio.circulation.support.ItemRepository;
 import org.folio.circulation.support.MultipleRecordFetcher;
-import org.folio.circulation.support.OkJsonResponseResult;
 import org.folio.circulation.support.Result;
 import org.folio.circulation.support.RouteRegistration;
+import org.folio.circulation.support.StreamingJsonArrayResponse;
 import org.folio.circulation.support.http.client.Response;
 import org.folio.circulation.support.http.server.WebContext;
+import org.folio.circulation.support.results.CommonFailures;
 
 
 public class ItemsInTransitResource extends Resource {
@@ -68,40 +67,88 @@ public class ItemsInTransitResource extends Resource {
     final WebContext context = new WebContext(routingContext);
     final Clients clients = Clients.create(context, client);
 
+    final StreamingJsonArrayResponse response = new StreamingJsonArrayResponse(
+      routingContext.response(), "items");
+
+    writeReportFromPage(clients, response, 0)
+      .exceptionally(CommonFailures::failedDueToServerError)
+      .thenAccept(r -> {
+        if (r.failed()) {
+          response.fail(r.cause());
+        } else {
+          response.end();
+        }
+      });
+  }
+
+  /**
+   * Fetch, enrich and write one page of items in transit at a time, the next
+   * page is only fetched once the previous one has been written, and not at
+   * all once the client has gone away
+   */
+  private CompletableFuture<Result<Void>> writeReportFromPage(Clients clients,
+    StreamingJsonArrayResponse response, int pageNumber) {
+
+    final ReportRepository reportRepository = new ReportRepository(clients);
+
+    return reportRepository.getItemsPageByField("status.name", IN_TRANSIT.getValue(), pageNumber)
+      .thenCompose(r -> r.after(page -> createReportEntries(clients, page.getRecords())
+        .thenCompose(entries -> entries.after(reportEntries ->
+          response.write(mapToJson(reportEntries))
+            .thenApply(notUsed -> succeeded(page))))))
+      .thenCompose(r -> r.after(page ->
+        writeReportFromNextPage(clients, response, page, pageNumber)));
+  }
+
+  private CompletableFuture<Result<Void>> writeReportFromNextPage(Clients clients,
+    StreamingJsonArrayResponse response, MultipleRecords<Item> page, int pageNumber) {
+
+    final boolean lastPage = page.isEmpty()
+      || page.getTotalRecords() == null
+      || page.getTotalRecords() <= (pageNumber + 1) * ReportRepository.PAGE_LIMIT;
+
+    if (lastPage || response.isClosed()) {
+      return completedFuture(succeeded(null));
+    }
+
+    return writeReportFromPage(clients, response, pageNumber + 1);
+  }
+
+  private CompletableFuture<Result<List<InTransitReportEntry>>> createReportEntries(
+    Clients clients, Collection<Item> items) {
+
     final CollectionResourceClient loansStorageClient = clients.loansStorage();
     final CollectionResourceClient requestsStorageClient = clients.requestsStorage();
-    final ItemRepository itemRepository = new ItemRepository(clients, true, true, true);
+    final ItemRepository itemRepository = new ItemRepository(clients, true, true, false);
     final ServicePointRepository servicePointRepository = new ServicePointRepository(clients);
-    final ReportRepository reportRepository = new ReportRepository(clients);
     final UserRepository userRepository = new UserRepository(clients);
     final PatronGroupRepository patronGroupRepository = new PatronGroupRepository(clients);
     final Comparator<InTransitReportEntry> sortByCheckinServicePointComparator = sortByCheckinServicePointComparator();
 
-    reportRepository.getAllItemsByField("status.name", IN_TRANSIT.getValue())
-      .thenComposeAsync(r -> r.after(itemsReportFetcher ->
-        fetchItemsRelatedRecords(itemsReportFetcher, itemRepository, servicePointRepository)))
+    if (items.isEmpty()) {
+      return completedFuture(succeeded(new ArrayList<>()));
+    }
+
+    return fetchItemsRelatedRecords(items, itemRepository, servicePointRepository)
       .thenComposeAsync(r -> r.after(inTransitReportEntries ->
         fetchLoans(loansStorageClient, servicePointRepository, inTransitReportEntries,
           sortByCheckinServicePointComparator)))
-      .thenComposeAsync(r -> findRequestsByItemsIds(requestsStorageClient, itemRepository,
-        servicePointRepository, userRepository, patronGroupRepository, r.value()))
-      .thenApply(this::mapResultToJson)
-      .thenApply(OkJsonResponseResult::from)
-      .thenAccept(r -> r.writeTo(routingContext.response()));
+      .thenComposeAsync(r -> r.after(inTransitReportEntries ->
+        findRequestsByItemsIds(requestsStorageClient, itemRepository,
+          servicePointRepository, userRepository, patronGroupRepository,
+          inTransitReportEntries)));
   }
 
-  private CompletableFuture<Result<List<InTransitReportEntry>>> fetchItemsRelatedRecords(ItemsReportFetcher itemsReportFetcher,
+  private CompletableFuture<Result<List<InTransitReportEntry>>> fetchItemsRelatedRecords(Collection<Item> items,
                                                                                           ItemRepository itemRepository,
                                                                                           ServicePointRepository servicePointRepository) {
-    List<Item> items = itemsReportFetcher.getResultListOfItems().stream()
-      .flatMap(resultListOfItem -> resultListOfItem.value().getRecords().stream())
-      .collect(Collectors.toList());
-
-    return allOf(items, item -> fetchRelatedRecords(itemRepository, servicePointRepository, item))
-    .thenApply(resultItem -> mapToInTransitReportEntries(resultItem.value()));
+    return itemRepository.fetchItemsRelatedRecords(items)
+      .thenComposeAsync(r -> r.after(itemsWithRelatedRecords ->
+        fetchDestinationServicePoints(servicePointRepository, itemsWithRelatedRecords)))
+      .thenApply(r -> r.next(this::mapToInTransitReportEntries));
   }
 
-  private Result<List<InTransitReportEntry>> mapToInTransitReportEntries(List<Item> items) {
+  private Result<List<InTransitReportEntry>> mapToInTransitReportEntries(Collection<Item> items) {
     List<InTransitReportEntry> inTransitReportEntries=
       items.stream().map(InTransitReportEntry::new)
         .collect(Collectors.toList());
@@ -109,14 +156,24 @@ public class ItemsInTransitResource extends Resource {
     return Result.succeeded(inTransitReportEntries);
   }
 
-  private CompletableFuture<Result<Item>> fetchRelatedRecords(ItemRepository itemRepository,
-                                                              ServicePointRepository servicePointRepository,
-                                                              Item item) {
-    return CompletableFuture.completedFuture(Result.succeeded(item))
-      .thenComposeAsync(itemRepository::fetchItemRelatedRecords)
-      .thenComposeAsync(result -> result
-        .combineAfter(it -> servicePointRepository
-          .getServicePointById(it.getInTransitDestinationServicePointId()), Item::updateDestinationServicePoint));
+  private CompletableFuture<Result<Collection<Item>>> fetchDestinationServicePoints(
+    ServicePointRepository servicePointRepository, Collection<Item> items) {
+
+    final List<String> servicePointIds = items.stream()
+      .map(Item::getInTransitDestinationServicePointId)
+      .filter(Objects::nonNull)
+      .distinct()
+      .collect(Collectors.toList());
+
+    if (servicePointIds.isEmpty()) {
+      return completedFuture(succeeded(items));
+    }
+
+    return servicePointRepository.getServicePointsByIds(servicePointIds)
+      .thenApply(r -> r.map(servicePoints -> items.stream()
+        .map(item -> item.updateDestinationServicePoint(
+          servicePoints.get(item.getInTransitDestinationServicePointId())))
+        .collect(Collectors.toList())));
   }
 
   private CompletableFuture<Result<List<InTransitReportEntry>>> findRequestsByItemsIds(CollectionResourceClient requestsStorageClient,
@@ -141,7 +198,8 @@ public class ItemsInTransitResource extends Resource {
       .thenComposeAsync(r -> r.after(multipleRecords -> completedFuture(succeeded(
         multipleRecords.getRecords().stream().collect(
           Collectors.groupingBy(Request::getItemId))))))
-      .thenComposeAsync(r -> mapRequestToInTransitReportEntry(inTransitReportEntryList, r.value()));
+      .thenComposeAsync(r -> r.after(itemRequestsMap ->
+        mapRequestToInTransitReportEntry(inTransitReportEntryList, itemRequestsMap)));
   }
 
   private CompletableFuture<Result<List<InTransitReportEntry>>> fetchLoans(
@@ -224,16 +282,11 @@ public class ItemsInTransitResource extends Resource {
     return CompletableFuture.completedFuture(Result.succeeded(inTransitReportEntryList));
   }
 
-  private Result<JsonObject> mapResultToJson
-    (Result<List<InTransitReportEntry>> inTransitReportEntry) {
-
-    return inTransitReportEntry.map(resultList -> resultList
-      .stream().map(itemAndRelatedRecord -> new ItemReportRepresentation()
+  private List<JsonObject> mapToJson(List<InTransitReportEntry> inTransitReportEntries) {
+    return inTransitReportEntries.stream()
+      .map(itemAndRelatedRecord -> new ItemReportRepresentation()
         .createItemReport(itemAndRelatedRecord))
-      .collect(Collector.of(JsonArray::new, JsonArray::add, JsonArray::add)))
-      .next(jsonArray -> Result.succeeded(new JsonObject()
-        .put("items", jsonArray)
-        .put("totalRecords", jsonArray.size())));
+      .collect(Collectors.toList());
   }
 
   private Comparator<InTransitReportEntry> sortByCheckinServicePointComparator() {
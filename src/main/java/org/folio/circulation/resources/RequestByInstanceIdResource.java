@@ -149,26 +149,31 @@ public class RequestByInstanceIdResource extends Resource {
     }
 
     LoanRepository loanRepository = new LoanRepository(clients);
-    Map<Item, CompletableFuture<Result<Loan>>> itemLoanFuturesMap = new HashMap<>();
 
-    //Find request queues and loan items for each item
-    for (Item item : unsortedUnavailableItems) {
-      itemLoanFuturesMap.put(item, loanRepository.findOpenLoanForItem(item));
-    }
+    //Find the open loans of all items at once, and group them by item
+    return loanRepository.findOpenLoansForItems(unsortedUnavailableItems)
+      .thenApply(loansResult -> {
+        Map<String, List<Loan>> loansByItemId = new HashMap<>();
 
-    final Collection<CompletableFuture<Result<Loan>>> loanFutures = itemLoanFuturesMap.values();
+        if (loansResult.succeeded()) {
+          loansByItemId = loansResult.value().getRecords().stream()
+            .collect(Collectors.groupingBy(Loan::getItemId));
+        } else {
+          log.warn("Failed to find open loans for items of instanceId {}",
+            instanceRequestPackage.getInstanceLevelRequest().getInstanceId());
+        }
 
-    return CompletableFuture.allOf(loanFutures.toArray(new CompletableFuture[0]))
-      .thenApply(dd -> {
         Map<Item, DateTime> itemDueDateMap = new HashMap<>();
         List<Item> itemsWithoutLoansList = new ArrayList<>();
 
-        for (Map.Entry<Item, CompletableFuture<Result<Loan>>> entry : itemLoanFuturesMap.entrySet()) {
-          Result<Loan> aLoanResult = entry.getValue().join();
-          if (aLoanResult.succeeded() && aLoanResult.value() != null) {
-            itemDueDateMap.put(aLoanResult.value().getItem(), aLoanResult.value().getDueDate());
+        for (Item item : unsortedUnavailableItems) {
+          final List<Loan> loans = loansByItemId.getOrDefault(item.getItemId(), new ArrayList<>());
+
+          //an item with more than one open loan is treated like one without a loan
+          if (loans.size() == 1) {
+            itemDueDateMap.put(item, loans.get(0).getDueDate());
           } else {
-            itemsWithoutLoansList.add(entry.getKey());
+            itemsWithoutLoansList.add(item);
           }
         }
         instanceRequestPackage.setItemsWithoutLoans(itemsWithoutLoansList);
@@ -181,31 +186,26 @@ public class RequestByInstanceIdResource extends Resource {
     InstanceRequestRelatedRecords instanceRequestPackage, Clients clients) {
 
     RequestQueueRepository queueRepository = RequestQueueRepository.using(clients);
-    Map<Item, CompletableFuture<Result<RequestQueue>>> itemRequestQueueMap = new HashMap<>();
 
     instanceRequestPackage.setAllUnsortedItems(items);
 
-    for (Item item : items) {
-      itemRequestQueueMap.put(item, queueRepository.getRequestQueueWithoutItemLookup(item.getItemId()));
-    }
+    final List<String> itemIds = items.stream()
+      .map(Item::getItemId)
+      .collect(Collectors.toList());
 
-    final Collection<CompletableFuture<Result<RequestQueue>>> requestQueuesFutures = itemRequestQueueMap.values();
-
-    //Collect the RequestQueue objects once they come back
-    return CompletableFuture.allOf(requestQueuesFutures.toArray(new CompletableFuture[0]))
-      .thenApply(x -> {
+    //Find the request queues of all items at once
+    return queueRepository.getRequestQueuesWithoutItemLookup(itemIds)
+      .thenApply(queuesResult -> {
         Map<Item, RequestQueue> itemQueueMap = new HashMap<>();
         List<Item> itemsWithoutRequestQueues = new ArrayList<>();
 
-        for (Map.Entry<Item, CompletableFuture<Result<RequestQueue>>> entry : itemRequestQueueMap.entrySet()) {
-          Result<RequestQueue> requestQueueResult = entry.getValue().join();
-          if (requestQueueResult.succeeded()) {
-            itemQueueMap.put(entry.getKey(), requestQueueResult.value());
-          } else {
-            itemsWithoutRequestQueues.add(entry.getKey());
-          }
+        if (queuesResult.succeeded()) {
+          items.forEach(item -> itemQueueMap.put(item, queuesResult.value().get(item.getItemId())));
+        } else {
+          itemsWithoutRequestQueues.addAll(items);
         }
-        if (itemsWithoutRequestQueues.size() == requestQueuesFutures.size()
+
+        if (itemsWithoutRequestQueues.size() == items.size()
           && (instanceRequestPackage.getSortedAvailableItems() == null || instanceRequestPackage.getSortedAvailableItems().isEmpty())) {
           //fail the requests when there are no items to make requests from.
           log.error("Failed to find request queues for all items of instanceId {}",
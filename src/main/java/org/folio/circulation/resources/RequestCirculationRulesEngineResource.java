@@ -3,7 +3,7 @@ package org.folio.circulation.resources;
 import static org.folio.circulation.support.Result.succeeded;
 
 import org.folio.circulation.domain.Location;
-import org.folio.circulation.rules.Drools;
+import org.folio.circulation.rules.RulesEngine;
 
 import io.vertx.core.MultiMap;
 import io.vertx.core.http.HttpClient;
@@ -23,8 +23,8 @@ public class RequestCirculationRulesEngineResource extends AbstractCirculationRu
   }
 
   @Override
-  protected CompletableFuture<Result<String>> getPolicyId(MultiMap params, Drools drools, Location location) {
-    return CompletableFuture.completedFuture(succeeded(drools.requestPolicy(params, location)));
+  protected CompletableFuture<Result<String>> getPolicyId(MultiMap params, RulesEngine rulesEngine, Location location) {
+    return CompletableFuture.completedFuture(succeeded(rulesEngine.requestPolicy(params, location)));
   }
 
   @Override
@@ -33,7 +33,7 @@ public class RequestCirculationRulesEngineResource extends AbstractCirculationRu
   }
 
   @Override
-  protected CompletableFuture<Result<JsonArray>> getPolicies(MultiMap params, Drools drools, Location location) {
-    return CompletableFuture.completedFuture(succeeded(drools.requestPolicies(params, location)));
+  protected CompletableFuture<Result<JsonArray>> getPolicies(MultiMap params, RulesEngine rulesEngine, Location location) {
+    return CompletableFuture.completedFuture(succeeded(rulesEngine.requestPolicies(params, location)));
   }
 }
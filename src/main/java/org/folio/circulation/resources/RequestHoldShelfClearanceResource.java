@@ -1,24 +1,24 @@
 package org.folio.circulation.resources;
 
+import static java.util.Comparator.comparing;
 import static org.folio.circulation.domain.ItemStatus.AWAITING_PICKUP;
 import static org.folio.circulation.domain.RequestStatus.CLOSED_CANCELLED;
 import static org.folio.circulation.domain.RequestStatus.CLOSED_PICKUP_EXPIRED;
 import static org.folio.circulation.domain.RequestStatus.OPEN_AWAITING_PICKUP;
 import static org.folio.circulation.support.CqlQuery.exactMatch;
 import static org.folio.circulation.support.CqlQuery.exactMatchAny;
-import static org.folio.circulation.support.CqlSortBy.descending;
+import static org.folio.circulation.support.CqlQuery.greaterThan;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
-import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
-import java.util.function.Predicate;
+import java.util.function.BinaryOperator;
 import java.util.stream.Collector;
 import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 
 import org.apache.commons.lang3.StringUtils;
 import org.folio.circulation.domain.HoldShelfClearanceRequestContext;
@@ -27,15 +27,13 @@ import org.folio.circulation.domain.MultipleRecords;
 import org.folio.circulation.domain.ReportRepository;
 import org.folio.circulation.domain.Request;
 import org.folio.circulation.domain.RequestRepresentation;
-import org.folio.circulation.domain.ItemsReportFetcher;
 import org.folio.circulation.support.Clients;
-import org.folio.circulation.support.CollectionResourceClient;
 import org.folio.circulation.support.CqlQuery;
 import org.folio.circulation.support.ItemRepository;
+import org.folio.circulation.support.MultipleRecordFetcher;
 import org.folio.circulation.support.OkJsonResponseResult;
 import org.folio.circulation.support.Result;
 import org.folio.circulation.support.RouteRegistration;
-import org.folio.circulation.support.http.client.Response;
 import org.folio.circulation.support.http.server.WebContext;
 
 import io.vertx.core.http.HttpClient;
@@ -45,17 +43,6 @@ import io.vertx.ext.web.Router;
 import io.vertx.ext.web.RoutingContext;
 
 public class RequestHoldShelfClearanceResource extends Resource {
-
-  /**
-   * The optimal number of identifiers that will not exceed the permissible length
-   * of the URI in according to the RFC 2616
-   */
-  private static final int BATCH_SIZE = 40;
-
-  /**
-   * Default limit value on a query
-   */
-  private static final int PAGE_REQUEST_LIMIT = 1;
   private static final String SERVICE_POINT_ID_PARAM = "servicePointId";
   private static final String ITEM_ID_KEY = "itemId";
   private static final String REQUESTS_KEY = "requests";
@@ -82,179 +69,128 @@ public class RequestHoldShelfClearanceResource extends Resource {
     final Clients clients = Clients.create(context, client);
 
     final ItemRepository itemRepository = new ItemRepository(clients, false, false, false);
-    final CollectionResourceClient requestsStorage = clients.requestsStorage();
+    final MultipleRecordFetcher<Request> requestsFetcher = new MultipleRecordFetcher<>(
+      clients.requestsStorage(), REQUESTS_KEY, Request::from);
     final ReportRepository reportRepository = new ReportRepository(clients);
 
     final String servicePointId = routingContext.request().getParam(SERVICE_POINT_ID_PARAM);
 
-    reportRepository.getAllItemsByField(STATUS_NAME_KEY, AWAITING_PICKUP.getValue())
-      .thenComposeAsync(r -> r.after(this::mapContextToItemIdList))
-      .thenComposeAsync(r -> r.after(this::mapItemIdsInBatchItemIds))
-      .thenComposeAsync(r -> findAwaitingPickupRequestsByItemsIds(requestsStorage, r.value()))
-      .thenComposeAsync(r -> findExpiredOrCancelledRequestByItemIds(requestsStorage, r.value()))
-      .thenApply(r -> findExpiredOrCancelledRequestByServicePoint(servicePointId, r.value()))
-      .thenApply(r -> fetchItemToRequest(r, itemRepository))
+    final List<String> itemIds = new ArrayList<>();
+
+    reportRepository.getAllItemsByField(STATUS_NAME_KEY, AWAITING_PICKUP.getValue(),
+      page -> itemIds.addAll(mapPageToItemIdList(page)))
+      .thenApply(r -> r.map(totalRecords -> distinct(itemIds)))
+      .thenCompose(r -> r.after(itemIds -> findAwaitingPickupRequestsByItemsIds(
+        requestsFetcher, itemIds)))
+      .thenCompose(r -> r.after(requestContext -> findExpiredOrCancelledRequestByItemIds(
+        requestsFetcher, requestContext)))
+      .thenApply(r -> r.map(requestContext -> findExpiredOrCancelledRequestByServicePoint(
+        servicePointId, requestContext)))
+      .thenCompose(r -> itemRepository.fetchItemsFor(r, Request::withItem))
       .thenApply(this::mapResultToJson)
       .thenApply(OkJsonResponseResult::from)
       .thenAccept(r -> r.writeTo(routingContext.response()));
   }
 
-  private CompletableFuture<Result<List<String>>> mapContextToItemIdList(ItemsReportFetcher itemsReportFetcher) {
-    List<String> itemIds = itemsReportFetcher.getResultListOfItems().stream()
-      .flatMap(records -> records.value().getRecords().stream())
+  private List<String> mapPageToItemIdList(MultipleRecords<Item> page) {
+    return page.getRecords().stream()
       .filter(item -> StringUtils.isNoneBlank(item.getItemId()))
       .map(Item::getItemId)
       .collect(Collectors.toList());
-    return CompletableFuture.completedFuture(Result.succeeded(itemIds));
-  }
-
-  private CompletableFuture<Result<List<List<String>>>> mapItemIdsInBatchItemIds(List<String> itemIds) {
-    return CompletableFuture.completedFuture(Result.succeeded(splitIds(itemIds)));
   }
 
-  private List<List<String>> splitIds(List<String> itemsIds) {
-    int size = itemsIds.size();
-    if (size <= 0) {
-      return new ArrayList<>();
-    }
-
-    int fullChunks = (size - 1) / BATCH_SIZE;
-    return IntStream.range(0, fullChunks + 1)
-      .mapToObj(n ->
-        itemsIds.subList(n * BATCH_SIZE, n == fullChunks
-          ? size
-          : (n + 1) * BATCH_SIZE))
+  private List<String> distinct(List<String> itemIds) {
+    return itemIds.stream()
+      .distinct()
       .collect(Collectors.toList());
   }
 
-  private CompletableFuture<Result<HoldShelfClearanceRequestContext>> findAwaitingPickupRequestsByItemsIds(CollectionResourceClient client,
-                                                                                                           List<List<String>> batchItemIds) {
-    List<Result<MultipleRecords<Request>>> awaitingPickupRequests = findAwaitingPickupRequests(client, batchItemIds);
-    return CompletableFuture.completedFuture(Result.succeeded(
-      createHoldShelfClearanceRequestContext(batchItemIds, awaitingPickupRequests)));
-  }
-
-  private List<Result<MultipleRecords<Request>>> findAwaitingPickupRequests(CollectionResourceClient client,
-                                                                            List<List<String>> batchItemIds) {
-    return batchItemIds.stream()
-      .map(batch -> {
-        final Result<CqlQuery> statusQuery = exactMatch(STATUS_KEY, OPEN_AWAITING_PICKUP.getValue());
-        final Result<CqlQuery> itemIdsQuery = exactMatchAny(ITEM_ID_KEY, batch);
+  /**
+   * Find which of the items still have an open awaiting pickup request,
+   * with a query per batch of item ids
+   */
+  private CompletableFuture<Result<HoldShelfClearanceRequestContext>> findAwaitingPickupRequestsByItemsIds(
+    MultipleRecordFetcher<Request> requestsFetcher, List<String> itemIds) {
 
-        Result<CqlQuery> cqlQueryResult = statusQuery
-          .combine(itemIdsQuery, CqlQuery::and);
+    final Result<CqlQuery> statusQuery = exactMatch(STATUS_KEY, OPEN_AWAITING_PICKUP.getValue());
 
-        return findRequestsByCqlQuery(client, cqlQueryResult, batch.size());
-      })
-      .map(CompletableFuture::join)
-      .collect(Collectors.toList());
+    return requestsFetcher.findByIndexNameAndQuery(itemIds, ITEM_ID_KEY, statusQuery)
+      .thenApply(r -> r.map(requests -> createHoldShelfClearanceRequestContext(itemIds, requests)));
   }
 
-  private HoldShelfClearanceRequestContext createHoldShelfClearanceRequestContext(List<List<String>> batchItemIds,
-                                                                                  List<Result<MultipleRecords<Request>>> results) {
-    List<String> allAwaitingPickupItemIds = batchItemIds.stream()
-      .flatMap(Collection::stream)
-      .collect(Collectors.toList());
+  private HoldShelfClearanceRequestContext createHoldShelfClearanceRequestContext(
+    List<String> itemIds, MultipleRecords<Request> awaitingPickupRequests) {
 
-    List<String> awaitingPickupRequestItemIds = results.stream()
-      .flatMap(r -> r.value().getRecords().stream())
+    final List<String> awaitingPickupRequestItemIds = awaitingPickupRequests.getRecords().stream()
       .map(Request::getItemId)
+      .distinct()
       .collect(Collectors.toList());
 
-    allAwaitingPickupItemIds.removeAll(awaitingPickupRequestItemIds);
+    final Set<String> itemIdsWithRequest = awaitingPickupRequestItemIds.stream()
+      .collect(Collectors.toSet());
+
+    final List<String> awaitingPickupItemIds = itemIds.stream()
+      .filter(itemId -> !itemIdsWithRequest.contains(itemId))
+      .collect(Collectors.toList());
 
     return new HoldShelfClearanceRequestContext()
-      .withAwaitingPickupItemIds(allAwaitingPickupItemIds)
+      .withAwaitingPickupItemIds(awaitingPickupItemIds)
       .withAwaitingPickupRequestItemIds(awaitingPickupRequestItemIds);
   }
 
-  private CompletableFuture<Result<HoldShelfClearanceRequestContext>> findExpiredOrCancelledRequestByItemIds(CollectionResourceClient client,
-                                                                                                             HoldShelfClearanceRequestContext context) {
-    List<Result<MultipleRecords<Request>>> requestList = findRequestsSortedByClosedDate(client, context.getAwaitingPickupItemIds());
-    List<Request> firstRequestFromList = getFirstRequestFromList(requestList);
-    return CompletableFuture.completedFuture(Result.succeeded(context.withExpiredOrCancelledRequests(firstRequestFromList)));
-  }
+  /**
+   * Find the expired or cancelled requests of the items with a query per batch
+   * of item ids, and keep the most recently closed request for each item
+   */
+  private CompletableFuture<Result<HoldShelfClearanceRequestContext>> findExpiredOrCancelledRequestByItemIds(
+    MultipleRecordFetcher<Request> requestsFetcher, HoldShelfClearanceRequestContext context) {
 
-  private Predicate<Request> hasContextRequestForServicePoint(String servicePointId) {
-    return r -> r.getPickupServicePointId().equals(servicePointId);
-  }
+    final Result<CqlQuery> statusQuery = exactMatchAny(STATUS_KEY,
+      Arrays.asList(CLOSED_PICKUP_EXPIRED.getValue(), CLOSED_CANCELLED.getValue()));
+    final Result<CqlQuery> notEmptyDateQuery = greaterThan(REQUEST_CLOSED_DATE_KEY, StringUtils.EMPTY);
 
-  private Predicate<Request> hasNotContextAwaitingPickupRequestForItemId(HoldShelfClearanceRequestContext context) {
-    return req -> !context.getAwaitingPickupRequestItemIds().contains(req.getItemId());
-  }
+    final Result<CqlQuery> closedRequestsQuery = statusQuery
+      .combine(notEmptyDateQuery, CqlQuery::and);
 
-  private Result<List<Request>> findExpiredOrCancelledRequestByServicePoint(String servicePointId,
-                                                                            HoldShelfClearanceRequestContext context) {
-    List<Request> requestList = context.getExpiredOrCancelledRequests().stream()
-      .filter(hasContextRequestForServicePoint(servicePointId))
-      .filter(hasNotContextAwaitingPickupRequestForItemId(context))
-      .collect(Collectors.toList());
-    return Result.succeeded(requestList);
+    return requestsFetcher.findByIndexNameAndQuery(context.getAwaitingPickupItemIds(),
+      ITEM_ID_KEY, closedRequestsQuery)
+      .thenApply(r -> r.map(requests -> context.withExpiredOrCancelledRequests(
+        getMostRecentlyClosedRequests(context.getAwaitingPickupItemIds(), requests))));
   }
 
-  /**
-   * Find for each item ids requests sorted by awaitingPickupRequestClosedDate
-   */
-  private List<Result<MultipleRecords<Request>>> findRequestsSortedByClosedDate(CollectionResourceClient client,
-                                                                                List<String> itemIds) {
+  private List<Request> getMostRecentlyClosedRequests(List<String> itemIds,
+    MultipleRecords<Request> requests) {
+
+    final BinaryOperator<Request> mostRecentlyClosed = BinaryOperator.maxBy(
+      comparing(Request::getAwaitingPickupRequestClosedDate));
+
+    final Map<String, Request> requestsByItemId = requests.getRecords().stream()
+      .filter(request -> request.getAwaitingPickupRequestClosedDate() != null)
+      .collect(Collectors.toMap(Request::getItemId, request -> request, mostRecentlyClosed));
+
     return itemIds.stream()
+      .map(requestsByItemId::get)
       .filter(Objects::nonNull)
-      .map(itemId -> {
-        final Result<CqlQuery> itemIdQuery = CqlQuery.exactMatch(ITEM_ID_KEY, itemId);
-        final Result<CqlQuery> notEmptyDateQuery = CqlQuery.greaterThan(REQUEST_CLOSED_DATE_KEY, StringUtils.EMPTY);
-        final Result<CqlQuery> statusQuery = exactMatchAny(STATUS_KEY,
-          Arrays.asList(CLOSED_PICKUP_EXPIRED.getValue(), CLOSED_CANCELLED.getValue()));
-
-        Result<CqlQuery> cqlQueryResult = itemIdQuery
-          .combine(statusQuery, CqlQuery::and)
-          .combine(notEmptyDateQuery, CqlQuery::and)
-          .map(q -> q.sortBy(descending(REQUEST_CLOSED_DATE_KEY)));
-
-        return findRequestsByCqlQuery(client, cqlQueryResult, PAGE_REQUEST_LIMIT);
-      }).map(CompletableFuture::join)
       .collect(Collectors.toList());
   }
 
-  private List<Request> getFirstRequestFromList(List<Result<MultipleRecords<Request>>> multipleRecordsList) {
-    return multipleRecordsList.stream()
-      .map(r -> r.value().getRecords().stream().findFirst())
-      .filter(Optional::isPresent)
-      .map(Optional::get)
-      .collect(Collectors.toList());
-  }
+  private MultipleRecords<Request> findExpiredOrCancelledRequestByServicePoint(
+    String servicePointId, HoldShelfClearanceRequestContext context) {
 
-  private CompletableFuture<Result<MultipleRecords<Request>>> findRequestsByCqlQuery(CollectionResourceClient client,
-                                                                                     Result<CqlQuery> cqlQueryResult, int limit) {
-    return cqlQueryResult
-      .after(query -> client.getMany(query, limit))
-      .thenApply(result -> result.next(this::mapResponseToRequest));
-  }
+    List<Request> requestList = context.getExpiredOrCancelledRequests().stream()
+      .filter(request -> StringUtils.equals(request.getPickupServicePointId(), servicePointId))
+      .collect(Collectors.toList());
 
-  private Result<List<Result<Request>>> fetchItemToRequest(Result<List<Request>> requests,
-                                                           ItemRepository itemRepository) {
-    return requests.map(r -> r.stream()
-      .map(request -> fetchItem(itemRepository, request))
-      .map(CompletableFuture::join)
-      .collect(Collectors.toList()));
+    return new MultipleRecords<>(requestList, requestList.size());
   }
 
-  private Result<JsonObject> mapResultToJson(Result<List<Result<Request>>> requests) {
+  private Result<JsonObject> mapResultToJson(Result<MultipleRecords<Request>> requests) {
     return requests
-      .map(resultList ->
-        Result.combineAll(resultList).map(r -> r.stream()
-          .map(result -> new RequestRepresentation().extendedRepresentation(result))
-          .collect(Collector.of(JsonArray::new, JsonArray::add, JsonArray::add))))
-      .next(r -> r.next(jsonArray -> Result.succeeded(new JsonObject()
+      .map(records -> records.getRecords().stream()
+        .map(request -> new RequestRepresentation().extendedRepresentation(request))
+        .collect(Collector.of(JsonArray::new, JsonArray::add, JsonArray::addAll)))
+      .map(jsonArray -> new JsonObject()
         .put(REQUESTS_KEY, jsonArray)
-        .put(TOTAL_RECORDS_KEY, jsonArray.size()))));
-  }
-
-  private CompletableFuture<Result<Request>> fetchItem(ItemRepository itemRepository, Request request) {
-    return CompletableFuture.completedFuture(Result.succeeded(request))
-      .thenComposeAsync(result -> result.combineAfter(itemRepository::fetchFor, Request::withItem));
-  }
-
-  private Result<MultipleRecords<Request>> mapResponseToRequest(Response response) {
-    return MultipleRecords.from(response, Request::from, REQUESTS_KEY);
+        .put(TOTAL_RECORDS_KEY, jsonArray.size()));
   }
 }
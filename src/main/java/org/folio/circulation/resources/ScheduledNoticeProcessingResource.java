@@ -1,13 +1,23 @@
 package org.folio.circulation.resources;
 
+import static java.util.concurrent.CompletableFuture.completedFuture;
 import static org.folio.circulation.support.Result.failed;
+import static org.folio.circulation.support.Result.succeeded;
+import static org.folio.circulation.support.ResultBinding.mapResult;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 
 import org.folio.circulation.domain.ConfigurationRepository;
 import org.folio.circulation.domain.MultipleRecords;
+import org.folio.circulation.domain.notice.schedule.NearTermNoticeScheduler;
 import org.folio.circulation.domain.notice.schedule.ScheduledNotice;
+import org.folio.circulation.domain.notice.schedule.ScheduledNoticeCursor;
 import org.folio.circulation.domain.notice.schedule.ScheduledNoticesRepository;
+import org.folio.circulation.domain.notice.schedule.TriggeringEvent;
 import org.folio.circulation.support.Clients;
 import org.folio.circulation.support.NoContentResult;
 import org.folio.circulation.support.ResponseWritableResult;
@@ -16,10 +26,12 @@ import org.folio.circulation.support.RouteRegistration;
 import org.folio.circulation.support.http.server.WebContext;
 
 import io.vertx.core.http.HttpClient;
+import io.vertx.core.json.JsonObject;
 import io.vertx.ext.web.Router;
 import io.vertx.ext.web.RoutingContext;
 
 public abstract class ScheduledNoticeProcessingResource extends Resource {
+  private static volatile long drainingTimeBudgetMilliseconds = 0;
 
   private String rootPath;
 
@@ -28,6 +40,16 @@ public abstract class ScheduledNoticeProcessingResource extends Resource {
     this.rootPath = rootPath;
   }
 
+  /**
+   * Set for how long each run keeps processing further pages of due notices,
+   * when the first page is full. Only a single page is processed when the
+   * time budget is zero, which is the default
+   */
+  public static void setOptions(JsonObject options) {
+    drainingTimeBudgetMilliseconds = Math.max(0,
+      options.getLong("drainingTimeBudgetMilliseconds", 0L));
+  }
+
   @Override
   public void register(Router router) {
     RouteRegistration routeRegistration = new RouteRegistration(rootPath, router);
@@ -45,15 +67,104 @@ public abstract class ScheduledNoticeProcessingResource extends Resource {
     final ConfigurationRepository configurationRepository =
       new ConfigurationRepository(clients);
 
+    final long deadline = System.currentTimeMillis() + drainingTimeBudgetMilliseconds;
+
     configurationRepository.lookupSchedulerNoticesProcessingLimit()
-      .thenCompose(r -> r.after(limit -> findNoticesToSend(scheduledNoticesRepository, limit)))
-      .thenCompose(r -> r.after(notices -> handleNotices(clients, notices)))
+      .thenCompose(r -> r.after(limit -> processNotices(clients,
+        scheduledNoticesRepository, limit, ScheduledNoticeCursor.start(), deadline)
+        .thenCompose(processed -> processed.after(v ->
+          lookAhead(context, scheduledNoticesRepository, limit)))))
       .thenApply(this::createWritableResult)
       .thenAccept(result -> result.writeTo(routingContext.response()));
   }
 
+  /**
+   * Process a page of due notices, and then the following pages until there
+   * are no more due notices or the deadline has passed, when draining is
+   * allowed. Notices that could not be processed stay due, so they are
+   * passed over using the cursor rather than fetched again by the same run
+   */
+  private CompletableFuture<Result<Void>> processNotices(Clients clients,
+    ScheduledNoticesRepository scheduledNoticesRepository, int limit,
+    ScheduledNoticeCursor cursor, long deadline) {
+
+    return findNoticesToSend(scheduledNoticesRepository, cursor, limit)
+      .thenCompose(r -> r.after(notices -> handleNotices(clients,
+        excludeNearTermNotices(clients, notices))
+        .thenApply(mapResult(handled -> notices))))
+      .thenCompose(r -> r.after(notices -> {
+        final List<ScheduledNotice> page = new ArrayList<>(notices.getRecords());
+
+        if (!canDrain() || page.isEmpty() || page.size() < limit
+          || System.currentTimeMillis() >= deadline) {
+
+          return completedFuture(succeeded(null));
+        }
+
+        return processNotices(clients, scheduledNoticesRepository, limit,
+          cursor.after(page), deadline);
+      }));
+  }
+
+  /**
+   * Notices scheduled in memory are fired by the near term scheduler when
+   * they are due, so are not processed by a run as well
+   */
+  private MultipleRecords<ScheduledNotice> excludeNearTermNotices(
+    Clients clients, MultipleRecords<ScheduledNotice> notices) {
+
+    if (!usesNearTermScheduler()) {
+      return notices;
+    }
+
+    final NearTermNoticeScheduler scheduler = NearTermNoticeScheduler.forTenant(
+      clients.getTenantId());
+
+    return new MultipleRecords<>(notices.getRecords().stream()
+      .filter(notice -> !scheduler.isScheduled(notice))
+      .collect(Collectors.toList()), notices.getTotalRecords());
+  }
+
+  /**
+   * Notices are fired after this run has been responded to, so the scheduler
+   * is given clients of its own which do not respond to it
+   */
+  private CompletableFuture<Result<Void>> lookAhead(WebContext context,
+    ScheduledNoticesRepository scheduledNoticesRepository, int limit) {
+
+    if (!usesNearTermScheduler()) {
+      return completedFuture(succeeded(null));
+    }
+
+    return NearTermNoticeScheduler.forTenant(context.getTenantId())
+      .lookAhead(Clients.createDetached(context, client),
+        scheduledNoticesRepository, getNearTermTriggeringEvents(), limit);
+  }
+
+  private boolean usesNearTermScheduler() {
+    return NearTermNoticeScheduler.isEnabled()
+      && !getNearTermTriggeringEvents().isEmpty();
+  }
+
+  /**
+   * Triggering events of the notices that are scheduled in memory when they
+   * become due soon, none by default
+   */
+  protected List<TriggeringEvent> getNearTermTriggeringEvents() {
+    return Collections.emptyList();
+  }
+
+  /**
+   * Whether further pages of notices are processed in the same run, which
+   * requires the notices to be found in order of next run time and id
+   */
+  protected boolean canDrain() {
+    return false;
+  }
+
   protected abstract CompletableFuture<Result<MultipleRecords<ScheduledNotice>>> findNoticesToSend(
-    ScheduledNoticesRepository scheduledNoticesRepository, int limit);
+    ScheduledNoticesRepository scheduledNoticesRepository, ScheduledNoticeCursor cursor,
+    int limit);
 
   protected abstract CompletableFuture<Result<MultipleRecords<ScheduledNotice>>> handleNotices(
     Clients clients, MultipleRecords<ScheduledNotice> noticesResult);
@@ -0,0 +1,188 @@
+package org.folio.circulation.rules;
+
+import static org.folio.circulation.resources.AbstractCirculationRulesEngineResource.ITEM_TYPE_ID_NAME;
+import static org.folio.circulation.resources.AbstractCirculationRulesEngineResource.LOAN_TYPE_ID_NAME;
+import static org.folio.circulation.resources.AbstractCirculationRulesEngineResource.LOCATION_ID_NAME;
+import static org.folio.circulation.resources.AbstractCirculationRulesEngineResource.PATRON_TYPE_ID_NAME;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.folio.circulation.domain.Location;
+
+import io.vertx.core.MultiMap;
+
+/**
+ * One line of the circulation rules that has policies, together with the
+ * criteria inherited from the lines it is nested in. This is the parsed form
+ * of a single Drools rule as generated by {@link Text2Drools}.
+ */
+class CirculationRule {
+  private static final String CRITERIUM_LETTERS = "tabcsmg";
+
+  private final int line;
+  private final int salience;
+  private final Criterium[] criteria;
+  private final String loanPolicyId;
+  private final String requestPolicyId;
+  private final String noticePolicyId;
+  private final String overduePolicyId;
+  private final String lostItemPolicyId;
+
+  /**
+   * @param line  line number of the policies in the circulation rules
+   * @param salience  the Drools salience, rules with higher salience match first
+   * @param criteria  all criteria that must match, including the inherited ones
+   * @param policies  policy name by policy type letter (l, r, n, o, i)
+   */
+  CirculationRule(int line, int salience, List<Criterium> criteria,
+    Map<String, String> policies) {
+
+    this.line = line;
+    this.salience = salience;
+    this.criteria = criteria.toArray(new Criterium[0]);
+    this.loanPolicyId = policies.get("l");
+    this.requestPolicyId = policies.get("r");
+    this.noticePolicyId = policies.get("n");
+    this.overduePolicyId = policies.get("o");
+    this.lostItemPolicyId = policies.get("i");
+  }
+
+  int getLine() {
+    return line;
+  }
+
+  int getSalience() {
+    return salience;
+  }
+
+  String getLoanPolicyId() {
+    return loanPolicyId;
+  }
+
+  String getRequestPolicyId() {
+    return requestPolicyId;
+  }
+
+  String getNoticePolicyId() {
+    return noticePolicyId;
+  }
+
+  String getOverduePolicyId() {
+    return overduePolicyId;
+  }
+
+  String getLostItemPolicyId() {
+    return lostItemPolicyId;
+  }
+
+  /**
+   * @param letter  criterium type letter
+   * @return the criteria of that type
+   */
+  List<Criterium> getCriteria(String letter) {
+    int letterIndex = index(letter);
+    List<Criterium> list = new ArrayList<>(criteria.length);
+    for (Criterium criterium : criteria) {
+      if (criterium.index == letterIndex) {
+        list.add(criterium);
+      }
+    }
+    return list;
+  }
+
+  /**
+   * @param facts  the facts to match, see {@link Facts}
+   * @return whether all criteria match the facts
+   */
+  boolean matches(Facts facts) {
+    for (Criterium criterium : criteria) {
+      if (! criterium.matches(facts.get(criterium.index))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * A single criterium like "m book dvd" or "g !visitor" or "t all".
+   */
+  static class Criterium {
+    private final int index;
+    private final boolean negated;
+    /** null for "all" */
+    private final Set<String> names;
+
+    /**
+     * @param letter  one of t, a, b, c, s, m, g
+     * @param negated  whether the names are preceded by '!'
+     * @param names  the names, null for "all"
+     */
+    Criterium(String letter, boolean negated, Collection<String> names) {
+      this.index = index(letter);
+      this.negated = negated;
+      this.names = names == null ? null : Collections.unmodifiableSet(new HashSet<>(names));
+    }
+
+    Set<String> getNames() {
+      return names;
+    }
+
+    /**
+     * Same semantics as the generated Drools condition: a missing (null) id
+     * never equals a name, "all" matches anything.
+     * @param id  the id of the fact
+     * @return whether the id matches this criterium
+     */
+    boolean matches(String id) {
+      if (names == null) {
+        return true;
+      }
+      boolean contained = id != null && names.contains(id);
+      return negated != contained;
+    }
+  }
+
+  /**
+   * The ids of the seven criterium types of a single rules evaluation.
+   */
+  static class Facts {
+    private final String[] ids = new String[CRITERIUM_LETTERS.length()];
+
+    Facts(MultiMap params, Location location) {
+      ids[index("t")] = params.get(LOAN_TYPE_ID_NAME);
+      ids[index("a")] = location.getInstitutionId();
+      ids[index("b")] = location.getCampusId();
+      ids[index("c")] = location.getLibraryId();
+      ids[index("s")] = params.get(LOCATION_ID_NAME);
+      ids[index("m")] = params.get(ITEM_TYPE_ID_NAME);
+      ids[index("g")] = params.get(PATRON_TYPE_ID_NAME);
+    }
+
+    String getItemTypeId() {
+      return ids[index("m")];
+    }
+
+    String get(int criteriumIndex) {
+      return ids[criteriumIndex];
+    }
+  }
+
+  /**
+   * @param letter  one of t, a, b, c, s, m, g
+   * @return position of the letter in {@link #CRITERIUM_LETTERS}
+   */
+  static int index(String letter) {
+    int i = CRITERIUM_LETTERS.indexOf(letter);
+    if (letter.length() != 1 || i < 0) {
+      throw new IllegalArgumentException(
+        "Expected criterium type t, a, b, c, s, m or g but found: " + letter);
+    }
+    return i;
+  }
+}
@@ -0,0 +1,586 @@
+package org.folio.circulation.rules;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.folio.circulation.support.Result.failed;
+import static org.folio.circulation.support.Result.succeeded;
+import static org.folio.circulation.support.results.CommonFailures.failedDueToServerError;
+
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.folio.circulation.domain.Location;
+import org.folio.circulation.support.CollectionResourceClient;
+import org.folio.circulation.support.FetchSingleRecord;
+import org.folio.circulation.support.ForwardOnFailure;
+import org.folio.circulation.support.MultipleRecordFetcher;
+import org.folio.circulation.support.Result;
+import org.folio.circulation.support.ServerErrorFailure;
+import org.folio.circulation.support.http.client.Response;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Applies the tenant's circulation rules within this module, without
+ * a request via Okapi to the circulation rules engine resources.
+ * The compiled rules are cached per tenant and shared with those resources.
+ * <p>
+ * The cache can be used by several threads: each entry is an immutable
+ * snapshot, and there is at most one reload per tenant at a time.
+ */
+public class CirculationRulesProcessor {
+  private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  /** after this time the rules get loaded before executing the circulation rules engine */
+  private static volatile long maxAgeInMilliseconds = 5000;
+  /** after this time the circulation rules engine is executed first for a fast reply
+   * and then the circulation rules get reloaded */
+  private static volatile long triggerAgeInMilliseconds = 4000;
+
+  /** rules engine type that builds a {@link Drools} KieSession for each evaluation */
+  public static final String DROOLS = "drools";
+  /** rules engine type that evaluates a compiled {@link DecisionTable} */
+  public static final String DECISION_TABLE = "decision-table";
+
+  /** maximum number of policy decisions cached for each tenant */
+  private static final int DECISION_CACHE_SIZE = 10000;
+
+  /** rules engine type for each tenantId, the "default" entry for all other tenants */
+  private static volatile JsonObject rulesEngineTypes = new JsonObject();
+
+  private static class Rules {
+    final String rulesAsText;
+    final RulesEngine rulesEngine;
+    /** decisions of rulesEngine, a new rulesAsText gets a new cache */
+    final PolicyDecisionCache decisions;
+    /** System.currentTimeMillis() of the last load/reload of the rules from the storage */
+    final long reloadTimestamp;
+
+    Rules(String rulesAsText, RulesEngine rulesEngine,
+      PolicyDecisionCache decisions, long reloadTimestamp) {
+
+      this.rulesAsText = rulesAsText;
+      this.rulesEngine = rulesEngine;
+      this.decisions = decisions;
+      this.reloadTimestamp = reloadTimestamp;
+    }
+
+    Rules expired() {
+      return new Rules(rulesAsText, rulesEngine, decisions, 0);
+    }
+
+    PolicyDecision decide(RulesExecutionParameters parameters, Location location) {
+      PolicyDecision decision = rulesEngine.decide(parameters.toParams(), location);
+      decisions.put(parameters, decision);
+      return decision;
+    }
+  }
+
+  /** rules and rules engine for each tenantId */
+  private static final ConcurrentMap<String, Rules> rulesMap = new ConcurrentHashMap<>();
+
+  /** the reload in progress for each tenantId */
+  private static final ConcurrentMap<String, CompletableFuture<Result<Rules>>>
+    reloads = new ConcurrentHashMap<>();
+
+  /** the last save of rules for each tenantId, later saves wait for it */
+  private static final ConcurrentMap<String, CompletableFuture<Void>>
+    saves = new ConcurrentHashMap<>();
+
+  /** number and duration of the compilations of circulation rules */
+  private static final AtomicLong compilations = new AtomicLong();
+  private static final AtomicLong compilationMilliseconds = new AtomicLong();
+  private static final AtomicLong lastCompilationMilliseconds = new AtomicLong();
+
+  private final String tenantId;
+  private final CollectionResourceClient circulationRulesStorage;
+  private final CollectionResourceClient locationsStorage;
+
+  public CirculationRulesProcessor(String tenantId,
+    CollectionResourceClient circulationRulesStorage,
+    CollectionResourceClient locationsStorage) {
+
+    this.tenantId = tenantId;
+    this.circulationRulesStorage = circulationRulesStorage;
+    this.locationsStorage = locationsStorage;
+  }
+
+  /**
+   * Set the cache time.
+   * @param triggerAgeInMilliseconds  after this time the circulation rules engine is executed first for a fast reply
+   *                                  and then the circulation rules get reloaded
+   * @param maxAgeInMilliseconds  after this time the rules get loaded before executing the circulation rules engine
+   */
+  public static void setCacheTime(long triggerAgeInMilliseconds, long maxAgeInMilliseconds) {
+    CirculationRulesProcessor.triggerAgeInMilliseconds = triggerAgeInMilliseconds;
+    CirculationRulesProcessor.maxAgeInMilliseconds = maxAgeInMilliseconds;
+  }
+
+  /**
+   * Set the rules engine type, {@link #DROOLS} or {@link #DECISION_TABLE}.
+   * @param rulesEngineTypes  type for each tenantId, the "default" entry is used for all other tenants
+   */
+  public static void setRulesEngineTypes(JsonObject rulesEngineTypes) {
+    for (String tenantId : rulesEngineTypes.fieldNames()) {
+      String type = rulesEngineTypes.getString(tenantId);
+      if (! DROOLS.equals(type) && ! DECISION_TABLE.equals(type)) {
+        throw new IllegalArgumentException("Unknown rules engine type for "
+          + tenantId + ": " + type);
+      }
+    }
+    CirculationRulesProcessor.rulesEngineTypes = rulesEngineTypes.copy();
+    dropCache();
+  }
+
+  /**
+   * Build the rules engine of the tenant's rules engine type.
+   * @param tenantId  id of the tenant
+   * @param rulesAsText  circulation rules in FOLIO syntax
+   * @return the rules engine
+   * @throws CirculationRulesException  on a syntax error in the circulation rules
+   */
+  public static RulesEngine createRulesEngine(String tenantId, String rulesAsText) {
+    String type = rulesEngineTypes.getString(tenantId,
+      rulesEngineTypes.getString("default", DROOLS));
+
+    if (DECISION_TABLE.equals(type)) {
+      return DecisionTable.compile(rulesAsText);
+    }
+
+    String rulesAsDrools = Text2Drools.convert(rulesAsText);
+    log.debug("rulesAsDrools = {}", rulesAsDrools);
+    return new Drools(rulesAsDrools);
+  }
+
+  /**
+   * Completely drop the cache. This enforces rebuilding the rules engine
+   * even when the circulation rules haven't changed.
+   */
+  public static void dropCache() {
+    rulesMap.clear();
+  }
+
+  /**
+   * Enforce reload of the tenant's circulation rules.
+   * This doesn't rebuild the rules engine if the circulation rules haven't changed.
+   * @param tenantId  id of the tenant
+   */
+  public static void clearCache(String tenantId) {
+    rulesMap.computeIfPresent(tenantId, (id, rules) -> rules.expired());
+  }
+
+  /**
+   * Statistics of the policy decision cache of the tenant's current rules.
+   * @param tenantId  id of the tenant
+   * @return size, hits and misses, empty if the rules are not loaded
+   */
+  public static JsonObject getDecisionCacheStatistics(String tenantId) {
+    Rules rules = rulesMap.get(tenantId);
+    if (rules == null) {
+      return new JsonObject();
+    }
+    return new JsonObject()
+      .put("size", rules.decisions.size())
+      .put("hits", rules.decisions.getHits())
+      .put("misses", rules.decisions.getMisses());
+  }
+
+  /**
+   * Statistics of the compilations of circulation rules of all tenants.
+   * @return count, total and last duration in milliseconds
+   */
+  public static JsonObject getCompilationStatistics() {
+    return new JsonObject()
+      .put("count", compilations.get())
+      .put("totalMilliseconds", compilationMilliseconds.get())
+      .put("lastMilliseconds", lastCompilationMilliseconds.get());
+  }
+
+  public CompletableFuture<Result<String>> getLoanPolicyId(
+    RulesExecutionParameters parameters) {
+
+    return applyRules(parameters, PolicyDecision::getLoanPolicyId);
+  }
+
+  public CompletableFuture<Result<String>> getRequestPolicyId(
+    RulesExecutionParameters parameters) {
+
+    return applyRules(parameters, PolicyDecision::getRequestPolicyId);
+  }
+
+  public CompletableFuture<Result<String>> getNoticePolicyId(
+    RulesExecutionParameters parameters) {
+
+    return applyRules(parameters, PolicyDecision::getNoticePolicyId);
+  }
+
+  public CompletableFuture<Result<String>> getOverduePolicyId(
+    RulesExecutionParameters parameters) {
+
+    return applyRules(parameters, PolicyDecision::getOverduePolicyId);
+  }
+
+  public CompletableFuture<Result<String>> getLostItemPolicyId(
+    RulesExecutionParameters parameters) {
+
+    return applyRules(parameters, PolicyDecision::getLostItemPolicyId);
+  }
+
+  /**
+   * Apply the rules once for all policy types.
+   * @param parameters  the criteria
+   * @return the policies of the first matching rule
+   */
+  public CompletableFuture<Result<PolicyDecision>> getPolicyDecision(
+    RulesExecutionParameters parameters) {
+
+    return getRules()
+      .thenCompose(r -> r.after(rules -> decide(rules, parameters)));
+  }
+
+  /**
+   * Apply the rules for many criteria. The rules are loaded once and the
+   * locations not yet known are fetched with as few requests as possible.
+   * @param parametersList  the criteria
+   * @return the decisions in the same order as parametersList
+   */
+  public CompletableFuture<Result<List<PolicyDecision>>> getPolicyDecisions(
+    List<RulesExecutionParameters> parametersList) {
+
+    if (parametersList.isEmpty()) {
+      return completedFuture(succeeded(new ArrayList<>()));
+    }
+
+    return getRules()
+      .thenCompose(r -> r.after(rules -> decideAll(rules, parametersList)));
+  }
+
+  private CompletableFuture<Result<List<PolicyDecision>>> decideAll(Rules rules,
+    List<RulesExecutionParameters> parametersList) {
+
+    final List<PolicyDecision> decisions = new ArrayList<>(parametersList.size());
+    final List<Integer> undecided = new ArrayList<>();
+
+    for (RulesExecutionParameters parameters : parametersList) {
+      PolicyDecision decision = rules.decisions.get(parameters);
+      if (decision == null) {
+        undecided.add(decisions.size());
+      }
+      decisions.add(decision);
+    }
+
+    if (undecided.isEmpty()) {
+      return completedFuture(succeeded(decisions));
+    }
+
+    final Set<String> locationIds = undecided.stream()
+      .map(parametersList::get)
+      .filter(parameters -> !parameters.hasLocation())
+      .map(RulesExecutionParameters::getLocationId)
+      .collect(Collectors.toSet());
+
+    log.info("Applying circulation rules for {} of {} criteria",
+      undecided.size(), parametersList.size());
+
+    return getLocations(locationIds)
+      .thenApply(r -> r.next(locations -> decideAll(rules, parametersList,
+        decisions, undecided, locations)));
+  }
+
+  private Result<List<PolicyDecision>> decideAll(Rules rules,
+    List<RulesExecutionParameters> parametersList, List<PolicyDecision> decisions,
+    List<Integer> undecided, Map<String, Location> locations) {
+
+    for (Integer index : undecided) {
+      RulesExecutionParameters parameters = parametersList.get(index);
+      Location location = parameters.hasLocation()
+        ? parameters.getLocation()
+        : locations.get(parameters.getLocationId());
+
+      if (location == null) {
+        return failed(new ServerErrorFailure("Can`t find location"));
+      }
+      decisions.set(index, rules.decide(parameters, location));
+    }
+    return succeeded(decisions);
+  }
+
+  private CompletableFuture<Result<Map<String, Location>>> getLocations(
+    Set<String> locationIds) {
+
+    return new MultipleRecordFetcher<>(locationsStorage, "locations", Location::from)
+      .findByIds(locationIds)
+      .thenApply(r -> r.map(locations -> locations.toMap(Location::getId)));
+  }
+
+  private CompletableFuture<Result<String>> applyRules(
+    RulesExecutionParameters parameters,
+    Function<PolicyDecision, String> policySelector) {
+
+    return getRules()
+      .thenCompose(r -> r.after(rules -> decide(rules, parameters)))
+      .thenApply(r -> r.map(policySelector));
+  }
+
+  private CompletableFuture<Result<PolicyDecision>> decide(Rules rules,
+    RulesExecutionParameters parameters) {
+
+    PolicyDecision decision = rules.decisions.get(parameters);
+    if (decision != null) {
+      return completedFuture(succeeded(decision));
+    }
+
+    log.info("Applying circulation rules for {}", parameters);
+
+    return getLocation(parameters)
+      .thenApply(r -> r.map(location -> rules.decide(parameters, location)));
+  }
+
+  private CompletableFuture<Result<Location>> getLocation(
+    RulesExecutionParameters parameters) {
+
+    if (parameters.hasLocation()) {
+      return completedFuture(succeeded(parameters.getLocation()));
+    }
+
+    return FetchSingleRecord.<Location>forRecord("location")
+      .using(locationsStorage)
+      .mapTo(Location::from)
+      .whenNotFound(failed(new ServerErrorFailure("Can`t find location")))
+      .fetch(parameters.getLocationId());
+  }
+
+  /**
+   * Return the rules engine for the tenant, loading the circulation rules
+   * from storage when they are missing or out of date.
+   * @return the rules engine, or the failure to load the rules
+   */
+  public CompletableFuture<Result<RulesEngine>> getRulesEngine() {
+    return getRules().thenApply(r -> r.map(rules -> rules.rulesEngine));
+  }
+
+  private CompletableFuture<Result<Rules>> getRules() {
+    Rules rules = rulesMap.get(tenantId);
+
+    if (isCurrent(rules)) {
+      if (reloadNeeded(rules)) {
+        reloadRules();
+      }
+      return completedFuture(succeeded(rules));
+    }
+
+    return reloadRules();
+  }
+
+  private static boolean isCurrent(Rules rules) {
+    if (rules == null) {
+      return false;
+    }
+    return rules.reloadTimestamp + maxAgeInMilliseconds > System.currentTimeMillis();
+  }
+
+  /**
+   * Reload is needed if the last reload is triggerAgeInMilliseconds old.
+   * @param rules - rules to check
+   * @return whether reload is needed
+   */
+  private static boolean reloadNeeded(Rules rules) {
+    return rules.reloadTimestamp + triggerAgeInMilliseconds < System.currentTimeMillis();
+  }
+
+  /**
+   * Load the circulation rules from the storage module, or join the reload
+   * of the tenant that is already in progress.
+   * @return the rules built from the loaded rules
+   */
+  private CompletableFuture<Result<Rules>> reloadRules() {
+    CompletableFuture<Result<Rules>> reload = new CompletableFuture<>();
+    CompletableFuture<Result<Rules>> reloadInProgress = reloads.putIfAbsent(tenantId, reload);
+    if (reloadInProgress != null) {
+      return reloadInProgress;
+    }
+
+    circulationRulesStorage.get()
+      .thenCompose(this::loadRules)
+      .whenComplete((result, throwable) -> {
+        reloads.remove(tenantId, reload);
+        if (throwable != null) {
+          reload.completeExceptionally(throwable);
+        } else {
+          reload.complete(result);
+        }
+      });
+
+    return reload;
+  }
+
+  /**
+   * Use the rules from the storage module. Changed rules are compiled on a
+   * worker thread, until then the previous rules remain in the cache and
+   * are used by all callers that don't need to wait for this reload.
+   * @param response  response of the storage module
+   * @return the rules, unchanged or newly compiled
+   */
+  private CompletableFuture<Result<Rules>> loadRules(Response response) {
+    if (response.getStatusCode() != 200) {
+      log.error("{} {}", response.getStatusCode(), response.getBody());
+      return completedFuture(failed(new ForwardOnFailure(response)));
+    }
+
+    final Result<String> rulesAsTextResult = Result.of(() -> {
+      JsonObject circulationRules = new JsonObject(response.getBody());
+      if (log.isDebugEnabled()) {
+        log.debug("circulationRules = {}", circulationRules.encodePrettily());
+      }
+      String rulesAsText = circulationRules.getString("rulesAsText");
+      if (rulesAsText == null) {
+        throw new NullPointerException("rulesAsText");
+      }
+      return rulesAsText;
+    });
+
+    return rulesAsTextResult.after(this::useRules);
+  }
+
+  private CompletableFuture<Result<Rules>> useRules(String rulesAsText) {
+    Rules previous = rulesMap.get(tenantId);
+    if (previous != null && previous.rulesAsText.equals(rulesAsText)) {
+      return completedFuture(succeeded(install(tenantId, previous,
+        new Rules(rulesAsText, previous.rulesEngine, previous.decisions,
+          System.currentTimeMillis()))));
+    }
+
+    return compile(tenantId, rulesAsText)
+      .thenApply(r -> r.map(rulesEngine -> install(tenantId, previous,
+        newRules(rulesAsText, rulesEngine))));
+  }
+
+  /**
+   * Compile rules that have been saved in the storage module and replace
+   * the tenant's cached rules with them once they are compiled.
+   * <p>
+   * Saves of a tenant are compiled one after another, in the order they
+   * were made, so rules saved earlier cannot replace rules saved later.
+   * @param tenantId  id of the tenant
+   * @param rulesAsText  the saved circulation rules
+   * @return the compiled rules engine, or the failure to compile
+   */
+  public static CompletableFuture<Result<RulesEngine>> rulesSaved(String tenantId,
+    String rulesAsText) {
+
+    final CompletableFuture<Result<RulesEngine>> saved = new CompletableFuture<>();
+    final CompletableFuture<Void> finished = saved.handle((result, throwable) -> null);
+    final CompletableFuture<Void> preceding = saves.put(tenantId, finished);
+
+    (preceding == null ? completedFuture((Void) null) : preceding)
+      .thenCompose(notUsed -> {
+        final Rules previous = rulesMap.get(tenantId);
+
+        return compile(tenantId, rulesAsText)
+          .thenApply(r -> r.map(rulesEngine -> {
+            install(tenantId, previous, newRules(rulesAsText, rulesEngine));
+            return rulesEngine;
+          }));
+      })
+      .whenComplete((result, throwable) -> {
+        saves.remove(tenantId, finished);
+        if (throwable != null) {
+          saved.completeExceptionally(throwable);
+        } else {
+          saved.complete(result);
+        }
+      });
+
+    return saved;
+  }
+
+  private static Rules newRules(String rulesAsText, RulesEngine rulesEngine) {
+    return new Rules(rulesAsText, rulesEngine,
+      new PolicyDecisionCache(DECISION_CACHE_SIZE), System.currentTimeMillis());
+  }
+
+  /**
+   * Replace the cached rules, unless they have been replaced by other rules
+   * since previous was read, for example by rules saved in the meantime.
+   * @param tenantId  id of the tenant
+   * @param previous  the cached rules when loading started, may be null
+   * @param rules  the rules to cache
+   * @return the rules in the cache after the replacement
+   */
+  private static Rules install(String tenantId, Rules previous, Rules rules) {
+    final boolean installed = previous == null
+      ? rulesMap.putIfAbsent(tenantId, rules) == null
+      : rulesMap.replace(tenantId, previous, rules);
+
+    if (installed) {
+      if (previous != null && previous.decisions != rules.decisions) {
+        log.info("Circulation rules changed, dropping {} policy decisions, hits: {}, misses: {}",
+          previous.decisions.size(), previous.decisions.getHits(),
+          previous.decisions.getMisses());
+      }
+      return rules;
+    }
+
+    Rules current = rulesMap.get(tenantId);
+    return current == null ? rules : current;
+  }
+
+  /**
+   * Compile the rules on a worker thread of the current Vert.x context so that
+   * the event loop isn't blocked, or in the calling thread outside of Vert.x.
+   * @param tenantId  id of the tenant
+   * @param rulesAsText  circulation rules in FOLIO syntax
+   * @return the rules engine, or the failure to compile the rules
+   */
+  private static CompletableFuture<Result<RulesEngine>> compile(String tenantId,
+    String rulesAsText) {
+
+    CompletableFuture<Result<RulesEngine>> compiled = new CompletableFuture<>();
+
+    Context context = Vertx.currentContext();
+    if (context == null) {
+      compiled.complete(compileNow(tenantId, rulesAsText));
+      return compiled;
+    }
+
+    context.<Result<RulesEngine>>executeBlocking(
+      future -> future.complete(compileNow(tenantId, rulesAsText)),
+      false,
+      result -> {
+        if (result.failed()) {
+          compiled.complete(failedDueToServerError(result.cause()));
+        } else {
+          compiled.complete(result.result());
+        }
+      });
+
+    return compiled;
+  }
+
+  private static Result<RulesEngine> compileNow(String tenantId, String rulesAsText) {
+    return Result.of(() -> {
+      long start = System.currentTimeMillis();
+      RulesEngine rulesEngine = createRulesEngine(tenantId, rulesAsText);
+      long duration = System.currentTimeMillis() - start;
+
+      compilations.incrementAndGet();
+      compilationMilliseconds.addAndGet(duration);
+      lastCompilationMilliseconds.set(duration);
+      log.info("Compiled circulation rules of tenant {} in {} ms", tenantId, duration);
+
+      return rulesEngine;
+    });
+  }
+}
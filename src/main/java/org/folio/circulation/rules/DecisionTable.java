@@ -0,0 +1,185 @@
+package org.folio.circulation.rules;
+
+import static org.folio.circulation.support.JsonPropertyWriter.write;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.folio.circulation.domain.Location;
+import org.folio.circulation.rules.CirculationRule.Criterium;
+import org.folio.circulation.rules.CirculationRule.Facts;
+
+import io.vertx.core.MultiMap;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Circulation rules compiled into an immutable decision table, an alternative
+ * to {@link Drools} that doesn't need a KieSession for each evaluation.
+ * <p>
+ * The rules are sorted by the salience that {@link Text2Drools} calculates so
+ * that the first matching rule is the one Drools fires first. The rules are
+ * indexed by item type: for each item type id named in the rules the table
+ * holds only the rules whose item type criteria can match that id.
+ */
+public class DecisionTable implements RulesEngine {
+  private static final String ITEM_TYPE = "m";
+
+  private final Map<String, CirculationRule[]> rulesByItemType = new HashMap<>();
+  /** rules for item types not named in any item type criterium */
+  private final CirculationRule[] rulesForOtherItemTypes;
+
+  DecisionTable(List<CirculationRule> rules) {
+    List<CirculationRule> sorted = new ArrayList<>(rules);
+    sorted.sort(Comparator.comparingInt(CirculationRule::getSalience).reversed()
+      .thenComparingInt(CirculationRule::getLine));
+
+    Set<String> itemTypeIds = new HashSet<>();
+    for (CirculationRule rule : sorted) {
+      for (Criterium criterium : rule.getCriteria(ITEM_TYPE)) {
+        if (criterium.getNames() != null) {
+          itemTypeIds.addAll(criterium.getNames());
+        }
+      }
+    }
+
+    for (String itemTypeId : itemTypeIds) {
+      rulesByItemType.put(itemTypeId, rulesForItemType(sorted, itemTypeId));
+    }
+    rulesForOtherItemTypes = rulesForItemType(sorted, null);
+  }
+
+  /**
+   * Compile the circulation rules into a decision table.
+   * @param rulesAsText  circulation rules in FOLIO syntax
+   * @return the decision table
+   * @throws CirculationRulesException  on a syntax error in the circulation rules
+   */
+  public static DecisionTable compile(String rulesAsText) {
+    return new DecisionTable(Text2Drools.convertToRules(rulesAsText));
+  }
+
+  /**
+   * @param rules  sorted rules
+   * @param itemTypeId  item type id, null for any id not named in the rules
+   * @return the rules whose item type criteria match the item type id
+   */
+  private static CirculationRule[] rulesForItemType(
+    List<CirculationRule> rules, String itemTypeId) {
+
+    return rules.stream()
+      .filter(rule -> rule.getCriteria(ITEM_TYPE).stream()
+        .allMatch(criterium -> criterium.matches(itemTypeId)))
+      .toArray(CirculationRule[]::new);
+  }
+
+  private CirculationRule[] candidates(Facts facts) {
+    CirculationRule[] candidates = rulesByItemType.get(facts.getItemTypeId());
+    return candidates == null ? rulesForOtherItemTypes : candidates;
+  }
+
+  private CirculationRule firstMatch(MultiMap params, Location location) {
+    Facts facts = new Facts(params, location);
+
+    for (CirculationRule rule : candidates(facts)) {
+      if (rule.matches(facts)) {
+        return rule;
+      }
+    }
+    return null;
+  }
+
+  private String firstMatch(MultiMap params, Location location,
+    Function<CirculationRule, String> policyId) {
+
+    CirculationRule rule = firstMatch(params, location);
+    return rule == null ? null : policyId.apply(rule);
+  }
+
+  private JsonArray allMatches(MultiMap params, Location location,
+    String policyIdName, Function<CirculationRule, String> policyId) {
+
+    Facts facts = new Facts(params, location);
+
+    JsonArray array = new JsonArray();
+
+    for (CirculationRule rule : candidates(facts)) {
+      if (rule.matches(facts)) {
+        JsonObject json = new JsonObject();
+
+        write(json, policyIdName, policyId.apply(rule));
+        write(json, "circulationRuleLine", rule.getLine());
+
+        array.add(json);
+      }
+    }
+    return array;
+  }
+
+  @Override
+  public PolicyDecision decide(MultiMap params, Location location) {
+    CirculationRule rule = firstMatch(params, location);
+    if (rule == null) {
+      return new PolicyDecision(null, null, null, null, null, 0);
+    }
+    return new PolicyDecision(rule.getLoanPolicyId(), rule.getRequestPolicyId(),
+      rule.getNoticePolicyId(), rule.getOverduePolicyId(),
+      rule.getLostItemPolicyId(), rule.getLine());
+  }
+
+  @Override
+  public String loanPolicy(MultiMap params, Location location) {
+    return firstMatch(params, location, CirculationRule::getLoanPolicyId);
+  }
+
+  @Override
+  public JsonArray loanPolicies(MultiMap params, Location location) {
+    return allMatches(params, location, "loanPolicyId", CirculationRule::getLoanPolicyId);
+  }
+
+  @Override
+  public String requestPolicy(MultiMap params, Location location) {
+    return firstMatch(params, location, CirculationRule::getRequestPolicyId);
+  }
+
+  @Override
+  public JsonArray requestPolicies(MultiMap params, Location location) {
+    return allMatches(params, location, "requestPolicyId", CirculationRule::getRequestPolicyId);
+  }
+
+  @Override
+  public String noticePolicy(MultiMap params, Location location) {
+    return firstMatch(params, location, CirculationRule::getNoticePolicyId);
+  }
+
+  @Override
+  public JsonArray noticePolicies(MultiMap params, Location location) {
+    return allMatches(params, location, "noticePolicyId", CirculationRule::getNoticePolicyId);
+  }
+
+  @Override
+  public String overduePolicy(MultiMap params, Location location) {
+    return firstMatch(params, location, CirculationRule::getOverduePolicyId);
+  }
+
+  @Override
+  public JsonArray overduePolicies(MultiMap params, Location location) {
+    return allMatches(params, location, "overduePolicyId", CirculationRule::getOverduePolicyId);
+  }
+
+  @Override
+  public String lostItemPolicy(MultiMap params, Location location) {
+    return firstMatch(params, location, CirculationRule::getLostItemPolicyId);
+  }
+
+  @Override
+  public JsonArray lostItemPolicies(MultiMap params, Location location) {
+    return allMatches(params, location, "lostItemPolicyId", CirculationRule::getLostItemPolicyId);
+  }
+}
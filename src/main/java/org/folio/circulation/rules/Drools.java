@@ -6,11 +6,14 @@ import static org.folio.circulation.resources.AbstractCirculationRulesEngineReso
 import static org.folio.circulation.resources.AbstractCirculationRulesEngineResource.LOCATION_ID_NAME;
 import static org.folio.circulation.support.JsonPropertyWriter.write;
 
+import java.util.UUID;
+
 import org.folio.circulation.domain.Location;
 import org.kie.api.KieServices;
 import org.kie.api.builder.KieBuilder;
 import org.kie.api.builder.KieFileSystem;
 import org.kie.api.builder.Message.Level;
+import org.kie.api.builder.ReleaseId;
 import org.kie.api.runtime.KieContainer;
 import org.kie.api.runtime.KieSession;
 
@@ -19,14 +22,16 @@ import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 
 /**
- * Holds a Drools kieSession to calculate a loan policy.
+ * Holds a Drools kieContainer to calculate a loan policy.
+ * <p>
+ * Instances are immutable and can be used by several threads at the same time:
+ * each evaluation uses its own kieSession and its own {@link Match}.
  */
-public class Drools {
+public class Drools implements RulesEngine {
   // https://docs.jboss.org/drools/release/6.2.0.CR1/drools-docs/html/ch19.html
   // http://www.deepakgaikwad.net/index.php/2016/05/16/drools-tutorial-beginners.html
 
-  private Match match = new Match();
-  private KieContainer kieContainer;
+  private final KieContainer kieContainer;
 
   /**
    * Create the Drools kieSession based on a String containing a drools file.
@@ -34,24 +39,31 @@ public class Drools {
    */
   public Drools(String drools) {
     KieServices kieServices = KieServices.Factory.get();
+    // A release id of its own, the default release id is shared by all
+    // Drools instances and would be overwritten by a concurrent build.
+    ReleaseId releaseId = kieServices.newReleaseId("org.folio.circulation",
+      "circulation-rules", UUID.randomUUID().toString());
     KieFileSystem kfs = kieServices.newKieFileSystem();
+    kfs.generateAndWritePomXML(releaseId);
     kfs.write("src/main/resources/circulationrules/circulation-rules.drl", drools);
     KieBuilder kieBuilder = kieServices.newKieBuilder(kfs);
     kieBuilder.buildAll();
     if (kieBuilder.getResults().hasMessages(Level.ERROR)) {
+      kieServices.getRepository().removeKieModule(releaseId);
       throw new IllegalArgumentException("Drools build errors:\n" + kieBuilder.getResults().toString());
     }
-    kieContainer = kieServices.newKieContainer(kieServices.getRepository().getDefaultReleaseId());
+    kieContainer = kieServices.newKieContainer(releaseId);
+    // the kieContainer keeps the module, don't let the repository grow with each build
+    kieServices.getRepository().removeKieModule(releaseId);
   }
 
-  private KieSession createSession(MultiMap params, Location location) {
+  private KieSession createSession(MultiMap params, Location location, Match match) {
     String itemTypeId = params.get(ITEM_TYPE_ID_NAME);
     String loanTypeId = params.get(LOAN_TYPE_ID_NAME);
     String patronGroupId = params.get(PATRON_TYPE_ID_NAME);
     String locationId = params.get(LOCATION_ID_NAME);
 
     KieSession kieSession = kieContainer.newKieSession();
-    match.loanPolicyId = null;
     kieSession.setGlobal("match", match);
     kieSession.insert(new ItemType(itemTypeId));
     kieSession.insert(new LoanType(loanTypeId));
@@ -63,14 +75,33 @@ public class Drools {
     return kieSession;
   }
 
+  /**
+   * Calculate the policies of all policy types with a single kieSession.
+   * @param params request parameters
+   * @param location - location with institution, library and campus
+   * @return the policies of the first matching rule
+   */
+  @Override
+  public PolicyDecision decide(MultiMap params, Location location) {
+    Match match = new Match();
+    KieSession kieSession = createSession(params, location, match);
+    kieSession.fireAllRules();
+    kieSession.dispose();
+    return new PolicyDecision(match.loanPolicyId, match.requestPolicyId,
+      match.noticePolicyId, match.overduePolicyId, match.lostItemPolicyId,
+      match.lineNumber);
+  }
+
   /**
    * Calculate the loan policy for itemTypeName and loanTypeName.
    * @param params request parameters
    * @param location - location with institution, library and campus
    * @return the name of the loan policy
    */
+  @Override
   public String loanPolicy(MultiMap params, Location location) {
-    KieSession kieSession = createSession(params, location);
+    Match match = new Match();
+    KieSession kieSession = createSession(params, location, match);
     kieSession.fireAllRules();
     kieSession.dispose();
     return match.loanPolicyId;
@@ -83,8 +114,10 @@ public class Drools {
    * @param location - location with institution, library and campus
    * @return matches, each match has a loanPolicyId and a circulationRuleLine field
    */
+  @Override
   public JsonArray loanPolicies(MultiMap params, Location location) {
-    KieSession kieSession = createSession(params, location);
+    Match match = new Match();
+    KieSession kieSession = createSession(params, location, match);
 
     JsonArray array = new JsonArray();
 
@@ -92,7 +125,7 @@ public class Drools {
       JsonObject json = new JsonObject();
 
       write(json, "loanPolicyId", match.loanPolicyId);
-      writeLineMatch(json);
+      writeLineMatch(json, match);
 
       array.add(json);
     }
@@ -107,8 +140,10 @@ public class Drools {
    * @param location - location with institution, library and campus
    * @return the name of the request policy
    */
+  @Override
   public String requestPolicy(MultiMap params, Location location) {
-    KieSession kieSession = createSession(params, location);
+    Match match = new Match();
+    KieSession kieSession = createSession(params, location, match);
     kieSession.fireAllRules();
     kieSession.dispose();
     return match.requestPolicyId;
@@ -121,8 +156,10 @@ public class Drools {
    * @param location - location with institution, library and campus
    * @return matches, each match has a requestPolicyId and a circulationRuleLine field
    */
+  @Override
   public JsonArray requestPolicies(MultiMap params, Location location) {
-    KieSession kieSession = createSession(params, location);
+    Match match = new Match();
+    KieSession kieSession = createSession(params, location, match);
 
     JsonArray array = new JsonArray();
 
@@ -130,7 +167,7 @@ public class Drools {
       JsonObject json = new JsonObject();
 
       write(json, "requestPolicyId", match.requestPolicyId);
-      writeLineMatch(json);
+      writeLineMatch(json, match);
 
       array.add(json);
     }
@@ -146,8 +183,10 @@ public class Drools {
    * @param location - location with institution, library and campus
    * @return the name of the notice policy
    */
+  @Override
   public String noticePolicy(MultiMap params, Location location) {
-    KieSession kieSession = createSession(params, location);
+    Match match = new Match();
+    KieSession kieSession = createSession(params, location, match);
     kieSession.fireAllRules();
     kieSession.dispose();
     return match.noticePolicyId;
@@ -160,8 +199,10 @@ public class Drools {
    * @param location - location with institution, library and campus
    * @return matches, each match has a noticePolicyId and a circulationRuleLine field
    */
+  @Override
   public JsonArray noticePolicies(MultiMap params, Location location) {
-    KieSession kieSession = createSession(params, location);
+    Match match = new Match();
+    KieSession kieSession = createSession(params, location, match);
 
     JsonArray array = new JsonArray();
 
@@ -169,7 +210,7 @@ public class Drools {
       JsonObject json = new JsonObject();
 
       json.put("noticePolicyId", match.noticePolicyId);
-      writeLineMatch(json);
+      writeLineMatch(json, match);
 
       array.add(json);
     }
@@ -185,8 +226,10 @@ public class Drools {
    * @param location - location with institution, library and campus
    * @return the name of the overdue fine policy
    */
+  @Override
   public String overduePolicy(MultiMap params, Location location) {
-    KieSession kieSession = createSession(params, location);
+    Match match = new Match();
+    KieSession kieSession = createSession(params, location, match);
     kieSession.fireAllRules();
     kieSession.dispose();
     return match.overduePolicyId;
@@ -199,8 +242,10 @@ public class Drools {
    * @param location - location with institution, library and campus
    * @return matches, each match has a overduePolicyId and a circulationRuleLine field
    */
+  @Override
   public JsonArray overduePolicies(MultiMap params, Location location) {
-    KieSession kieSession = createSession(params, location);
+    Match match = new Match();
+    KieSession kieSession = createSession(params, location, match);
 
     JsonArray array = new JsonArray();
 
@@ -208,7 +253,7 @@ public class Drools {
       JsonObject json = new JsonObject();
 
       write(json, "overduePolicyId", match.overduePolicyId);
-      writeLineMatch(json);
+      writeLineMatch(json, match);
 
       array.add(json);
     }
@@ -223,8 +268,10 @@ public class Drools {
    * @param location - location with institution, library and campus
    * @return the name of the lost item fee fine policy
    */
+  @Override
   public String lostItemPolicy(MultiMap params, Location location) {
-    KieSession kieSession = createSession(params, location);
+    Match match = new Match();
+    KieSession kieSession = createSession(params, location, match);
     kieSession.fireAllRules();
     kieSession.dispose();
     return match.lostItemPolicyId;
@@ -237,8 +284,10 @@ public class Drools {
    * @param location - location with institution, library and campus
    * @return matches, each match has a lostItemPolicyId and a circulationRuleLine field
    */
+  @Override
   public JsonArray lostItemPolicies(MultiMap params, Location location) {
-    KieSession kieSession = createSession(params, location);
+    Match match = new Match();
+    KieSession kieSession = createSession(params, location, match);
 
     JsonArray array = new JsonArray();
 
@@ -246,7 +295,7 @@ public class Drools {
       JsonObject json = new JsonObject();
 
       write(json, "lostItemPolicyId", match.lostItemPolicyId);
-      writeLineMatch(json);
+      writeLineMatch(json, match);
 
       array.add(json);
     }
@@ -255,7 +304,7 @@ public class Drools {
     return array;
   }
 
-  private void writeLineMatch(JsonObject json) {
+  private static void writeLineMatch(JsonObject json, Match match) {
     write(json, "circulationRuleLine", match.lineNumber);
   }
 
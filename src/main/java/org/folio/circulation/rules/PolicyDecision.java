@@ -0,0 +1,50 @@
+package org.folio.circulation.rules;
+
+/**
+ * The policies of the first circulation rule that matches, one policy id
+ * for each policy type, and the line of that rule.
+ */
+public class PolicyDecision {
+  private final String loanPolicyId;
+  private final String requestPolicyId;
+  private final String noticePolicyId;
+  private final String overduePolicyId;
+  private final String lostItemPolicyId;
+  private final int circulationRuleLine;
+
+  public PolicyDecision(String loanPolicyId, String requestPolicyId,
+    String noticePolicyId, String overduePolicyId, String lostItemPolicyId,
+    int circulationRuleLine) {
+
+    this.loanPolicyId = loanPolicyId;
+    this.requestPolicyId = requestPolicyId;
+    this.noticePolicyId = noticePolicyId;
+    this.overduePolicyId = overduePolicyId;
+    this.lostItemPolicyId = lostItemPolicyId;
+    this.circulationRuleLine = circulationRuleLine;
+  }
+
+  public String getLoanPolicyId() {
+    return loanPolicyId;
+  }
+
+  public String getRequestPolicyId() {
+    return requestPolicyId;
+  }
+
+  public String getNoticePolicyId() {
+    return noticePolicyId;
+  }
+
+  public String getOverduePolicyId() {
+    return overduePolicyId;
+  }
+
+  public String getLostItemPolicyId() {
+    return lostItemPolicyId;
+  }
+
+  public int getCirculationRuleLine() {
+    return circulationRuleLine;
+  }
+}
@@ -0,0 +1,74 @@
+package org.folio.circulation.rules;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Least recently used cache of the policy decisions of one version of
+ * a tenant's circulation rules, keyed by the criteria they were made for.
+ * <p>
+ * A new version of the circulation rules gets a new, empty cache.
+ */
+class PolicyDecisionCache {
+  private final int maximumSize;
+  private final Map<RulesExecutionParameters, PolicyDecision> decisions;
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+
+  /**
+   * @param maximumSize  when exceeded the least recently used decision is dropped
+   */
+  PolicyDecisionCache(int maximumSize) {
+    this.maximumSize = maximumSize;
+    this.decisions = new LinkedHashMap<RulesExecutionParameters, PolicyDecision>(
+      16, 0.75f, true) {
+
+      @Override
+      protected boolean removeEldestEntry(
+        Map.Entry<RulesExecutionParameters, PolicyDecision> eldest) {
+
+        return size() > PolicyDecisionCache.this.maximumSize;
+      }
+    };
+  }
+
+  /**
+   * @param parameters  the criteria
+   * @return the cached decision, or null if there is none
+   */
+  PolicyDecision get(RulesExecutionParameters parameters) {
+    final PolicyDecision decision;
+
+    synchronized (decisions) {
+      decision = decisions.get(parameters);
+    }
+
+    if (decision == null) {
+      misses.incrementAndGet();
+    } else {
+      hits.incrementAndGet();
+    }
+    return decision;
+  }
+
+  void put(RulesExecutionParameters parameters, PolicyDecision decision) {
+    synchronized (decisions) {
+      decisions.put(parameters, decision);
+    }
+  }
+
+  int size() {
+    synchronized (decisions) {
+      return decisions.size();
+    }
+  }
+
+  long getHits() {
+    return hits.get();
+  }
+
+  long getMisses() {
+    return misses.get();
+  }
+}
@@ -0,0 +1,44 @@
+package org.folio.circulation.rules;
+
+import org.folio.circulation.domain.Location;
+
+import io.vertx.core.MultiMap;
+import io.vertx.core.json.JsonArray;
+
+/**
+ * Calculates policies using the compiled circulation rules of a tenant.
+ * <p>
+ * The params contain the item type, loan type, patron type and location ids
+ * using the names of the circulation rules engine query parameters.
+ * The location provides the institution, campus and library.
+ * <p>
+ * The *Policies methods return all matches in the order they match,
+ * each match has a policy id and a circulationRuleLine field.
+ */
+public interface RulesEngine {
+  /**
+   * Apply the rules once for all policy types.
+   * @return the policies and the line of the first matching rule
+   */
+  PolicyDecision decide(MultiMap params, Location location);
+
+  String loanPolicy(MultiMap params, Location location);
+
+  JsonArray loanPolicies(MultiMap params, Location location);
+
+  String requestPolicy(MultiMap params, Location location);
+
+  JsonArray requestPolicies(MultiMap params, Location location);
+
+  String noticePolicy(MultiMap params, Location location);
+
+  JsonArray noticePolicies(MultiMap params, Location location);
+
+  String overduePolicy(MultiMap params, Location location);
+
+  JsonArray overduePolicies(MultiMap params, Location location);
+
+  String lostItemPolicy(MultiMap params, Location location);
+
+  JsonArray lostItemPolicies(MultiMap params, Location location);
+}
@@ -0,0 +1,131 @@
+package org.folio.circulation.rules;
+
+import static org.folio.circulation.resources.AbstractCirculationRulesEngineResource.ITEM_TYPE_ID_NAME;
+import static org.folio.circulation.resources.AbstractCirculationRulesEngineResource.LOAN_TYPE_ID_NAME;
+import static org.folio.circulation.resources.AbstractCirculationRulesEngineResource.LOCATION_ID_NAME;
+import static org.folio.circulation.resources.AbstractCirculationRulesEngineResource.PATRON_TYPE_ID_NAME;
+
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.folio.circulation.domain.Item;
+import org.folio.circulation.domain.Location;
+import org.folio.circulation.domain.User;
+
+import io.vertx.core.MultiMap;
+
+/**
+ * The criteria the circulation rules are applied to: material type,
+ * loan type, patron group and location. The location may already have been
+ * fetched with the item, otherwise it is fetched when the rules are applied.
+ */
+public class RulesExecutionParameters {
+  private final String materialTypeId;
+  private final String loanTypeId;
+  private final String patronGroupId;
+  private final String locationId;
+  private final Location location;
+
+  public RulesExecutionParameters(String materialTypeId, String loanTypeId,
+    String patronGroupId, String locationId, Location location) {
+
+    this.materialTypeId = materialTypeId;
+    this.loanTypeId = loanTypeId;
+    this.patronGroupId = patronGroupId;
+    this.locationId = locationId;
+    this.location = location;
+  }
+
+  public static RulesExecutionParameters forItemAndUser(Item item, User user) {
+    return new RulesExecutionParameters(item.getMaterialTypeId(),
+      item.determineLoanTypeForItem(), user.getPatronGroupId(),
+      item.getLocationId(), item.getLocation());
+  }
+
+  public static RulesExecutionParameters from(MultiMap params) {
+    return new RulesExecutionParameters(params.get(ITEM_TYPE_ID_NAME),
+      params.get(LOAN_TYPE_ID_NAME), params.get(PATRON_TYPE_ID_NAME),
+      params.get(LOCATION_ID_NAME), null);
+  }
+
+  public RulesExecutionParameters withLocation(Location location) {
+    return new RulesExecutionParameters(materialTypeId, loanTypeId,
+      patronGroupId, locationId, location);
+  }
+
+  public String getMaterialTypeId() {
+    return materialTypeId;
+  }
+
+  public String getLoanTypeId() {
+    return loanTypeId;
+  }
+
+  public String getPatronGroupId() {
+    return patronGroupId;
+  }
+
+  public String getLocationId() {
+    return locationId;
+  }
+
+  public Location getLocation() {
+    return location;
+  }
+
+  /**
+   * @return whether the location with institution, campus and library is
+   * already known for the location id of these parameters
+   */
+  public boolean hasLocation() {
+    return location != null && locationId != null
+      && locationId.equals(location.getId());
+  }
+
+  /**
+   * @return the parameters in the form expected by {@link Drools}
+   */
+  public MultiMap toParams() {
+    return MultiMap.caseInsensitiveMultiMap()
+      .add(ITEM_TYPE_ID_NAME, materialTypeId)
+      .add(LOAN_TYPE_ID_NAME, loanTypeId)
+      .add(PATRON_TYPE_ID_NAME, patronGroupId)
+      .add(LOCATION_ID_NAME, locationId);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+
+    RulesExecutionParameters that = (RulesExecutionParameters) o;
+
+    return new EqualsBuilder()
+      .append(materialTypeId, that.materialTypeId)
+      .append(loanTypeId, that.loanTypeId)
+      .append(patronGroupId, that.patronGroupId)
+      .append(locationId, that.locationId)
+      .isEquals();
+  }
+
+  @Override
+  public int hashCode() {
+    return new HashCodeBuilder(17, 37)
+      .append(materialTypeId)
+      .append(loanTypeId)
+      .append(patronGroupId)
+      .append(locationId)
+      .toHashCode();
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+      "material type: %s, patron group: %s, loan type: %s, location: %s",
+      materialTypeId, patronGroupId, loanTypeId, locationId);
+  }
+}
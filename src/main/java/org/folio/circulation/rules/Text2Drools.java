@@ -1,5 +1,6 @@
 package org.folio.circulation.rules;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -84,11 +85,15 @@ public class Text2Drools extends CirculationRulesBaseListener {
       "\n"
       );
 
+  /** the rules in parsed form, in the same order as in the drools file */
+  private List<CirculationRule> rules = new ArrayList<>();
+
   private static class Matcher {
     int indentation;
     Set<String> criteriaUsed = new HashSet<>(4);
     int maxCriteriumPriority;
     StringBuilder drools;
+    List<CirculationRule.Criterium> criteria = new ArrayList<>();
     public Matcher(int indentation, Set<String> criteriaUsed, int maxCriteriumPriority, StringBuilder drools) {
       this.indentation = indentation;
       this.criteriaUsed.addAll(criteriaUsed);
@@ -135,6 +140,20 @@ public class Text2Drools extends CirculationRulesBaseListener {
    * @return Drools file
    */
   public static String convert(String text) {
+    return walk(text).drools.toString();
+  }
+
+  /**
+   * Convert circulation rules from FOLIO text format into parsed rules,
+   * one for each rule of the Drools file that {@link #convert(String)} returns.
+   * @param text String with a circulation rules file in FOLIO syntax.
+   * @return the rules, each with its salience and all its criteria
+   */
+  static List<CirculationRule> convertToRules(String text) {
+    return walk(text).rules;
+  }
+
+  private static Text2Drools walk(String text) {
     Text2Drools text2drools = new Text2Drools();
 
     CharStream input = CharStreams.fromString(text);
@@ -147,7 +166,7 @@ public class Text2Drools extends CirculationRulesBaseListener {
     ParseTreeWalker walker = new ParseTreeWalker();
     walker.walk(text2drools, entryPoint);
 
-    return text2drools.drools.toString();
+    return text2drools;
   }
 
   /**
@@ -320,21 +339,30 @@ public class Text2Drools extends CirculationRulesBaseListener {
     }
 
     int line = policies.getStart().getLine();
+    int salience = getSalience(line);
     drools.append("rule \"line ").append(line).append("\"\n");
-    drools.append("  salience ").append(getSalience(line)).append("\n");
+    drools.append("  salience ").append(salience).append("\n");
     drools.append("  when\n");
-    stack.descendingIterator().forEachRemaining(matcher -> drools.append(matcher.drools));
+    List<CirculationRule.Criterium> criteria = new ArrayList<>();
+    stack.descendingIterator().forEachRemaining(matcher -> {
+      drools.append(matcher.drools);
+      criteria.addAll(matcher.criteria);
+    });
     drools.append("  then\n");
 
+    Map<String,String> policyNames = new HashMap<>(policyTypes.length);
     for (PolicyContext policy : policies.policy()) {
       drools.append(policyMatchString(policy));
       appendQuotedString(drools, policy.NAME().getText());
       drools.append(";\n");
+      policyNames.put(policy.POLICY_TYPE().getText(), policy.NAME().getText());
     }
 
     drools.append("    match.lineNumber = ").append(line).append(";\n");
     drools.append("    drools.halt();\n");
     drools.append("end\n\n");
+
+    rules.add(new CirculationRule(line, salience, criteria, policyNames));
   }
 
   private static String policyMatchString(PolicyContext policy) {
@@ -412,6 +440,7 @@ public class Text2Drools extends CirculationRulesBaseListener {
 
     if (criteriumContext.all() != null) {
       matcher.drools.append("() // all\n");
+      matcher.criteria.add(new CirculationRule.Criterium(criteriumTypeLetter, false, null));
       return;
     }
 
@@ -421,6 +450,11 @@ public class Text2Drools extends CirculationRulesBaseListener {
       not = true;
     }
 
+    matcher.criteria.add(new CirculationRule.Criterium(criteriumTypeLetter, not,
+      criteriumContext.NAME().stream()
+        .map(TerminalNode::getText)
+        .collect(Collectors.toList())));
+
     if (criteriumContext.NAME().size() == 1) {
       matcher.drools.append(not ? "(id != " : "(id == " );
       appendQuotedString(matcher.drools, criteriumContext.NAME(0).getText());
@@ -6,6 +6,8 @@ import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
+import org.folio.circulation.support.results.CommonFailures;
+
 public class AsyncCoordinationUtil {
 
   private AsyncCoordinationUtil() {
@@ -27,4 +29,34 @@ public class AsyncCoordinationUtil {
       .thenApply(v -> futures.stream().map(CompletableFuture::join).collect(Collectors.toList()))
       .thenApply(Result::combineAll);
   }
+
+  /**
+   * Applies {@code asyncAction} to all the elements in {@code collection}
+   * and keeps the result of each, so that the failure of one does not fail
+   * the others
+   */
+  public static <T, R> CompletableFuture<List<Result<R>>> allResultsOf(
+    Collection<T> collection,
+    Function<T, CompletableFuture<Result<R>>> asyncAction) {
+
+    List<CompletableFuture<Result<R>>> futures = collection.stream()
+      .map(element -> applyAsyncAction(asyncAction, element))
+      .collect(Collectors.toList());
+
+    return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+      .thenApply(v -> futures.stream().map(CompletableFuture::join).collect(Collectors.toList()));
+  }
+
+  private static <T, R> CompletableFuture<Result<R>> applyAsyncAction(
+    Function<T, CompletableFuture<Result<R>>> asyncAction, T element) {
+
+    try {
+      return asyncAction.apply(element)
+        .exceptionally(CommonFailures::failedDueToServerError);
+    }
+    catch (Exception e) {
+      return CompletableFuture.completedFuture(
+        CommonFailures.failedDueToServerError(e));
+    }
+  }
 }
@@ -2,6 +2,7 @@ package org.folio.circulation.support;
 
 import java.net.MalformedURLException;
 
+import org.folio.circulation.rules.CirculationRulesProcessor;
 import org.folio.circulation.support.http.client.OkapiHttpClient;
 import org.folio.circulation.support.http.server.WebContext;
 
@@ -26,9 +27,6 @@ public class Clients {
   private final CollectionResourceClient proxiesForClient;
   private final CollectionResourceClient loanPoliciesStorageClient;
   private final CollectionResourceClient fixedDueDateSchedulesStorageClient;
-  private final CirculationRulesClient circulationLoanRulesClient;
-  private final CirculationRulesClient circulationRequestRulesClient;
-  private final CirculationRulesClient circulationNoticeRulesClient;
   private final CollectionResourceClient circulationRulesStorageClient;
   private final CollectionResourceClient requestPoliciesStorageClient;
   private final CollectionResourceClient servicePointsStorageClient;
@@ -44,13 +42,24 @@ public class Clients {
   private final CollectionResourceClient patronActionSessionsStorageClient;
   private final CollectionResourceClient patronExpiredSessionsStorageClient;
   private final CollectionResourceClient userManualBlocksStorageClient;
+  private final CirculationRulesProcessor circulationRulesProcessor;
+  private final String tenantId;
 
   public static Clients create(WebContext context, HttpClient httpClient) {
     return new Clients(context.createHttpClient(httpClient), context);
   }
 
+  /**
+   * Create clients for work that carries on after the request has been
+   * responded to, failures are logged rather than responded with
+   */
+  public static Clients createDetached(WebContext context, HttpClient httpClient) {
+    return new Clients(context.createDetachedHttpClient(httpClient), context);
+  }
+
   private Clients(OkapiHttpClient client, WebContext context) {
     try {
+      tenantId = context.getTenantId();
       requestsStorageClient = createRequestsStorageClient(client, context);
       requestsBatchStorageClient = createRequestsBatchStorageClient(client, context);
       cancellationReasonStorageClient = createCancellationReasonStorageClient(client, context);
@@ -68,9 +77,6 @@ public class Clients {
       materialTypesStorageClient = createMaterialTypesStorageClient(client, context);
       loanTypesStorageClient = createLoanTypesStorageClient(client, context);
       proxiesForClient = createProxyUsersStorageClient(client, context);
-      circulationLoanRulesClient = createCirculationLoanRulesClient(client, context);
-      circulationRequestRulesClient = createCirculationRequestRulesClient(client, context);
-      circulationNoticeRulesClient = createCirculationNoticeRulesClient(client, context);
       circulationRulesStorageClient = createCirculationRulesStorageClient(client, context);
       loanPoliciesStorageClient = createLoanPoliciesStorageClient(client, context);
       requestPoliciesStorageClient = createRequestPoliciesStorageClient(client, context);
@@ -87,12 +93,18 @@ public class Clients {
       patronActionSessionsStorageClient = createPatronActionSessionsStorageClient(client,context);
       patronExpiredSessionsStorageClient = createPatronExpiredSessionsStorageClient(client,context);
       userManualBlocksStorageClient = createUserManualBlocksStorageClient(client,context);
+      circulationRulesProcessor = new CirculationRulesProcessor(context.getTenantId(),
+        circulationRulesStorageClient, locationsStorageClient);
     }
     catch(MalformedURLException e) {
       throw new InvalidOkapiLocationException(context.getOkapiLocation(), e);
     }
   }
 
+  public String getTenantId() {
+    return tenantId;
+  }
+
   public CollectionResourceClient requestsStorage() {
     return requestsStorageClient;
   }
@@ -187,16 +199,8 @@ public class Clients {
     return proxiesForClient;
   }
 
-  public CirculationRulesClient circulationLoanRules() {
-    return circulationLoanRulesClient;
-  }
-
-  public CirculationRulesClient circulationRequestRules(){
-    return circulationRequestRulesClient;
-  }
-
-  public CirculationRulesClient circulationNoticeRules(){
-    return circulationNoticeRulesClient;
+  public CirculationRulesProcessor circulationRulesProcessor() {
+    return circulationRulesProcessor;
   }
 
   public CollectionResourceClient circulationRulesStorage() {
@@ -244,30 +248,6 @@ public class Clients {
     return new CollectionResourceClient(client, context.getOkapiBasedUrl(path));
   }
 
-  private static CirculationRulesClient createCirculationLoanRulesClient(
-    OkapiHttpClient client,
-    WebContext context)
-    throws MalformedURLException {
-
-    return new CirculationRulesClient(client, context, "/circulation/rules/loan-policy");
-  }
-
-  private static CirculationRulesClient createCirculationRequestRulesClient(
-    OkapiHttpClient client,
-    WebContext context)
-    throws MalformedURLException {
-
-    return new CirculationRulesClient(client, context, "/circulation/rules/request-policy");
-  }
-
-  private static CirculationRulesClient createCirculationNoticeRulesClient(
-    OkapiHttpClient client,
-    WebContext context)
-    throws MalformedURLException {
-
-    return new CirculationRulesClient(client, context, "/circulation/rules/notice-policy");
-  }
-
   private static CollectionResourceClient createRequestsStorageClient(
     OkapiHttpClient client,
     WebContext context)
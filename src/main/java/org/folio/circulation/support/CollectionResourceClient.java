@@ -1,8 +1,12 @@
 package org.folio.circulation.support;
 
+import static org.folio.circulation.support.results.CommonFailures.failedDueToServerError;
+
 import java.lang.invoke.MethodHandles;
 import java.net.URL;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.function.Consumer;
 
 import org.apache.commons.lang3.StringUtils;
@@ -10,6 +14,8 @@ import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.apache.http.entity.ContentType;
 import org.folio.circulation.support.http.client.OkapiHttpClient;
 import org.folio.circulation.support.http.client.Response;
+import org.folio.circulation.support.http.client.ResponseInterpreter;
+import org.folio.circulation.support.http.client.StreamingBodyParser;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -20,6 +26,9 @@ import io.vertx.core.json.JsonObject;
 public class CollectionResourceClient {
   private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
 
+  private static final ConcurrentMap<String, InFlightGet> inFlightGets
+    = new ConcurrentHashMap<>();
+
   private final OkapiHttpClient client;
   private final URL collectionRoot;
 
@@ -59,13 +68,17 @@ public class CollectionResourceClient {
     String id,
     JsonObject resourceRepresentation) {
 
+    final String url = individualRecordUrl(id);
+
     CompletableFuture<Response> future = new CompletableFuture<>();
 
-    client.put(individualRecordUrl(id),
+    stopSharingGets(url);
+
+    client.put(url,
       resourceRepresentation,
       responseConversationHandler(future::complete));
 
-    return future;
+    return future.whenComplete((response, throwable) -> stopSharingGets(url));
   }
 
   public CompletableFuture<Response> get() {
@@ -77,23 +90,101 @@ public class CollectionResourceClient {
     return future;
   }
 
+  /**
+   * Get a record. Identical requests for the same tenant and token that are
+   * made while one is in progress share its response, each getting a copy
+   */
   public CompletableFuture<Response> get(String id) {
-    final CompletableFuture<Response> future = new CompletableFuture<>();
-
     final String url = individualRecordUrl(id);
 
+    final String key = inFlightGetKey(client.getToken(), url);
+
+    final InFlightGet inFlightGet = new InFlightGet();
+    final InFlightGet running = inFlightGets.putIfAbsent(key, inFlightGet);
+
+    if (running != null && running.join()) {
+      // the failure of the shared request is only handled by the client that
+      // made it, so a joined request has to be handled by its own client too
+      return running.response
+        .whenComplete((response, throwable) -> {
+          if (throwable != null) {
+            client.reportFailure(throwable);
+          }
+        })
+        .thenApply(Response::copy);
+    }
+
+    if (running != null) {
+      return fetch(url);
+    }
+
+    inFlightGet.join();
+
+    final CompletableFuture<Response> fetched = new CompletableFuture<>();
+
+    // joined requests have to be told when the request fails, as they share
+    // neither the failure handling of the client nor its response
+    client.get(url, responseConversationHandler(url, fetched::complete),
+      fetched::completeExceptionally);
+
+    fetched.whenComplete((response, throwable) -> {
+      inFlightGet.finish();
+
+      inFlightGets.remove(key, inFlightGet);
+
+      if (throwable != null) {
+        inFlightGet.response.completeExceptionally(throwable);
+      }
+      else {
+        inFlightGet.response.complete(response);
+      }
+    });
+
+    // the response itself is only kept when no other request joined
+    return inFlightGet.response.thenApply(response ->
+      inFlightGet.isShared() ? response.copy() : response);
+  }
+
+  /**
+   * Stop GETs of the record that are in progress from being joined, as they
+   * may have been sent before it was changed. This is done when a change is
+   * sent and again when it has been made, so that a GET made after a change
+   * never gets the record from before it, whichever token it was made with
+   */
+  private void stopSharingGets(String url) {
+    final String tenantPrefix = client.getTenantId() + " ";
+    final String urlSuffix = " " + url;
+
+    inFlightGets.forEach((key, inFlightGet) -> {
+      if (key.startsWith(tenantPrefix) && key.endsWith(urlSuffix)) {
+        inFlightGet.finish();
+        inFlightGets.remove(key, inFlightGet);
+      }
+    });
+  }
+
+  private String inFlightGetKey(String token, String url) {
+    return String.join(" ", client.getTenantId(), token, url);
+  }
+
+  private CompletableFuture<Response> fetch(String url) {
+    final CompletableFuture<Response> future = new CompletableFuture<>();
+
     client.get(url, responseConversationHandler(url, future::complete));
 
     return future;
   }
 
   public CompletableFuture<Response> delete(String id) {
+    final String url = individualRecordUrl(id);
+
     final CompletableFuture<Response> future = new CompletableFuture<>();
 
-    client.delete(individualRecordUrl(id),
-      responseConversationHandler(future::complete));
+    stopSharingGets(url);
 
-    return future;
+    client.delete(url, responseConversationHandler(future::complete));
+
+    return future.whenComplete((response, throwable) -> stopSharingGets(url));
   }
 
   public CompletableFuture<Response> delete() {
@@ -167,6 +258,26 @@ public class CollectionResourceClient {
     });
   }
 
+  /**
+   * Get multiple records, passing the body to the parser as it arrives so
+   * that all of it is never held at once. Any response other than 200 is
+   * received in full and interpreted as a failure
+   */
+  public <T> CompletableFuture<Result<T>> getMany(
+    CqlQuery cqlQuery, Integer pageLimit, Integer pageOffset,
+    StreamingBodyParser<T> parser) {
+
+    return cqlQuery.encode().after(encodedQuery -> {
+      final CompletableFuture<Result<T>> future = new CompletableFuture<>();
+
+      String url = collectionRoot + createQueryString(encodedQuery, pageLimit, pageOffset);
+
+      client.get(url, streamingConversationHandler(url, parser, future::complete));
+
+      return future;
+    });
+  }
+
   private static boolean isProvided(String query) {
     return StringUtils.isNotBlank(query);
   }
@@ -219,12 +330,64 @@ public class CollectionResourceClient {
       });
   }
 
+  private <T> Handler<HttpClientResponse> streamingConversationHandler(
+    String fromUrl, StreamingBodyParser<T> parser, Consumer<Result<T>> resultHandler) {
+
+    return response -> {
+      if (response.statusCode() != 200) {
+        responseConversationHandler(fromUrl, failedResponse -> resultHandler.accept(
+          new ResponseInterpreter<T>().apply(failedResponse)))
+          .handle(response);
+
+        return;
+      }
+
+      response
+        .handler(parser)
+        .endHandler(notUsed -> resultHandler.accept(parser.end()))
+        .exceptionHandler(ex -> {
+          log.error("Unhandled exception in body handler", ex);
+          resultHandler.accept(failedDueToServerError(ex));
+        });
+    };
+  }
+
   private Handler<HttpClientResponse> responseConversationHandler(
     Consumer<Response> responseHandler) {
 
     return responseConversationHandler(null, responseHandler);
   }
 
+  /**
+   * A get request in progress, which further identical requests can join
+   * until it finishes
+   */
+  private static class InFlightGet {
+    private final CompletableFuture<Response> response = new CompletableFuture<>();
+    private int recipients = 0;
+    private boolean finished = false;
+
+    /**
+     * @return whether the request can still be joined
+     */
+    synchronized boolean join() {
+      if (finished) {
+        return false;
+      }
+
+      recipients++;
+      return true;
+    }
+
+    synchronized void finish() {
+      finished = true;
+    }
+
+    synchronized boolean isShared() {
+      return recipients > 1;
+    }
+  }
+
   private String individualRecordUrl(String id) {
     return String.format("%s/%s", collectionRoot, id);
   }
@@ -219,6 +219,35 @@ public class ItemRepository {
     });
   }
 
+  private CompletableFuture<Result<Collection<Item>>> fetchLoanTypes(
+    Result<Collection<Item>> result) {
+
+    if (!fetchLoanType) {
+      return completedFuture(result);
+    }
+
+    return result.after(items -> {
+      List<String> loanTypeIds = items.stream()
+        .map(ItemRepository::getLoanTypeId)
+        .filter(Objects::nonNull)
+        .distinct()
+        .collect(Collectors.toList());
+
+      final MultipleRecordFetcher<JsonObject> fetcher
+        = new MultipleRecordFetcher<>(loanTypesClient, "loantypes", identity());
+
+      return fetcher.findByIds(loanTypeIds)
+        .thenApply(r -> r.map(loanTypes -> items.stream()
+          .map(item -> item.withLoanType(
+            findById(getLoanTypeId(item), loanTypes.getRecords()).orElse(null)))
+          .collect(Collectors.toList())));
+    });
+  }
+
+  private static String getLoanTypeId(Item item) {
+    return item.getItem() == null ? null : item.determineLoanTypeForItem();
+  }
+
   private static Optional<JsonObject> findById(
     String id,
     Collection<JsonObject> collection) {
@@ -320,10 +349,21 @@ public class ItemRepository {
     Collection<String> itemIds) {
 
     return fetchItems(itemIds)
-      .thenComposeAsync(this::fetchHoldingRecords)
+      .thenComposeAsync(r -> r.after(this::fetchItemsRelatedRecords));
+  }
+
+  /**
+   * Fetch the holdings records, instances, locations, material types and
+   * loan types of many items with a query per type of record rather than per item
+   */
+  public CompletableFuture<Result<Collection<Item>>> fetchItemsRelatedRecords(
+    Collection<Item> items) {
+
+    return fetchHoldingRecords(succeeded(items))
       .thenComposeAsync(this::fetchInstances)
       .thenComposeAsync(this::fetchLocations)
-      .thenComposeAsync(this::fetchMaterialTypes);
+      .thenComposeAsync(this::fetchMaterialTypes)
+      .thenComposeAsync(this::fetchLoanTypes);
   }
 
   private <T extends ItemRelatedRecord> List<String> getItemIds(MultipleRecords<T> records) {
@@ -1,10 +1,10 @@
 package org.folio.circulation.support;
 
 import org.apache.commons.lang3.StringUtils;
+import org.folio.circulation.infrastructure.serialization.JsonEncoding;
 
 import io.vertx.core.buffer.Buffer;
 import io.vertx.core.http.HttpServerResponse;
-import io.vertx.core.json.Json;
 import io.vertx.core.json.JsonObject;
 
 public class JsonResponseResult implements ResponseWritableResult<JsonObject> {
@@ -35,8 +35,7 @@ public class JsonResponseResult implements ResponseWritableResult<JsonObject> {
 
   @Override
   public void writeTo(HttpServerResponse response) {
-    String json = Json.encodePrettily(body);
-    Buffer buffer = Buffer.buffer(json, "UTF-8");
+    Buffer buffer = JsonEncoding.encode(body);
 
     response.setStatusCode(statusCode);
     response.putHeader("content-type", "application/json; charset=utf-8");
@@ -46,7 +45,6 @@ public class JsonResponseResult implements ResponseWritableResult<JsonObject> {
       response.putHeader("location", location);
     }
 
-    response.write(buffer);
-    response.end();
+    response.end(buffer);
   }
 }
@@ -14,7 +14,7 @@ import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import org.folio.circulation.domain.MultipleRecords;
-import org.folio.circulation.support.http.client.Response;
+import org.folio.circulation.domain.MultipleRecordsParser;
 
 import io.vertx.core.json.JsonObject;
 
@@ -91,12 +91,8 @@ public class MultipleRecordFetcher<T> {
 
   private CompletableFuture<Result<MultipleRecords<T>>> findByQuery(
     Result<CqlQuery> queryResult, Integer limit) {
-    return queryResult.after(query -> client.getMany(query, limit))
-      .thenApply(result -> result.next(this::mapToRecords));
-  }
-
-  private Result<MultipleRecords<T>> mapToRecords(Response response) {
-    return MultipleRecords.from(response, recordMapper, recordsPropertyName);
+    return queryResult.after(query -> client.getMany(query, limit, 0,
+      new MultipleRecordsParser<>(recordMapper, recordsPropertyName)));
   }
 
   private Result<MultipleRecords<T>> aggregate(List<Result<MultipleRecords<T>>> results) {
@@ -0,0 +1,186 @@
+package org.folio.circulation.support;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Per tenant cache of rarely changing reference records, keyed by id.
+ * <p>
+ * An entry expires after the time to live, and when a tenant has more than
+ * the maximum number of entries the least recently used one is dropped.
+ * <p>
+ * Each invalidation of a tenant's records increases the tenant's version, a
+ * record fetched before that can be put with the version read before fetching
+ * so that it is not cached after the invalidation.
+ */
+public class ReferenceDataCache<T> {
+  private final Map<String, Map<String, Entry<T>>> tenants = new ConcurrentHashMap<>();
+  private final ConcurrentMap<String, AtomicLong> tenantVersions = new ConcurrentHashMap<>();
+  private final AtomicLong version = new AtomicLong();
+  private final LongSupplier clock;
+  private volatile long timeToLiveMilliseconds;
+  private final int maximumSize;
+
+  /**
+   * @param timeToLiveMilliseconds  how long a record is used before it is fetched again
+   * @param maximumSize  maximum number of records per tenant
+   */
+  public ReferenceDataCache(long timeToLiveMilliseconds, int maximumSize) {
+    this(timeToLiveMilliseconds, maximumSize, System::currentTimeMillis);
+  }
+
+  ReferenceDataCache(long timeToLiveMilliseconds, int maximumSize,
+    LongSupplier clock) {
+
+    this.timeToLiveMilliseconds = timeToLiveMilliseconds;
+    this.maximumSize = maximumSize;
+    this.clock = clock;
+  }
+
+  /**
+   * @return the cached record, or null if there is none or it has expired
+   */
+  public T get(String tenantId, String id) {
+    if (tenantId == null || id == null) {
+      return null;
+    }
+
+    final Map<String, Entry<T>> entries = tenants.get(tenantId);
+
+    if (entries == null) {
+      return null;
+    }
+
+    synchronized (entries) {
+      final Entry<T> entry = entries.get(id);
+
+      if (entry == null) {
+        return null;
+      }
+
+      if (entry.expires <= clock.getAsLong()) {
+        entries.remove(id);
+        return null;
+      }
+
+      return entry.value;
+    }
+  }
+
+  /**
+   * @return the cached records of those ids that are cached and have not expired
+   */
+  public Map<String, T> getAll(String tenantId, Collection<String> ids) {
+    final Map<String, T> found = new HashMap<>();
+
+    for (String id : ids) {
+      final T value = get(tenantId, id);
+
+      if (value != null) {
+        found.put(id, value);
+      }
+    }
+
+    return found;
+  }
+
+  public void put(String tenantId, String id, T value) {
+    put(tenantId, id, value, getVersion(tenantId));
+  }
+
+  /**
+   * Put a record unless the tenant's records have been invalidated since
+   * the version was read.
+   *
+   * @param version  the tenant's version before the record was fetched
+   */
+  public void put(String tenantId, String id, T value, long version) {
+    if (tenantId == null || id == null || value == null) {
+      return;
+    }
+
+    final Map<String, Entry<T>> entries = tenants.computeIfAbsent(tenantId,
+      key -> createEntries());
+
+    synchronized (entries) {
+      if (version != getVersion(tenantId)) {
+        return;
+      }
+
+      entries.put(id, new Entry<>(value, clock.getAsLong() + timeToLiveMilliseconds));
+    }
+  }
+
+  public long getVersion(String tenantId) {
+    return version.get() + tenantVersion(tenantId).get();
+  }
+
+  public void invalidate(String tenantId, String id) {
+    final Map<String, Entry<T>> entries = tenants.get(tenantId);
+
+    if (entries != null) {
+      synchronized (entries) {
+        tenantVersion(tenantId).incrementAndGet();
+        entries.remove(id);
+      }
+    }
+  }
+
+  public void invalidate(String tenantId) {
+    tenantVersion(tenantId).incrementAndGet();
+    tenants.remove(tenantId);
+  }
+
+  public void invalidateAll() {
+    version.incrementAndGet();
+    tenants.clear();
+  }
+
+  /**
+   * Set the time to live of records put into the cache from now on.
+   */
+  public void setTimeToLive(long timeToLiveMilliseconds) {
+    this.timeToLiveMilliseconds = timeToLiveMilliseconds;
+  }
+
+  int size(String tenantId) {
+    final Map<String, Entry<T>> entries = tenants.get(tenantId);
+
+    if (entries == null) {
+      return 0;
+    }
+
+    synchronized (entries) {
+      return entries.size();
+    }
+  }
+
+  private AtomicLong tenantVersion(String tenantId) {
+    return tenantVersions.computeIfAbsent(tenantId, key -> new AtomicLong());
+  }
+
+  private Map<String, Entry<T>> createEntries() {
+    return new LinkedHashMap<String, Entry<T>>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, Entry<T>> eldest) {
+        return size() > maximumSize;
+      }
+    };
+  }
+
+  private static class Entry<T> {
+    private final T value;
+    private final long expires;
+
+    private Entry(T value, long expires) {
+      this.value = value;
+      this.expires = expires;
+    }
+  }
+}
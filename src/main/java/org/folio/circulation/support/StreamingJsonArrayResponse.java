@@ -0,0 +1,165 @@
+package org.folio.circulation.support;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+
+import java.lang.invoke.MethodHandles;
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+
+import org.folio.circulation.infrastructure.serialization.JsonEncoding;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Writes a JSON object holding an array of records to a chunked response,
+ * one batch of records at a time, followed by the total number of records.
+ * <p>
+ * The records written so far are not kept, and the next batch should only be
+ * fetched when the future returned for the previous one completes, so that
+ * memory use does not depend upon the total number of records. Once the
+ * client goes away, or writing fails, the futures returned fail instead, so
+ * that no further batches are fetched.
+ */
+public class StreamingJsonArrayResponse {
+  private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  private final HttpServerResponse response;
+  private final String recordsPropertyName;
+  private boolean started = false;
+  private int totalRecords = 0;
+  private Throwable closedBecause;
+  private CompletableFuture<Void> drained;
+
+  public StreamingJsonArrayResponse(HttpServerResponse response,
+    String recordsPropertyName) {
+
+    this.response = response;
+    this.recordsPropertyName = recordsPropertyName;
+
+    response.closeHandler(notUsed -> closed(new IllegalStateException(
+      "Connection was closed before all records were written")));
+    response.exceptionHandler(this::closed);
+  }
+
+  /**
+   * @return whether no more records can be written, because the connection
+   * was closed or writing failed
+   */
+  public synchronized boolean isClosed() {
+    return closedBecause != null;
+  }
+
+  /**
+   * @param records  next batch of records
+   * @return completes when the response can take more records
+   */
+  public synchronized CompletableFuture<Void> write(Collection<JsonObject> records) {
+    if (isClosed()) {
+      return failedToWrite();
+    }
+
+    start();
+
+    final Buffer buffer = Buffer.buffer();
+
+    for (JsonObject record : records) {
+      if (totalRecords > 0) {
+        buffer.appendString(",");
+      }
+
+      buffer.appendBuffer(JsonEncoding.encode(record));
+      totalRecords++;
+    }
+
+    response.write(buffer);
+
+    if (!response.writeQueueFull()) {
+      return completedFuture(null);
+    }
+
+    final CompletableFuture<Void> writable = new CompletableFuture<>();
+
+    drained = writable;
+
+    response.drainHandler(notUsed -> writeQueueDrained());
+
+    return writable;
+  }
+
+  public synchronized void end() {
+    if (isClosed()) {
+      return;
+    }
+
+    start();
+
+    response.end(String.format("],\"totalRecords\":%d}", totalRecords));
+  }
+
+  /**
+   * Write the failure if no records have been written yet, otherwise
+   * the response cannot be completed and the connection is closed.
+   */
+  public synchronized void fail(HttpFailure failure) {
+    if (isClosed()) {
+      log.warn("Failed after connection was closed: {}", failure);
+      return;
+    }
+
+    if (!started) {
+      failure.writeTo(response);
+      return;
+    }
+
+    log.error("Failed after writing {} records: {}", totalRecords, failure);
+
+    response.close();
+  }
+
+  private synchronized void writeQueueDrained() {
+    if (drained != null) {
+      drained.complete(null);
+      drained = null;
+    }
+  }
+
+  private synchronized void closed(Throwable cause) {
+    if (isClosed()) {
+      return;
+    }
+
+    log.warn("Stopped writing after {} records", totalRecords, cause);
+
+    closedBecause = cause;
+
+    if (drained != null) {
+      drained.completeExceptionally(cause);
+      drained = null;
+    }
+  }
+
+  private CompletableFuture<Void> failedToWrite() {
+    final CompletableFuture<Void> failed = new CompletableFuture<>();
+
+    failed.completeExceptionally(closedBecause);
+
+    return failed;
+  }
+
+  private void start() {
+    if (started) {
+      return;
+    }
+
+    started = true;
+
+    response.setStatusCode(200);
+    response.setChunked(true);
+    response.putHeader("content-type", "application/json; charset=utf-8");
+    response.write(String.format("{\"%s\":[", recordsPropertyName));
+  }
+}
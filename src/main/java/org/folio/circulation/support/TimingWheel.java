@@ -0,0 +1,185 @@
+package org.folio.circulation.support;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel, holding items until the time they are due.
+ * <p>
+ * Each wheel has a fixed number of buckets of one tick each. Items due
+ * beyond the span of a wheel are held by an overflow wheel whose ticks span
+ * the whole of the wheel below it, and are moved down when that wheel
+ * reaches their bucket. Adding an item and advancing a tick take constant
+ * time, however many items are held.
+ * <p>
+ * Items are returned once the time they are due has passed, at most one
+ * tick late. This class is not thread safe.
+ */
+public class TimingWheel<T> {
+  private final long tickMilliseconds;
+  private final int wheelSize;
+  private final long intervalMilliseconds;
+  private final List<List<Entry<T>>> buckets;
+
+  private long currentTime;
+  private int size = 0;
+  private TimingWheel<T> overflowWheel;
+
+  /**
+   * @param tickMilliseconds  span of each bucket
+   * @param wheelSize  number of buckets of each wheel, at least two
+   * @param startTime  time to start from, in milliseconds since the epoch
+   */
+  public TimingWheel(long tickMilliseconds, int wheelSize, long startTime) {
+    if (tickMilliseconds < 1 || wheelSize < 2) {
+      throw new IllegalArgumentException(
+        "Timing wheel must have a positive tick and at least two buckets");
+    }
+
+    this.tickMilliseconds = tickMilliseconds;
+    this.wheelSize = wheelSize;
+    this.intervalMilliseconds = tickMilliseconds * wheelSize;
+    this.currentTime = startTime - Math.floorMod(startTime, tickMilliseconds);
+    this.buckets = new ArrayList<>(wheelSize);
+
+    for (int index = 0; index < wheelSize; index++) {
+      buckets.add(new ArrayList<>());
+    }
+  }
+
+  /**
+   * Hold the item until it is due, an item that is already due is returned
+   * by the next advance
+   *
+   * @param item  item to hold
+   * @param dueAt  time the item is due, in milliseconds since the epoch
+   */
+  public void add(T item, long dueAt) {
+    add(new Entry<>(item, dueAt));
+  }
+
+  /**
+   * Advance the wheel to the given time
+   *
+   * @param now  time to advance to, in milliseconds since the epoch
+   * @return the items that are due by then, in no particular order
+   */
+  public List<T> advanceTo(long now) {
+    final List<T> due = new ArrayList<>();
+
+    if (size == 0) {
+      alignTo(now);
+      return due;
+    }
+
+    while (true) {
+      final List<Entry<T>> bucket = bucketFor(currentTime);
+
+      bucket.removeIf(entry -> {
+        if (entry.dueAt <= now) {
+          due.add(entry.item);
+          size--;
+          return true;
+        }
+        return false;
+      });
+
+      if (now < currentTime + tickMilliseconds) {
+        return due;
+      }
+
+      advanceTick(currentTime + tickMilliseconds);
+
+      if (size == 0) {
+        alignTo(now);
+        return due;
+      }
+    }
+  }
+
+  /**
+   * @return how many items are held, including those held by overflow wheels
+   */
+  public int size() {
+    return size;
+  }
+
+  private void add(Entry<T> entry) {
+    size++;
+
+    if (entry.dueAt < currentTime + intervalMilliseconds) {
+      bucketFor(Math.max(entry.dueAt, currentTime)).add(entry);
+    }
+    else {
+      overflowWheel().add(entry);
+    }
+  }
+
+  /**
+   * Move the start of the current tick to the given time, moving the items
+   * of the overflow wheel that are now within the span of this wheel down
+   */
+  private void advanceTick(long time) {
+    currentTime = time;
+
+    if (overflowWheel != null
+      && Math.floorMod(time, intervalMilliseconds) == 0) {
+
+      final List<Entry<T>> cascaded = overflowWheel.takeBucketAt(time);
+
+      size -= cascaded.size();
+      cascaded.forEach(this::add);
+    }
+  }
+
+  /**
+   * Advance an overflow wheel to the given time
+   *
+   * @return the items in the bucket at that time, which are taken out of
+   * the wheel
+   */
+  private List<Entry<T>> takeBucketAt(long time) {
+    advanceTick(time);
+
+    final List<Entry<T>> bucket = bucketFor(time);
+    final List<Entry<T>> taken = new ArrayList<>(bucket);
+
+    bucket.clear();
+    size -= taken.size();
+
+    return taken;
+  }
+
+  private void alignTo(long now) {
+    if (now > currentTime) {
+      currentTime = now - Math.floorMod(now, tickMilliseconds);
+    }
+
+    if (overflowWheel != null) {
+      overflowWheel.alignTo(now);
+    }
+  }
+
+  private TimingWheel<T> overflowWheel() {
+    if (overflowWheel == null) {
+      overflowWheel = new TimingWheel<>(intervalMilliseconds, wheelSize, currentTime);
+    }
+
+    return overflowWheel;
+  }
+
+  private List<Entry<T>> bucketFor(long time) {
+    return buckets.get((int) Math.floorMod(
+      Math.floorDiv(time, tickMilliseconds), (long) wheelSize));
+  }
+
+  private static class Entry<T> {
+    private final T item;
+    private final long dueAt;
+
+    private Entry(T item, long dueAt) {
+      this.item = item;
+      this.dueAt = dueAt;
+    }
+  }
+}
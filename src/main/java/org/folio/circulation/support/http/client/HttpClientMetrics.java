@@ -0,0 +1,113 @@
+package org.folio.circulation.support.http.client;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Counts the requests made with the shared HTTP client, to tell how busy its
+ * connection pool is.
+ * <p>
+ * A request is waiting from when it is made until its headers are sent,
+ * which is only once it has been given a connection, and is then counted as
+ * using that connection until the response arrives or the request fails.
+ */
+public class HttpClientMetrics {
+  private final LongSupplier nanoClock;
+  private final AtomicInteger waiting = new AtomicInteger();
+  private final AtomicInteger inUse = new AtomicInteger();
+  private final AtomicLong requests = new AtomicLong();
+  private final AtomicLong failures = new AtomicLong();
+  private final AtomicLong connected = new AtomicLong();
+  private final AtomicLong totalWaitNanoseconds = new AtomicLong();
+  private final AtomicLong maximumWaitNanoseconds = new AtomicLong();
+
+  public HttpClientMetrics() {
+    this(System::nanoTime);
+  }
+
+  HttpClientMetrics(LongSupplier nanoClock) {
+    this.nanoClock = nanoClock;
+  }
+
+  public TrackedRequest requestStarted() {
+    waiting.incrementAndGet();
+    requests.incrementAndGet();
+
+    return new TrackedRequest(nanoClock.getAsLong());
+  }
+
+  /**
+   * @return the current counts, and the wait times since the previous snapshot
+   */
+  public JsonObject snapshot() {
+    final long connectedRequests = connected.getAndSet(0);
+    final long totalWait = totalWaitNanoseconds.getAndSet(0);
+    final long maximumWait = maximumWaitNanoseconds.getAndSet(0);
+
+    return new JsonObject()
+      .put("inUse", inUse.get())
+      .put("waiting", waiting.get())
+      .put("requests", requests.get())
+      .put("failures", failures.get())
+      .put("averageWaitMilliseconds", connectedRequests == 0
+        ? 0 : toMilliseconds(totalWait / connectedRequests))
+      .put("maximumWaitMilliseconds", toMilliseconds(maximumWait));
+  }
+
+  private static long toMilliseconds(long nanoseconds) {
+    return TimeUnit.NANOSECONDS.toMillis(nanoseconds);
+  }
+
+  public class TrackedRequest {
+    private final long started;
+    private boolean isConnected = false;
+    private boolean isFinished = false;
+
+    private TrackedRequest(long started) {
+      this.started = started;
+    }
+
+    public synchronized void connected() {
+      if (isConnected || isFinished) {
+        return;
+      }
+
+      isConnected = true;
+
+      final long waited = nanoClock.getAsLong() - started;
+
+      waiting.decrementAndGet();
+      inUse.incrementAndGet();
+      connected.incrementAndGet();
+      totalWaitNanoseconds.addAndGet(waited);
+      maximumWaitNanoseconds.accumulateAndGet(waited, Math::max);
+    }
+
+    public synchronized void finished() {
+      if (isFinished) {
+        return;
+      }
+
+      isFinished = true;
+
+      if (isConnected) {
+        inUse.decrementAndGet();
+      }
+      else {
+        waiting.decrementAndGet();
+      }
+    }
+
+    public synchronized void failed() {
+      if (!isFinished) {
+        failures.incrementAndGet();
+      }
+
+      finished();
+    }
+  }
+}
@@ -0,0 +1,116 @@
+package org.folio.circulation.support.http.client;
+
+import io.vertx.core.http.HttpClientOptions;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpVersion;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Settings of the HTTP client shared by all requests to Okapi, read from the
+ * "httpClient" verticle configuration. Any setting that is not present
+ * keeps its default.
+ * <p>
+ * The timeouts of each HTTP method are idle timeouts, a request fails if no
+ * response data is received for that many milliseconds, zero means no timeout.
+ */
+public class HttpClientProfile {
+  private final int maxPoolSize;
+  private final int maxWaitQueueSize;
+  private final boolean keepAlive;
+  private final int keepAliveTimeoutSeconds;
+  private final boolean pipelining;
+  private final int pipeliningLimit;
+  private final boolean http2;
+  private final int http2MultiplexingLimit;
+  private final int http2MaxPoolSize;
+  private final int connectTimeoutMilliseconds;
+  private final int idleTimeoutSeconds;
+  private final long getTimeoutMilliseconds;
+  private final long postTimeoutMilliseconds;
+  private final long putTimeoutMilliseconds;
+  private final long deleteTimeoutMilliseconds;
+  private final int metricsLogIntervalSeconds;
+
+  private HttpClientProfile(JsonObject settings) {
+    // bump up the connection pool size from the default value of 5
+    maxPoolSize = settings.getInteger("maxPoolSize", 100);
+    maxWaitQueueSize = settings.getInteger("maxWaitQueueSize",
+      HttpClientOptions.DEFAULT_MAX_WAIT_QUEUE_SIZE);
+    keepAlive = settings.getBoolean("keepAlive", HttpClientOptions.DEFAULT_KEEP_ALIVE);
+    keepAliveTimeoutSeconds = settings.getInteger("keepAliveTimeoutSeconds",
+      HttpClientOptions.DEFAULT_KEEP_ALIVE_TIMEOUT);
+    pipelining = settings.getBoolean("pipelining", HttpClientOptions.DEFAULT_PIPELINING);
+    pipeliningLimit = settings.getInteger("pipeliningLimit",
+      HttpClientOptions.DEFAULT_PIPELINING_LIMIT);
+    http2 = settings.getBoolean("http2", false);
+    http2MultiplexingLimit = settings.getInteger("http2MultiplexingLimit",
+      HttpClientOptions.DEFAULT_HTTP2_MULTIPLEXING_LIMIT);
+    http2MaxPoolSize = settings.getInteger("http2MaxPoolSize",
+      HttpClientOptions.DEFAULT_HTTP2_MAX_POOL_SIZE);
+    connectTimeoutMilliseconds = settings.getInteger("connectTimeoutMilliseconds",
+      HttpClientOptions.DEFAULT_CONNECT_TIMEOUT);
+    idleTimeoutSeconds = settings.getInteger("idleTimeoutSeconds",
+      HttpClientOptions.DEFAULT_IDLE_TIMEOUT);
+    getTimeoutMilliseconds = settings.getLong("getTimeoutMilliseconds", 0L);
+    postTimeoutMilliseconds = settings.getLong("postTimeoutMilliseconds", 5000L);
+    putTimeoutMilliseconds = settings.getLong("putTimeoutMilliseconds", 0L);
+    deleteTimeoutMilliseconds = settings.getLong("deleteTimeoutMilliseconds", 0L);
+    metricsLogIntervalSeconds = settings.getInteger("metricsLogIntervalSeconds", 0);
+  }
+
+  public static HttpClientProfile defaultProfile() {
+    return from(new JsonObject());
+  }
+
+  public static HttpClientProfile from(JsonObject settings) {
+    return new HttpClientProfile(settings == null ? new JsonObject() : settings);
+  }
+
+  public HttpClientOptions toHttpClientOptions() {
+    final HttpClientOptions options = new HttpClientOptions()
+      .setMaxPoolSize(maxPoolSize)
+      .setMaxWaitQueueSize(maxWaitQueueSize)
+      .setKeepAlive(keepAlive)
+      .setKeepAliveTimeout(keepAliveTimeoutSeconds)
+      .setPipelining(pipelining)
+      .setPipeliningLimit(pipeliningLimit)
+      .setHttp2MultiplexingLimit(http2MultiplexingLimit)
+      .setHttp2MaxPoolSize(http2MaxPoolSize)
+      .setConnectTimeout(connectTimeoutMilliseconds)
+      .setIdleTimeout(idleTimeoutSeconds);
+
+    if (http2) {
+      // Okapi is reached over plain HTTP, so HTTP/2 is negotiated by upgrading
+      options.setProtocolVersion(HttpVersion.HTTP_2)
+        .setHttp2ClearTextUpgrade(true);
+    }
+
+    return options;
+  }
+
+  /**
+   * @return the idle timeout of requests using the method, zero for none
+   */
+  public long getTimeoutMilliseconds(HttpMethod method) {
+    switch (method) {
+      case GET:
+        return getTimeoutMilliseconds;
+      case POST:
+        return postTimeoutMilliseconds;
+      case PUT:
+        return putTimeoutMilliseconds;
+      case DELETE:
+        return deleteTimeoutMilliseconds;
+      default:
+        return 0;
+    }
+  }
+
+  public int getMaxPoolSize() {
+    return http2 ? http2MaxPoolSize : maxPoolSize;
+  }
+
+  public int getMetricsLogIntervalSeconds() {
+    return metricsLogIntervalSeconds;
+  }
+}
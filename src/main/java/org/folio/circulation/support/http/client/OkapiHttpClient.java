@@ -12,14 +12,17 @@ import java.net.URL;
 import java.util.function.Consumer;
 
 import org.apache.commons.lang.StringUtils;
+import org.folio.circulation.infrastructure.serialization.JsonEncoding;
+import org.folio.circulation.support.http.client.HttpClientMetrics.TrackedRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.http.HttpClient;
 import io.vertx.core.http.HttpClientRequest;
 import io.vertx.core.http.HttpClientResponse;
-import io.vertx.core.json.Json;
+import io.vertx.core.http.HttpMethod;
 
 public class OkapiHttpClient {
   private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
@@ -32,6 +35,9 @@ public class OkapiHttpClient {
   private final String requestId;
   private final Consumer<Throwable> exceptionHandler;
 
+  private static volatile HttpClientProfile profile = HttpClientProfile.defaultProfile();
+  private static final HttpClientMetrics metrics = new HttpClientMetrics();
+
   public OkapiHttpClient(
     HttpClient httpClient,
     URL okapiUrl,
@@ -55,27 +61,17 @@ public class OkapiHttpClient {
     Object body,
     Handler<HttpClientResponse> responseHandler) {
 
-    HttpClientRequest request = client.postAbs(url.toString(), responseHandler);
-
-    addJsonContentTypeHeader(request);
-
-    addStandardHeaders(request);
-
-    request.setTimeout(5000);
-
-    request.exceptionHandler(this.exceptionHandler::accept);
+    Buffer encodedBody = null;
 
     if(body != null) {
       //TODO: Catch encoding exceptions here
-      String encodedBody = Json.encodePrettily(body);
+      encodedBody = JsonEncoding.encode(body);
 
-      log.info("POST {}, Request: {}", url, encodedBody);
-
-      request.end(encodedBody);
-    }
-    else {
-      request.end();
+      logRequest(HttpMethod.POST, url.toString(), encodedBody);
     }
+
+    send(HttpMethod.POST, url.toString(), encodedBody, responseHandler,
+      exceptionHandler);
   }
 
   public void put(
@@ -91,20 +87,12 @@ public class OkapiHttpClient {
     Object body,
     Handler<HttpClientResponse> responseHandler) {
 
-    HttpClientRequest request = client.putAbs(url, responseHandler);
-
-    addJsonContentTypeHeader(request);
-
-    addStandardHeaders(request);
-
-    request.exceptionHandler(this.exceptionHandler::accept);
-
     //TODO: Catch encoding exceptions here
-    String encodedBody = Json.encodePrettily(body);
+    Buffer encodedBody = JsonEncoding.encode(body);
 
-    log.info("PUT {}, Request: {}", url, encodedBody);
+    logRequest(HttpMethod.PUT, url, encodedBody);
 
-    request.end(encodedBody);
+    send(HttpMethod.PUT, url, encodedBody, responseHandler, exceptionHandler);
   }
 
   public void get(URL url, Handler<HttpClientResponse> responseHandler) {
@@ -124,15 +112,22 @@ public class OkapiHttpClient {
   }
 
   public void get(String url, Handler<HttpClientResponse> responseHandler) {
-    log.info("GET {}", url);
-
-    HttpClientRequest request = client.getAbs(url, responseHandler);
+    get(url, responseHandler, exception -> { });
+  }
 
-    addStandardHeaders(request);
+  /**
+   * @param failureHandler  also told when the request fails, as well as the
+   * exception handler of this client
+   */
+  public void get(
+    String url,
+    Handler<HttpClientResponse> responseHandler,
+    Consumer<Throwable> failureHandler) {
 
-    request.exceptionHandler(exceptionHandler::accept);
+    log.info("GET {}", url);
 
-    request.end();
+    send(HttpMethod.GET, url, null, responseHandler,
+      exceptionHandler.andThen(failureHandler));
   }
 
   public void delete(URL url, Handler<HttpClientResponse> responseHandler) {
@@ -141,14 +136,97 @@ public class OkapiHttpClient {
   }
 
   public void delete(String url, Handler<HttpClientResponse> responseHandler) {
+    send(HttpMethod.DELETE, url, null, responseHandler, exceptionHandler);
+  }
+
+  private void send(
+    HttpMethod method,
+    String url,
+    Buffer encodedBody,
+    Handler<HttpClientResponse> responseHandler,
+    Consumer<Throwable> failureHandler) {
 
-    HttpClientRequest request = client.deleteAbs(url, responseHandler);
+    final TrackedRequest trackedRequest = metrics.requestStarted();
+
+    HttpClientRequest request = client.requestAbs(method, url, response -> {
+      trackedRequest.finished();
+      responseHandler.handle(response);
+    });
+
+    if(hasBody(method)) {
+      addJsonContentTypeHeader(request);
+    }
 
     addStandardHeaders(request);
 
-    request.exceptionHandler(this.exceptionHandler::accept);
+    final long timeout = profile.getTimeoutMilliseconds(method);
+
+    if(timeout > 0) {
+      request.setTimeout(timeout);
+    }
+
+    request.exceptionHandler(exception -> {
+      trackedRequest.failed();
+      failureHandler.accept(exception);
+    });
+
+    final Buffer body = encodedBody != null ? encodedBody : Buffer.buffer();
+
+    // the length has to be known when the head is sent before the body
+    if(hasBody(method)) {
+      request.putHeader("Content-Length", String.valueOf(body.length()));
+    }
+
+    // the head is only sent once the request has been given a connection
+    request.sendHead(version -> trackedRequest.connected());
+
+    if(hasBody(method)) {
+      request.end(body);
+    }
+    else {
+      request.end();
+    }
+  }
+
+  private static void logRequest(HttpMethod method, String url, Buffer body) {
+    if(log.isDebugEnabled()) {
+      log.debug("{} {}, Request: {}", method, url, JsonEncoding.forLogging(body));
+    }
+    else {
+      log.info("{} {}, Request: {} bytes", method, url, body.length());
+    }
+  }
+
+  private static boolean hasBody(HttpMethod method) {
+    return method == HttpMethod.POST || method == HttpMethod.PUT;
+  }
+
+  /**
+   * Handle the failure of a request made on behalf of this client by another
+   * client, the same way as the failure of a request made by this client
+   */
+  public void reportFailure(Throwable exception) {
+    exceptionHandler.accept(exception);
+  }
+
+  public String getTenantId() {
+    return tenantId;
+  }
+
+  public String getToken() {
+    return token;
+  }
+
+  /**
+   * Set the profile the shared HTTP client was created with, which includes
+   * the timeouts of requests made from now on
+   */
+  public static void setProfile(HttpClientProfile newProfile) {
+    profile = newProfile;
+  }
 
-    request.end();
+  public static HttpClientMetrics getMetrics() {
+    return metrics;
   }
 
   private void addStandardHeaders(HttpClientRequest request) {
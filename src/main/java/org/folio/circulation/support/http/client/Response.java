@@ -10,12 +10,19 @@ import io.vertx.core.http.CaseInsensitiveHeaders;
 import io.vertx.core.http.HttpClientResponse;
 import io.vertx.core.json.JsonObject;
 
+/**
+ * A response from another module. The body is kept as received, and is only
+ * decoded or parsed when first needed, after which the text or JSON is reused.
+ */
 public class Response {
-  protected final String body;
+  private final Buffer bodyBuffer;
   private final int statusCode;
   private final String contentType;
   private final CaseInsensitiveHeaders headers;
   private final String fromUrl;
+  private final Response original;
+  private String body;
+  private JsonObject json;
 
   public Response(int statusCode, String body, String contentType) {
     this(statusCode, body, contentType, new CaseInsensitiveHeaders(), null);
@@ -28,11 +35,34 @@ public class Response {
     CaseInsensitiveHeaders headers,
     String fromUrl) {
 
+    this(statusCode, null, body, contentType, headers, fromUrl);
+  }
+
+  private Response(
+    int statusCode,
+    Buffer bodyBuffer,
+    String body,
+    String contentType,
+    CaseInsensitiveHeaders headers,
+    String fromUrl) {
+
     this.statusCode = statusCode;
+    this.bodyBuffer = bodyBuffer;
     this.body = body;
     this.contentType = contentType;
     this.headers = headers;
     this.fromUrl = fromUrl;
+    this.original = null;
+  }
+
+  private Response(Response original) {
+    this.statusCode = original.statusCode;
+    this.bodyBuffer = original.bodyBuffer;
+    this.body = original.body;
+    this.contentType = original.contentType;
+    this.headers = original.headers;
+    this.fromUrl = original.fromUrl;
+    this.original = original;
   }
 
   public static Response from(HttpClientResponse response, Buffer body) {
@@ -46,13 +76,16 @@ public class Response {
 
     headers.addAll(response.headers());
 
-    return new Response(response.statusCode(),
-      BufferHelper.stringFromBuffer(body),
+    return new Response(response.statusCode(), body, null,
       convertNullToEmpty(response.getHeader(CONTENT_TYPE)),
       headers, fromUrl);
   }
 
   public boolean hasBody() {
+    if(body == null && bodyBuffer != null) {
+      return !isBlank(bodyBuffer);
+    }
+
     return StringUtils.isNotBlank(getBody());
   }
 
@@ -61,16 +94,56 @@ public class Response {
   }
 
   public String getBody() {
+    if(body == null && bodyBuffer != null) {
+      body = BufferHelper.stringFromBuffer(bodyBuffer);
+    }
+
     return body;
   }
 
-  public JsonObject getJson() {
-    if(hasBody()) {
-      return new JsonObject(getBody());
+  /**
+   * The body is only parsed the first time, and the same JSON is returned
+   * from then on, so it should be copied before being changed
+   */
+  public synchronized JsonObject getJson() {
+    if(json == null) {
+      json = original != null
+        ? original.getJson().copy()
+        : parseJson();
     }
-    else {
+
+    return json;
+  }
+
+  /**
+   * @return a response with the same body for another recipient, the JSON is
+   * only parsed by this response and each copy gets its own copy of it
+   */
+  public Response copy() {
+    return new Response(this);
+  }
+
+  private JsonObject parseJson() {
+    if(!hasBody()) {
       return new JsonObject();
     }
+
+    // parse the bytes as received, unless the text has already been decoded
+    if(body == null) {
+      return new JsonObject(bodyBuffer);
+    }
+
+    return new JsonObject(body);
+  }
+
+  private static boolean isBlank(Buffer buffer) {
+    for (int index = 0; index < buffer.length(); index++) {
+      if(!Character.isWhitespace(buffer.getByte(index))) {
+        return false;
+      }
+    }
+
+    return true;
   }
 
   public String getContentType() {
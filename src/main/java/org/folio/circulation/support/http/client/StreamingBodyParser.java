@@ -0,0 +1,17 @@
+package org.folio.circulation.support.http.client;
+
+import org.folio.circulation.support.Result;
+
+import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
+
+/**
+ * Parses the body of a response one chunk at a time as it arrives, rather
+ * than once all of it has been received.
+ */
+public interface StreamingBodyParser<T> extends Handler<Buffer> {
+  /**
+   * @return the result of parsing the whole body, once all of it has arrived
+   */
+  Result<T> end();
+}
@@ -6,16 +6,21 @@ import static org.folio.circulation.support.http.OkapiHeader.TENANT;
 import static org.folio.circulation.support.http.OkapiHeader.TOKEN;
 import static org.folio.circulation.support.http.OkapiHeader.USER_ID;
 
+import java.lang.invoke.MethodHandles;
 import java.net.MalformedURLException;
 import java.net.URL;
 
 import org.folio.circulation.support.InvalidOkapiLocationException;
 import org.folio.circulation.support.http.client.OkapiHttpClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import io.vertx.core.http.HttpClient;
 import io.vertx.ext.web.RoutingContext;
 
 public class WebContext {
+  private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
   private final RoutingContext routingContext;
 
   public WebContext(RoutingContext routingContext) {
@@ -76,19 +81,33 @@ public class WebContext {
   }
 
   public OkapiHttpClient createHttpClient(HttpClient httpClient) {
-    URL okapiUrl;
+    return new OkapiHttpClient(httpClient,
+      getOkapiUrl(), getTenantId(), getOkapiToken(), getUserId(),
+      getRequestId(), exception -> ServerErrorResponse.internalError(routingContext.response(),
+        String.format("Failed to contact storage module: %s",
+          exception.toString())));
+  }
 
+  /**
+   * Create a client for use after this request has been responded to, which
+   * only keeps the tenant, Okapi location and token of the request, and logs
+   * failures to contact other modules rather than responding with them
+   */
+  public OkapiHttpClient createDetachedHttpClient(HttpClient httpClient) {
+    final String tenantId = getTenantId();
+
+    return new OkapiHttpClient(httpClient,
+      getOkapiUrl(), tenantId, getOkapiToken(), "", "",
+      exception -> log.error("Failed to contact storage module for tenant {}",
+        tenantId, exception));
+  }
+
+  private URL getOkapiUrl() {
     try {
-      okapiUrl = new URL(getOkapiLocation());
+      return new URL(getOkapiLocation());
     }
     catch(MalformedURLException e) {
       throw new InvalidOkapiLocationException(getOkapiLocation(), e);
     }
-
-    return new OkapiHttpClient(httpClient,
-      okapiUrl, getTenantId(), getOkapiToken(), getUserId(),
-      getRequestId(), exception -> ServerErrorResponse.internalError(routingContext.response(),
-        String.format("Failed to contact storage module: %s",
-          exception.toString())));
   }
 }
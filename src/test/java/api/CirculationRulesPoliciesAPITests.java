@@ -0,0 +1,159 @@
+package api;
+
+import static api.support.http.InterfaceUrls.circulationRulesUrl;
+import static api.support.matchers.ValidationErrorMatchers.hasErrorWith;
+import static api.support.matchers.ValidationErrorMatchers.hasMessage;
+import static api.support.matchers.ValidationErrorMatchers.hasParameter;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+import java.net.MalformedURLException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.folio.circulation.rules.CirculationRulesProcessor;
+import org.folio.circulation.support.http.client.IndividualResource;
+import org.folio.circulation.support.http.client.Response;
+import org.folio.circulation.support.http.client.ResponseHandler;
+import org.junit.Before;
+import org.junit.Test;
+
+import api.support.APITests;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+public class CirculationRulesPoliciesAPITests extends APITests {
+  private static final String MATERIAL_TYPE_ID = "96d4bdf1-5fc2-40ef-9ace-6d7e3e48ec4d";
+  private static final String OTHER_MATERIAL_TYPE_ID = "b6375fcb-caaf-4b94-944d-b1a6bb589425";
+  private static final String LOAN_TYPE_ID = "2e6f51b9-d00a-4f1d-9960-49b1977acfca";
+  private static final String PATRON_GROUP_ID = "0122feae-bd0e-4405-88de-525d93ba7cfd";
+
+  private static final String FALLBACK_LOAN_POLICY_ID = "6a475259-8a97-4992-a415-76440f5f7c23";
+  private static final String MATERIAL_TYPE_LOAN_POLICY_ID = "f6f88da8-2aaf-48c7-944e-0de3f4cc2368";
+  private static final String REQUEST_POLICY_ID = "52069c78-75f6-4de5-bec0-85b87fbf9414";
+  private static final String NOTICE_POLICY_ID = "662cb440-c66b-46ba-b70f-7ebff4026644";
+  private static final String OVERDUE_POLICY_ID = "eadea55e-0e6f-4d77-a1b3-0a434a1bf4a9";
+  private static final String LOST_ITEM_POLICY_ID = "314b5112-284a-4552-973e-a5618f510fa9";
+
+  private final IndividualResource mainFloor = locationsFixture.mainFloor();
+
+  public CirculationRulesPoliciesAPITests()
+    throws InterruptedException, MalformedURLException, TimeoutException,
+    ExecutionException {
+
+    super(false);
+  }
+
+  @Before
+  public void setUp() throws Exception {
+    CirculationRulesProcessor.dropCache();
+
+    final String otherPolicies = " r " + REQUEST_POLICY_ID + " n " + NOTICE_POLICY_ID
+      + " o " + OVERDUE_POLICY_ID + " i " + LOST_ITEM_POLICY_ID;
+
+    circulationRulesFixture.updateCirculationRules(String.join("\n",
+      "priority: t, s, c, b, a, m, g",
+      "fallback-policy: l " + FALLBACK_LOAN_POLICY_ID + otherPolicies,
+      "m " + MATERIAL_TYPE_ID + ": l " + MATERIAL_TYPE_LOAN_POLICY_ID + otherPolicies));
+  }
+
+  @Test
+  public void canGetPoliciesForManyCombinations()
+    throws InterruptedException, ExecutionException, TimeoutException {
+
+    final JsonArray parameters = new JsonArray()
+      .add(parameters(MATERIAL_TYPE_ID, LOAN_TYPE_ID))
+      .add(parameters(OTHER_MATERIAL_TYPE_ID, LOAN_TYPE_ID));
+
+    final Response response = postPolicies(
+      new JsonObject().put("parameters", parameters));
+
+    assertThat(response.getBody(), response.getStatusCode(), is(200));
+
+    final JsonArray policies = response.getJson().getJsonArray("policies");
+
+    assertThat(policies.size(), is(2));
+
+    final JsonObject first = policies.getJsonObject(0);
+
+    assertThat(first.getString("itemTypeId"), is(MATERIAL_TYPE_ID));
+    assertThat(first.getString("loanTypeId"), is(LOAN_TYPE_ID));
+    assertThat(first.getString("patronTypeId"), is(PATRON_GROUP_ID));
+    assertThat(first.getString("locationId"), is(mainFloor.getId().toString()));
+    assertThat(first.getString("loanPolicyId"), is(MATERIAL_TYPE_LOAN_POLICY_ID));
+    assertThat(first.getString("requestPolicyId"), is(REQUEST_POLICY_ID));
+    assertThat(first.getString("noticePolicyId"), is(NOTICE_POLICY_ID));
+    assertThat(first.getString("overduePolicyId"), is(OVERDUE_POLICY_ID));
+    assertThat(first.getString("lostItemPolicyId"), is(LOST_ITEM_POLICY_ID));
+    assertThat(first.getInteger("circulationRuleLine"), is(3));
+
+    final JsonObject second = policies.getJsonObject(1);
+
+    assertThat(second.getString("itemTypeId"), is(OTHER_MATERIAL_TYPE_ID));
+    assertThat(second.getString("loanPolicyId"), is(FALLBACK_LOAN_POLICY_ID));
+    assertThat(second.getInteger("circulationRuleLine"), is(2));
+  }
+
+  @Test
+  public void cannotGetPoliciesWhenAnIdIsNotAValidUuid()
+    throws InterruptedException, ExecutionException, TimeoutException {
+
+    final JsonArray parameters = new JsonArray()
+      .add(parameters(MATERIAL_TYPE_ID, LOAN_TYPE_ID))
+      .add(parameters(MATERIAL_TYPE_ID, "not-a-uuid"));
+
+    final Response response = postPolicies(
+      new JsonObject().put("parameters", parameters));
+
+    assertThat(response.getBody(), response.getStatusCode(), is(422));
+
+    assertThat(response.getJson(), hasErrorWith(hasMessage(
+      "A valid UUID is required")));
+
+    assertThat(response.getJson(), hasErrorWith(hasParameter(
+      "loanTypeId", "not-a-uuid")));
+  }
+
+  @Test
+  public void cannotGetPoliciesForMoreThanMaximumNumberOfCombinations()
+    throws InterruptedException, ExecutionException, TimeoutException {
+
+    final JsonArray parameters = new JsonArray();
+
+    for (int index = 0; index < 1001; index++) {
+      parameters.add(parameters(MATERIAL_TYPE_ID, LOAN_TYPE_ID));
+    }
+
+    final Response response = postPolicies(
+      new JsonObject().put("parameters", parameters));
+
+    assertThat(response.getBody(), response.getStatusCode(), is(422));
+
+    assertThat(response.getJson(), hasErrorWith(hasMessage(
+      "At most 1000 parameters are allowed")));
+
+    assertThat(response.getJson(), hasErrorWith(hasParameter(
+      "parameters", "1001")));
+  }
+
+  private JsonObject parameters(String itemTypeId, String loanTypeId) {
+    return new JsonObject()
+      .put("itemTypeId", itemTypeId)
+      .put("loanTypeId", loanTypeId)
+      .put("patronTypeId", PATRON_GROUP_ID)
+      .put("locationId", mainFloor.getId().toString());
+  }
+
+  private Response postPolicies(JsonObject body)
+    throws InterruptedException, ExecutionException, TimeoutException {
+
+    final CompletableFuture<Response> completed = new CompletableFuture<>();
+
+    client.post(circulationRulesUrl("/policies"), body,
+      ResponseHandler.any(completed));
+
+    return completed.get(10, TimeUnit.SECONDS);
+  }
+}
@@ -19,6 +19,10 @@ import api.support.builders.NoticePolicyBuilder;
 import api.support.fixtures.LostItemFeePoliciesFixture;
 import api.support.fixtures.UserManualBlocksFixture;
 import api.support.fixtures.OverdueFinePoliciesFixture;
+import org.folio.circulation.domain.ConfigurationRepository;
+import org.folio.circulation.domain.LocationRepository;
+import org.folio.circulation.domain.ServicePointRepository;
+import org.folio.circulation.domain.policy.PolicyCaches;
 import org.folio.circulation.domain.representations.LoanProperties;
 import org.folio.circulation.support.http.client.IndividualResource;
 import org.folio.circulation.support.http.client.OkapiHttpClient;
@@ -246,6 +250,7 @@ public abstract class APITests {
     holdingsClient.deleteAll();
     instancesClient.deleteAll();
     configClient.deleteAll();
+    ConfigurationRepository.clearCache();
 
     //TODO: Only cleans up reference records, move items, holdings records
     // and instances into here too
@@ -298,6 +303,10 @@ public abstract class APITests {
 
     locationsFixture.cleanUp();
     servicePointsFixture.cleanUp();
+    LocationRepository.clearCache();
+    ServicePointRepository.clearCache();
+    PolicyCaches.clearCache();
+    ConfigurationRepository.clearCache();
 
     loanPoliciesFixture.cleanUp();
 
@@ -0,0 +1,143 @@
+package org.folio.circulation.domain;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.folio.circulation.support.Result.failed;
+import static org.folio.circulation.support.Result.succeeded;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.folio.circulation.support.Result;
+import org.folio.circulation.support.ServerErrorFailure;
+import org.junit.Test;
+
+import io.vertx.core.json.JsonObject;
+
+public class ItemsReportFetcherTests {
+  private final List<MultipleRecords<Item>> consumedPages = new ArrayList<>();
+
+  @Test
+  public void fetchesEveryPageWhenTheyArriveImmediately() {
+    final List<Integer> requestedPages = new ArrayList<>();
+
+    final CompletableFuture<Result<Integer>> fetched = new ItemsReportFetcher(
+      pageNumber -> {
+        requestedPages.add(pageNumber);
+        return completedFuture(succeeded(page(pageNumber, 10, 250)));
+      }, 10, 3, consumedPages::add)
+      .fetchAll();
+
+    assertThat(fetched.join().value(), is(250));
+    assertThat(requestedPages.size(), is(25));
+    assertThat(consumedPages.size(), is(25));
+  }
+
+  @Test
+  public void fetchesNoMorePagesAtOnceThanTheParallelism() {
+    final Map<Integer, CompletableFuture<Result<MultipleRecords<Item>>>> pending
+      = new HashMap<>();
+
+    final CompletableFuture<Result<Integer>> fetched = new ItemsReportFetcher(
+      pageNumber -> {
+        final CompletableFuture<Result<MultipleRecords<Item>>> page = new CompletableFuture<>();
+        pending.put(pageNumber, page);
+        return page;
+      }, 10, 2, consumedPages::add)
+      .fetchAll();
+
+    assertThat(pending.size(), is(1));
+
+    pending.remove(0).complete(succeeded(page(0, 10, 45)));
+
+    assertThat(pending.keySet(), is(IntStream.of(1, 2).boxed().collect(Collectors.toSet())));
+
+    pending.remove(2).complete(succeeded(page(2, 10, 45)));
+
+    assertThat(pending.keySet(), is(IntStream.of(1, 3).boxed().collect(Collectors.toSet())));
+
+    pending.remove(1).complete(succeeded(page(1, 10, 45)));
+    pending.remove(3).complete(succeeded(page(3, 10, 45)));
+
+    assertThat(fetched.isDone(), is(false));
+
+    pending.remove(4).complete(succeeded(page(4, 10, 45)));
+
+    assertThat(pending.isEmpty(), is(true));
+    assertThat(fetched.join().value(), is(45));
+    assertThat(consumedPages.size(), is(5));
+  }
+
+  @Test
+  public void completesWhenThereAreNoRecords() {
+    final CompletableFuture<Result<Integer>> fetched = new ItemsReportFetcher(
+      pageNumber -> completedFuture(succeeded(page(pageNumber, 10, 0))),
+      10, 3, consumedPages::add)
+      .fetchAll();
+
+    assertThat(fetched.join().value(), is(0));
+    assertThat(consumedPages.size(), is(1));
+  }
+
+  @Test
+  public void failsWhenAnyPageCannotBeFetched() {
+    final CompletableFuture<Result<Integer>> fetched = new ItemsReportFetcher(
+      pageNumber -> {
+        if (pageNumber == 3) {
+          return completedFuture(failed(new ServerErrorFailure("Cannot fetch items")));
+        }
+
+        return completedFuture(succeeded(page(pageNumber, 10, 100)));
+      }, 10, 1, consumedPages::add)
+      .fetchAll();
+
+    assertThat(fetched.join().failed(), is(true));
+    assertThat(consumedPages.size(), is(3));
+  }
+
+  @Test
+  public void failsWhenAPageCannotBeConsumed() {
+    final CompletableFuture<Result<Integer>> fetched = new ItemsReportFetcher(
+      pageNumber -> completedFuture(succeeded(page(pageNumber, 10, 100))),
+      10, 3, page -> {
+        throw new IllegalStateException("Cannot write items");
+      })
+      .fetchAll();
+
+    assertThat(fetched.isDone(), is(true));
+    assertThat(fetched.join().failed(), is(true));
+  }
+
+  @Test
+  public void failsWhenTotalNumberOfRecordsIsMissing() {
+    final CompletableFuture<Result<Integer>> fetched = new ItemsReportFetcher(
+      pageNumber -> completedFuture(succeeded(
+        new MultipleRecords<Item>(new ArrayList<>(), null))),
+      10, 3, consumedPages::add)
+      .fetchAll();
+
+    assertThat(fetched.isDone(), is(true));
+    assertThat(fetched.join().failed(), is(true));
+    assertThat(consumedPages.isEmpty(), is(true));
+  }
+
+  private static MultipleRecords<Item> page(int pageNumber, int pageSize,
+    int totalRecords) {
+
+    final int numberOfItems = Math.max(0,
+      Math.min(pageSize, totalRecords - pageNumber * pageSize));
+
+    final List<Item> items = IntStream.range(0, numberOfItems)
+      .mapToObj(index -> Item.from(new JsonObject()
+        .put("id", String.format("%d-%d", pageNumber, index))))
+      .collect(Collectors.toList());
+
+    return new MultipleRecords<>(items, totalRecords);
+  }
+}
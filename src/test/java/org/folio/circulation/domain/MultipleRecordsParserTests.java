@@ -0,0 +1,87 @@
+package org.folio.circulation.domain;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import org.folio.circulation.support.Result;
+import org.junit.Test;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+public class MultipleRecordsParserTests {
+  @Test
+  public void mapsRecordsArrivingInManyChunks() {
+    final String body = new JsonObject()
+      .put("loans", new JsonArray()
+        .add(new JsonObject().put("id", "1").put("item", new JsonObject().put("id", "a")))
+        .add(new JsonObject().put("id", "2"))
+        .add(new JsonObject().put("id", "3")))
+      .put("totalRecords", 10)
+      .encode();
+
+    final MultipleRecordsParser<String> parser = new MultipleRecordsParser<>(
+      json -> json.getString("id"), "loans");
+
+    for (int index = 0; index < body.length(); index += 7) {
+      parser.handle(Buffer.buffer(body.substring(index, Math.min(body.length(), index + 7))));
+    }
+
+    final Result<MultipleRecords<String>> result = parser.end();
+
+    assertThat(result.succeeded(), is(true));
+    assertThat(result.value().getTotalRecords(), is(10));
+    assertThat(ids(result.value()), is("1,2,3"));
+  }
+
+  @Test
+  public void ignoresOtherProperties() {
+    final String body = new JsonObject()
+      .put("resultInfo", new JsonObject()
+        .put("totalRecords", 99)
+        .put("facets", new JsonArray().add(new JsonObject().put("id", "facet"))))
+      .put("requests", new JsonArray().add(new JsonObject().put("id", "1")))
+      .put("other", new JsonArray().add(new JsonObject().put("id", "other")))
+      .put("totalRecords", 1)
+      .encode();
+
+    final MultipleRecordsParser<String> parser = new MultipleRecordsParser<>(
+      json -> json.getString("id"), "requests");
+
+    parser.handle(Buffer.buffer(body));
+
+    final Result<MultipleRecords<String>> result = parser.end();
+
+    assertThat(result.value().getTotalRecords(), is(1));
+    assertThat(ids(result.value()), is("1"));
+  }
+
+  @Test
+  public void noRecordsWhenPropertyIsMissing() {
+    final MultipleRecordsParser<String> parser = new MultipleRecordsParser<>(
+      json -> json.getString("id"), "items");
+
+    parser.handle(Buffer.buffer("{}"));
+
+    final Result<MultipleRecords<String>> result = parser.end();
+
+    assertThat(result.value().isEmpty(), is(true));
+    assertThat(result.value().getTotalRecords(), is(nullValue()));
+  }
+
+  @Test
+  public void failsWhenBodyIsNotValidJson() {
+    final MultipleRecordsParser<String> parser = new MultipleRecordsParser<>(
+      json -> json.getString("id"), "items");
+
+    parser.handle(Buffer.buffer("{\"items\": [{\"id\": }"));
+
+    assertThat(parser.end().failed(), is(true));
+  }
+
+  private static String ids(MultipleRecords<String> records) {
+    return String.join(",", records.getRecords());
+  }
+}
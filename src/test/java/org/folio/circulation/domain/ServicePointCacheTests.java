@@ -0,0 +1,98 @@
+package org.folio.circulation.domain;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.folio.circulation.support.Result.succeeded;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.folio.circulation.support.Result;
+import org.junit.Test;
+
+import io.vertx.core.json.JsonObject;
+
+public class ServicePointCacheTests {
+  private final AtomicLong now = new AtomicLong(1000);
+  private final AtomicInteger loads = new AtomicInteger();
+  private final ServicePointCache cache = new ServicePointCache(100, 1000, now::get);
+
+  @Test
+  public void loadsAllServicePointsOnce() {
+    assertThat(getAll().get("sp-1"), is(notNullValue()));
+    assertThat(getAll().get("sp-2"), is(notNullValue()));
+    assertThat(loads.get(), is(1));
+  }
+
+  @Test
+  public void usesOldServicePointsWhileReloading() {
+    getAll();
+
+    final CompletableFuture<Result<Collection<ServicePoint>>> reload
+      = new CompletableFuture<>();
+
+    now.addAndGet(500);
+
+    final Map<String, ServicePoint> servicePoints = cache.getAll("diku", () -> {
+      loads.incrementAndGet();
+      return reload;
+    }).join().value();
+
+    assertThat(servicePoints.size(), is(2));
+    assertThat(loads.get(), is(2));
+
+    reload.complete(succeeded(singletonList(servicePoint("sp-3"))));
+
+    assertThat(getAll().size(), is(1));
+    assertThat(loads.get(), is(2));
+  }
+
+  @Test
+  public void waitsForReloadWhenTooOld() {
+    getAll();
+    now.addAndGet(1000);
+    getAll();
+
+    assertThat(loads.get(), is(2));
+  }
+
+  @Test
+  public void addedServicePointsAreKeptUntilReload() {
+    getAll();
+
+    cache.add("diku", singletonList(servicePoint("sp-3")));
+
+    assertThat(getAll().get("sp-3"), is(notNullValue()));
+  }
+
+  @Test
+  public void clearingDropsServicePoints() {
+    getAll();
+    cache.add("diku", singletonList(servicePoint("sp-3")));
+
+    cache.clear("diku");
+
+    assertThat(getAll().get("sp-3"), is(nullValue()));
+    assertThat(loads.get(), is(2));
+  }
+
+  private Map<String, ServicePoint> getAll() {
+    return cache.getAll("diku", () -> {
+      loads.incrementAndGet();
+      return completedFuture(succeeded(
+        asList(servicePoint("sp-1"), servicePoint("sp-2"))));
+    }).join().value();
+  }
+
+  private static ServicePoint servicePoint(String id) {
+    return ServicePoint.from(new JsonObject().put("id", id));
+  }
+}
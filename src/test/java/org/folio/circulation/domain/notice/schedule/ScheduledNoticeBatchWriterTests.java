@@ -0,0 +1,98 @@
+package org.folio.circulation.domain.notice.schedule;
+
+import static java.util.Arrays.asList;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.folio.circulation.support.Result.failed;
+import static org.folio.circulation.support.Result.succeeded;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+
+import org.folio.circulation.support.Result;
+import org.folio.circulation.support.ServerErrorFailure;
+import org.joda.time.DateTime;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ScheduledNoticeBatchWriterTests {
+  private ScheduledNoticesRepository repository;
+  private ScheduledNoticeBatchWriter writer;
+
+  @Before
+  public void beforeEach() {
+    repository = mock(ScheduledNoticesRepository.class);
+    writer = new ScheduledNoticeBatchWriter(repository);
+
+    when(repository.deleteByIds(anyCollection()))
+      .thenReturn(completedFuture(succeeded(null)));
+
+    when(repository.update(any(ScheduledNotice.class)))
+      .then(invocation -> completedFuture(
+        succeeded(invocation.<ScheduledNotice>getArgument(0))));
+  }
+
+  @Test
+  public void changesAreOnlyWrittenWhenFlushed() {
+    writer.delete(notice("1"));
+    writer.update(notice("2"));
+
+    verify(repository, never()).deleteByIds(anyCollection());
+    verify(repository, never()).update(any(ScheduledNotice.class));
+
+    writer.flush().join();
+
+    verify(repository).deleteByIds(asList("1"));
+    verify(repository).update(any(ScheduledNotice.class));
+  }
+
+  @Test
+  public void deletionsAreWrittenTogether() {
+    writer.delete(notice("1"));
+    writer.delete(notice("2"));
+    writer.delete(notice("3"));
+
+    writer.flush().join();
+
+    verify(repository, times(1)).deleteByIds(asList("1", "2", "3"));
+  }
+
+  @Test
+  public void changesAreOnlyWrittenOnce() {
+    writer.delete(notice("1"));
+    writer.flush().join();
+    writer.flush().join();
+
+    verify(repository).deleteByIds(asList("1"));
+    verify(repository).deleteByIds(Collections.emptyList());
+  }
+
+  @Test
+  public void failedWritesDoNotFailTheFlush() {
+    when(repository.deleteByIds(anyCollection()))
+      .thenReturn(completedFuture(failed(new ServerErrorFailure("Cannot delete notices"))));
+
+    final CompletableFuture<Result<ScheduledNotice>> failedUpdate = new CompletableFuture<>();
+    failedUpdate.completeExceptionally(new RuntimeException("Connection refused"));
+
+    when(repository.update(any(ScheduledNotice.class))).thenReturn(failedUpdate);
+
+    writer.delete(notice("1"));
+    writer.update(notice("2"));
+
+    assertThat(writer.flush().join().succeeded(), is(true));
+  }
+
+  private static ScheduledNotice notice(String id) {
+    return new ScheduledNotice(id, "loan-" + id, null, "user", TriggeringEvent.DUE_DATE,
+      DateTime.now(), null);
+  }
+}
@@ -0,0 +1,227 @@
+package org.folio.circulation.domain.notice.schedule;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.folio.circulation.support.Result.failed;
+import static org.folio.circulation.support.Result.succeeded;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+import org.folio.circulation.domain.ConfigurationRepository;
+import org.folio.circulation.domain.Item;
+import org.folio.circulation.domain.Loan;
+import org.folio.circulation.domain.LoanAndRelatedRecords;
+import org.folio.circulation.domain.LoanRepository;
+import org.folio.circulation.domain.Location;
+import org.folio.circulation.domain.LocationRepository;
+import org.folio.circulation.domain.MultipleRecords;
+import org.folio.circulation.domain.UserRepository;
+import org.folio.circulation.domain.policy.LoanPolicy;
+import org.folio.circulation.domain.policy.LoanPolicyRepository;
+import org.folio.circulation.support.Clients;
+import org.folio.circulation.support.CollectionResourceClient;
+import org.folio.circulation.support.Result;
+import org.folio.circulation.support.ServerErrorFailure;
+import org.folio.circulation.support.http.client.StreamingBodyParser;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+public class ScheduledNoticeContextLoaderTests {
+  private static final String LOAN_POLICY_ID = "loan-policy";
+
+  private final LoanRepository loanRepository = mock(LoanRepository.class);
+  private final UserRepository userRepository = mock(UserRepository.class);
+  private final LoanPolicyRepository loanPolicyRepository = mock(LoanPolicyRepository.class);
+  private final ConfigurationRepository configurationRepository = mock(ConfigurationRepository.class);
+
+  private final ScheduledNoticeContextLoader loader = new ScheduledNoticeContextLoader(
+    loanRepository, userRepository, loanPolicyRepository, configurationRepository);
+
+  @Before
+  public void beforeEach() {
+    when(userRepository.findUsersForLoans(any()))
+      .then(invocation -> completedFuture(succeeded(invocation.getArgument(0))));
+
+    when(loanPolicyRepository.lookupPolicyIds(anyList()))
+      .then(invocation -> completedFuture(succeeded(
+        invocation.<List<?>>getArgument(0).stream()
+          .map(notUsed -> LOAN_POLICY_ID)
+          .collect(Collectors.toList()))));
+
+    when(loanPolicyRepository.lookupPolicy(anyString()))
+      .then(invocation -> completedFuture(succeeded(LoanPolicy.from(
+        new JsonObject().put("id", invocation.<String>getArgument(0))))));
+
+    when(configurationRepository.findTimeZoneConfiguration())
+      .thenReturn(completedFuture(succeeded(DateTimeZone.UTC)));
+
+    LocationRepository.clearCache();
+  }
+
+  @Test
+  public void onlyNoticesOfMissingLoanFail() {
+    foundLoans(loan("loan-1", item(null)));
+
+    final ScheduledNoticeContext context = loader.loadLoans(
+      asList(notice("loan-1"), notice("loan-2"))).join().value();
+
+    final Result<LoanAndRelatedRecords> found
+      = context.getLoanAndRelatedRecords(notice("loan-1"));
+
+    assertThat(found.succeeded(), is(true));
+    assertThat(found.value().getLoan().getLoanPolicy().getId(), is(LOAN_POLICY_ID));
+
+    assertThat(context.getLoanAndRelatedRecords(notice("loan-2")).failed(), is(true));
+  }
+
+  @Test
+  public void appliesRulesForEachLoanWhenTheyCannotBeAppliedForAllAtOnce() {
+    final Loan firstLoan = loan("loan-1", item(null));
+    final Loan secondLoan = loan("loan-2", item(null));
+
+    foundLoans(firstLoan, secondLoan);
+
+    when(loanPolicyRepository.lookupPolicyIds(anyList()))
+      .thenReturn(completedFuture(failed(
+        new ServerErrorFailure("Cannot apply circulation rules"))));
+
+    when(loanPolicyRepository.lookupPolicyId(eq(firstLoan.getItem()), any()))
+      .thenReturn(completedFuture(succeeded(LOAN_POLICY_ID)));
+
+    when(loanPolicyRepository.lookupPolicyId(eq(secondLoan.getItem()), any()))
+      .thenReturn(completedFuture(failed(
+        new ServerErrorFailure("Cannot apply circulation rules"))));
+
+    final ScheduledNoticeContext context = loader.loadLoans(
+      asList(notice("loan-1"), notice("loan-2"))).join().value();
+
+    verify(loanPolicyRepository, times(2)).lookupPolicyId(any(), any());
+
+    final Result<LoanAndRelatedRecords> first
+      = context.getLoanAndRelatedRecords(notice("loan-1"));
+
+    assertThat(first.succeeded(), is(true));
+    assertThat(first.value().getLoan().getLoanPolicy().getId(), is(LOAN_POLICY_ID));
+
+    assertThat(context.getLoanAndRelatedRecords(notice("loan-2")).failed(), is(true));
+  }
+
+  @Test
+  public void loanItemsHaveLocationsWithAllLocationUnits() {
+    final Clients clients = locationStorage();
+
+    final Item item = item("location-1");
+
+    final Map<String, Location> locations = LocationRepository.using(clients)
+      .getLocations(singletonList(item)).join().value();
+
+    foundLoans(loan("loan-1", item.withLocation(locations.get("location-1"))));
+
+    final ScheduledNoticeContext context = loader.loadLoans(
+      singletonList(notice("loan-1"))).join().value();
+
+    final Location location = context.getLoanAndRelatedRecords(notice("loan-1"))
+      .value().getLoan().getItem().getLocation();
+
+    assertThat(location.getLibraryName(), is("Library"));
+    assertThat(location.getCampusName(), is("Campus"));
+    assertThat(location.getInstitutionName(), is("Institution"));
+  }
+
+  private void foundLoans(Loan... loans) {
+    when(loanRepository.findByIds(any())).thenReturn(completedFuture(
+      succeeded(new MultipleRecords<>(asList(loans), loans.length))));
+  }
+
+  private static Loan loan(String id, Item item) {
+    return Loan.from(new JsonObject()
+      .put("id", id)
+      .put("itemId", item.getItemId())
+      .put("userId", "user"))
+      .withItem(item);
+  }
+
+  private static Item item(String locationId) {
+    final JsonObject representation = new JsonObject().put("id", "item");
+
+    if (locationId != null) {
+      representation.put("effectiveLocationId", locationId);
+    }
+
+    return Item.from(representation);
+  }
+
+  private static ScheduledNotice notice(String loanId) {
+    return new ScheduledNotice("notice-" + loanId, loanId, null, "user",
+      TriggeringEvent.DUE_DATE, new DateTime(2019, 8, 1, 10, 0, DateTimeZone.UTC),
+      null);
+  }
+
+  private static Clients locationStorage() {
+    final Clients clients = mock(Clients.class);
+
+    final CollectionResourceClient locations = storage("locations",
+      new JsonObject().put("id", "location-1").put("name", "Location")
+        .put("libraryId", "library-1").put("campusId", "campus-1")
+        .put("institutionId", "institution-1"));
+
+    final CollectionResourceClient libraries = storage("loclibs",
+      new JsonObject().put("id", "library-1").put("name", "Library"));
+
+    final CollectionResourceClient campuses = storage("loccamps",
+      new JsonObject().put("id", "campus-1").put("name", "Campus"));
+
+    final CollectionResourceClient institutions = storage("locinsts",
+      new JsonObject().put("id", "institution-1").put("name", "Institution"));
+
+    when(clients.getTenantId()).thenReturn("diku");
+    when(clients.locationsStorage()).thenReturn(locations);
+    when(clients.librariesStorage()).thenReturn(libraries);
+    when(clients.campusesStorage()).thenReturn(campuses);
+    when(clients.institutionsStorage()).thenReturn(institutions);
+
+    return clients;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static CollectionResourceClient storage(String recordsPropertyName,
+    JsonObject record) {
+
+    final CollectionResourceClient client = mock(CollectionResourceClient.class);
+
+    final JsonObject body = new JsonObject()
+      .put(recordsPropertyName, new JsonArray().add(record))
+      .put("totalRecords", 1);
+
+    when(client.getMany(any(), any(), any(), any(StreamingBodyParser.class)))
+      .then(invocation -> {
+        final StreamingBodyParser<Object> parser = invocation.getArgument(3);
+
+        parser.handle(Buffer.buffer(body.encode()));
+
+        return CompletableFuture.completedFuture(parser.end());
+      });
+
+    return client;
+  }
+}
@@ -0,0 +1,67 @@
+package org.folio.circulation.domain.notice.schedule;
+
+import static java.util.Arrays.asList;
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.List;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.junit.Test;
+
+public class ScheduledNoticeCursorTests {
+  private static final DateTime FIRST_RUN_TIME = new DateTime(2019, 8, 1, 10, 0, DateTimeZone.UTC);
+  private static final DateTime SECOND_RUN_TIME = FIRST_RUN_TIME.plusMinutes(5);
+
+  @Test
+  public void startSkipsNoNotices() {
+    final ScheduledNoticeCursor cursor = ScheduledNoticeCursor.start();
+
+    assertThat(cursor.isStart(), is(true));
+    assertThat(cursor.getNumberOfProcessedNotices(), is(0));
+    assertThat(ids(cursor.skipProcessed(asList(
+      notice("1", FIRST_RUN_TIME), notice("2", SECOND_RUN_TIME)))), is(asList("1", "2")));
+  }
+
+  @Test
+  public void skipsProcessedNoticesAtLastNextRunTime() {
+    final ScheduledNoticeCursor cursor = ScheduledNoticeCursor.start()
+      .after(asList(notice("1", FIRST_RUN_TIME), notice("2", SECOND_RUN_TIME),
+        notice("3", SECOND_RUN_TIME)));
+
+    assertThat(cursor.getNextRunTime(), is(SECOND_RUN_TIME));
+    assertThat(cursor.getNumberOfProcessedNotices(), is(2));
+    assertThat(ids(cursor.skipProcessed(asList(notice("2", SECOND_RUN_TIME),
+      notice("3", SECOND_RUN_TIME), notice("4", SECOND_RUN_TIME)))), is(asList("4")));
+  }
+
+  @Test
+  public void keepsProcessedNoticesWhenNextRunTimeDoesNotChange() {
+    final ScheduledNoticeCursor cursor = ScheduledNoticeCursor.start()
+      .after(asList(notice("1", FIRST_RUN_TIME), notice("2", FIRST_RUN_TIME)))
+      .after(asList(notice("3", FIRST_RUN_TIME)));
+
+    assertThat(cursor.getNumberOfProcessedNotices(), is(3));
+  }
+
+  @Test
+  public void forgetsProcessedNoticesWhenNextRunTimeMovesOn() {
+    final ScheduledNoticeCursor cursor = ScheduledNoticeCursor.start()
+      .after(asList(notice("1", FIRST_RUN_TIME), notice("2", FIRST_RUN_TIME)))
+      .after(asList(notice("3", SECOND_RUN_TIME)));
+
+    assertThat(cursor.getNextRunTime(), is(SECOND_RUN_TIME));
+    assertThat(cursor.getNumberOfProcessedNotices(), is(1));
+  }
+
+  private static List<String> ids(List<ScheduledNotice> notices) {
+    return notices.stream().map(ScheduledNotice::getId).collect(toList());
+  }
+
+  private static ScheduledNotice notice(String id, DateTime nextRunTime) {
+    return new ScheduledNotice(id, "loan-" + id, null, "user", TriggeringEvent.DUE_DATE,
+      nextRunTime, null);
+  }
+}
@@ -0,0 +1,126 @@
+package org.folio.circulation.domain.notice.schedule;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.folio.circulation.support.Result.failed;
+import static org.folio.circulation.support.Result.succeeded;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.folio.circulation.support.Result;
+import org.folio.circulation.support.ServerErrorFailure;
+import org.junit.Test;
+
+public class ScheduledNoticeExecutorTests {
+  private final AtomicLong now = new AtomicLong();
+
+  @Test
+  public void processesEveryNoticeWhenTheyCompleteImmediately() {
+    final List<Integer> processed = new ArrayList<>();
+
+    final NoticeProcessingStatistics statistics = new ScheduledNoticeExecutor(16, now::get)
+      .execute(notices(10000), String::valueOf, notice -> {
+        processed.add(notice);
+        return completedFuture(succeeded(notice));
+      })
+      .join().value();
+
+    assertThat(processed.size(), is(10000));
+    assertThat(statistics.getProcessed(), is(10000));
+    assertThat(statistics.getFailed(), is(0));
+  }
+
+  @Test
+  public void processesNoMoreNoticesAtOnceThanTheConcurrency() {
+    final Map<Integer, CompletableFuture<Result<Integer>>> pending = new LinkedHashMap<>();
+
+    final CompletableFuture<Result<NoticeProcessingStatistics>> executed =
+      new ScheduledNoticeExecutor(3, now::get)
+        .execute(notices(5), String::valueOf, notice -> {
+          final CompletableFuture<Result<Integer>> future = new CompletableFuture<>();
+          pending.put(notice, future);
+          return future;
+        });
+
+    assertThat(new ArrayList<>(pending.keySet()), is(notices(3)));
+
+    pending.remove(1).complete(succeeded(1));
+
+    assertThat(pending.size(), is(3));
+    assertThat(pending.containsKey(3), is(true));
+
+    new ArrayList<>(pending.keySet()).forEach(notice ->
+      pending.remove(notice).complete(succeeded(notice)));
+
+    assertThat(pending.size(), is(1));
+    assertThat(executed.isDone(), is(false));
+
+    now.addAndGet(2_000_000_000L);
+
+    pending.remove(4).complete(succeeded(4));
+
+    final NoticeProcessingStatistics statistics = executed.join().value();
+
+    assertThat(statistics.getProcessed(), is(5));
+    assertThat(statistics.getElapsedMilliseconds(), is(2000L));
+    assertThat(statistics.getNoticesPerSecond(), is(2.5));
+  }
+
+  @Test
+  public void failedNoticesDoNotStopTheOthers() {
+    final List<Integer> processed = new ArrayList<>();
+
+    final Function<Integer, CompletableFuture<Result<Integer>>> handler = notice -> {
+      processed.add(notice);
+
+      if (notice == 1) {
+        return completedFuture(failed(new ServerErrorFailure("Cannot fetch loan")));
+      }
+
+      if (notice == 2) {
+        throw new IllegalStateException("Notice has no configuration");
+      }
+
+      if (notice == 3) {
+        final CompletableFuture<Result<Integer>> future = new CompletableFuture<>();
+        future.completeExceptionally(new RuntimeException("Connection refused"));
+        return future;
+      }
+
+      return completedFuture(succeeded(notice));
+    };
+
+    final Result<NoticeProcessingStatistics> result = new ScheduledNoticeExecutor(1, now::get)
+      .execute(notices(6), String::valueOf, handler)
+      .join();
+
+    assertThat(result.succeeded(), is(true));
+    assertThat(processed, is(notices(6)));
+    assertThat(result.value().getProcessed(), is(6));
+    assertThat(result.value().getFailed(), is(3));
+  }
+
+  @Test
+  public void completesWhenThereAreNoNotices() {
+    final Result<NoticeProcessingStatistics> result = new ScheduledNoticeExecutor(16, now::get)
+      .execute(notices(0), String::valueOf, notice -> completedFuture(succeeded(notice)))
+      .join();
+
+    assertThat(result.value().getProcessed(), is(0));
+  }
+
+  private static List<Integer> notices(int numberOfNotices) {
+    return IntStream.range(0, numberOfNotices)
+      .boxed()
+      .collect(Collectors.toList());
+  }
+}
@@ -0,0 +1,45 @@
+package org.folio.circulation.infrastructure.serialization;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import org.junit.After;
+import org.junit.Test;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonObject;
+
+public class JsonEncodingTests {
+  @After
+  public void afterEach() {
+    JsonEncoding.setOptions(new JsonObject());
+  }
+
+  @Test
+  public void encodesCompactlyByDefault() {
+    final JsonObject body = new JsonObject()
+      .put("id", "1")
+      .put("names", new JsonObject().put("first", "Jessica"));
+
+    assertThat(JsonEncoding.encode(body).toString(),
+      is("{\"id\":\"1\",\"names\":{\"first\":\"Jessica\"}}"));
+  }
+
+  @Test
+  public void canPrettyPrintForDebugging() {
+    JsonEncoding.setOptions(new JsonObject().put("prettyPrint", true));
+
+    final JsonObject body = new JsonObject().put("id", "1");
+
+    assertThat(JsonEncoding.encode(body).toString(), is(body.encodePrettily()));
+  }
+
+  @Test
+  public void longBodiesAreShortenedForLogging() {
+    JsonEncoding.setOptions(new JsonObject().put("maximumLoggedBodyLength", 5));
+
+    assertThat(JsonEncoding.forLogging(Buffer.buffer("12345")), is("12345"));
+    assertThat(JsonEncoding.forLogging(Buffer.buffer("1234567")),
+      is("12345... (7 bytes)"));
+  }
+}
@@ -0,0 +1,180 @@
+package org.folio.circulation.rules;
+
+import static org.folio.circulation.resources.AbstractCirculationRulesEngineResource.ITEM_TYPE_ID_NAME;
+import static org.folio.circulation.resources.AbstractCirculationRulesEngineResource.LOAN_TYPE_ID_NAME;
+import static org.folio.circulation.resources.AbstractCirculationRulesEngineResource.LOCATION_ID_NAME;
+import static org.folio.circulation.resources.AbstractCirculationRulesEngineResource.PATRON_TYPE_ID_NAME;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.util.UUID;
+
+import org.folio.circulation.domain.Location;
+import org.junit.Test;
+
+import api.support.builders.LocationBuilder;
+import io.vertx.core.MultiMap;
+import io.vertx.core.http.CaseInsensitiveHeaders;
+
+public class DecisionTableTest {
+  private static final String FIRST_INSTITUTION_ID = "3d22d91c-cf1d-11e9-bb65-2a2ae2dbcce4";
+  private static final String SECOND_INSTITUTION_ID = "3d22d91c-cf1d-11e9-bb65-2a2ae2dbcce5";
+  private static final String FIRST_LIBRARY_ID = "aa59f830-cfea-11e9-bb65-2a2ae2dbcce4";
+  private static final String SECOND_LIBRARY_ID = "2125c4ea-9c9a-462e-84d2-90e3fcdbf1eb";
+  private static final String FIRST_CAMPUS_ID = "692dbd8c-9804-4281-9fd1-8ce601d7c6a3";
+  private static final String SECOND_CAMPUS_ID = "04163907-8f63-41f3-888d-f2d2888a4dd0";
+
+  private static final String[] ITEM_TYPES = { "book", "dvd", "newspaper", "map", null };
+  private static final String[] LOAN_TYPES = { "regular", "special-items", null };
+  private static final String[] PATRON_GROUPS = { "undergrad", "visitor", "alumni", null };
+  private static final String[] LOCATIONS = { "shelf", "reserve", null };
+
+  private static final String FALLBACK =
+    "fallback-policy: l no-loan r no-hold n basic-notice o overdue i lost-item";
+
+  private String rules = String.join("\n",
+    FALLBACK,
+    "m book cd dvd: l policy-a r request-1 n notice-1 o overdue-1 i lost-item-1",
+    "m newspaper + g all: l policy-c r request-2 n notice-2 o overdue-2 i lost-item-2",
+    "m !book !dvd: l policy-b r request-3 n notice-3 o overdue-3 i lost-item-3",
+    "    g visitor: l in-house r request-4 n notice-4 o overdue-4 i lost-item-4",
+    "t special-items: l policy-d r request-7 n notice-7 o overdue-7 i lost-item-7",
+    "    g !visitor !alumni: l in-house r request-8 n notice-8 o overdue-8 i lost-item-8",
+    "s reserve: l reserve r request-9 n notice-9 o overdue-9 i lost-item-9",
+    "a " + FIRST_INSTITUTION_ID + " + c " + FIRST_LIBRARY_ID
+      + ": l in-library r request-10 n notice-10 o overdue-10 i lost-item-10",
+    "b " + SECOND_CAMPUS_ID + ": l in-campus r request-11 n notice-11 o overdue-11 i lost-item-11"
+    );
+
+  private String criteriaPriorities = String.join("\n",
+    "priority: t, s, c, b, a, m, g",
+    rules);
+
+  private String lastLinePriority = String.join("\n",
+    "priority: last-line",
+    rules);
+
+  private String firstLinePriority = String.join("\n",
+    "priority: number-of-criteria, first-line",
+    rules);
+
+  @Test
+  public void lastLinePriorityMatchesDrools() {
+    assertSameAsDrools(lastLinePriority);
+  }
+
+  @Test
+  public void criteriaPrioritiesMatchDrools() {
+    assertSameAsDrools(criteriaPriorities);
+  }
+
+  @Test
+  public void firstLinePriorityMatchesDrools() {
+    assertSameAsDrools(firstLinePriority);
+  }
+
+  @Test
+  public void fallbackPolicyOnly() {
+    DecisionTable decisionTable = DecisionTable.compile(
+      "priority: last-line\n" + FALLBACK);
+
+    assertThat(decisionTable.loanPolicy(params("foo", "bar", "biz", "shelf"),
+      createLocation(FIRST_INSTITUTION_ID, FIRST_LIBRARY_ID, FIRST_CAMPUS_ID)),
+      is("no-loan"));
+  }
+
+  @Test(expected = CirculationRulesException.class)
+  public void syntaxError() {
+    DecisionTable.compile("m book: l policy-a");
+  }
+
+  /**
+   * Evaluate all combinations of the criteria with both engines
+   * and check that the first match and all matches are the same.
+   */
+  private void assertSameAsDrools(String circulationRules) {
+    Drools drools = new Drools(Text2Drools.convert(circulationRules));
+    DecisionTable decisionTable = DecisionTable.compile(circulationRules);
+
+    Location[] locations = {
+      createLocation(FIRST_INSTITUTION_ID, FIRST_LIBRARY_ID, FIRST_CAMPUS_ID),
+      createLocation(FIRST_INSTITUTION_ID, SECOND_LIBRARY_ID, SECOND_CAMPUS_ID),
+      createLocation(SECOND_INSTITUTION_ID, FIRST_LIBRARY_ID, FIRST_CAMPUS_ID),
+    };
+
+    for (String itemType : ITEM_TYPES) {
+      for (String loanType : LOAN_TYPES) {
+        for (String patronGroup : PATRON_GROUPS) {
+          for (String locationId : LOCATIONS) {
+            for (Location location : locations) {
+              MultiMap params = params(itemType, loanType, patronGroup, locationId);
+              String reason = params.entries() + " " + location.getInstitutionId()
+                + " " + location.getLibraryId() + " " + location.getCampusId();
+
+              assertThat(reason, decisionTable.loanPolicy(params, location),
+                is(drools.loanPolicy(params, location)));
+              assertThat(reason, decisionTable.loanPolicies(params, location),
+                is(drools.loanPolicies(params, location)));
+              assertThat(reason, decisionTable.requestPolicy(params, location),
+                is(drools.requestPolicy(params, location)));
+              assertThat(reason, decisionTable.requestPolicies(params, location),
+                is(drools.requestPolicies(params, location)));
+              assertThat(reason, decisionTable.noticePolicy(params, location),
+                is(drools.noticePolicy(params, location)));
+              assertThat(reason, decisionTable.noticePolicies(params, location),
+                is(drools.noticePolicies(params, location)));
+              assertThat(reason, decisionTable.overduePolicy(params, location),
+                is(drools.overduePolicy(params, location)));
+              assertThat(reason, decisionTable.overduePolicies(params, location),
+                is(drools.overduePolicies(params, location)));
+              assertThat(reason, decisionTable.lostItemPolicy(params, location),
+                is(drools.lostItemPolicy(params, location)));
+              assertThat(reason, decisionTable.lostItemPolicies(params, location),
+                is(drools.lostItemPolicies(params, location)));
+              assertSameDecision(reason, decisionTable.decide(params, location),
+                drools.decide(params, location));
+            }
+          }
+        }
+      }
+    }
+  }
+
+  private void assertSameDecision(String reason, PolicyDecision actual,
+    PolicyDecision expected) {
+
+    assertThat(reason, actual.getLoanPolicyId(), is(expected.getLoanPolicyId()));
+    assertThat(reason, actual.getRequestPolicyId(), is(expected.getRequestPolicyId()));
+    assertThat(reason, actual.getNoticePolicyId(), is(expected.getNoticePolicyId()));
+    assertThat(reason, actual.getOverduePolicyId(), is(expected.getOverduePolicyId()));
+    assertThat(reason, actual.getLostItemPolicyId(), is(expected.getLostItemPolicyId()));
+    assertThat(reason, actual.getCirculationRuleLine(), is(expected.getCirculationRuleLine()));
+  }
+
+  private MultiMap params(String itId, String ltId, String ptId, String lId) {
+    MultiMap params = new CaseInsensitiveHeaders();
+    if (itId != null) {
+      params.add(ITEM_TYPE_ID_NAME, itId);
+    }
+    if (ltId != null) {
+      params.add(LOAN_TYPE_ID_NAME, ltId);
+    }
+    if (ptId != null) {
+      params.add(PATRON_TYPE_ID_NAME, ptId);
+    }
+    if (lId != null) {
+      params.add(LOCATION_ID_NAME, lId);
+    }
+    return params;
+  }
+
+  private Location createLocation(String institutionId, String libraryId,
+    String campusId) {
+
+    return Location.from(new LocationBuilder()
+      .forInstitution(UUID.fromString(institutionId))
+      .forLibrary(UUID.fromString(libraryId))
+      .forCampus(UUID.fromString(campusId))
+      .create());
+  }
+}
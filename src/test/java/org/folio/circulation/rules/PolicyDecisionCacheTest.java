@@ -0,0 +1,48 @@
+package org.folio.circulation.rules;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+import org.junit.Test;
+
+public class PolicyDecisionCacheTest {
+  @Test
+  public void returnsCachedDecisionForEqualParameters() {
+    PolicyDecisionCache cache = new PolicyDecisionCache(10);
+    PolicyDecision decision = decision("loan-1");
+
+    cache.put(parameters("book"), decision);
+
+    assertThat(cache.get(parameters("book")), is(sameInstance(decision)));
+    assertThat(cache.get(parameters("dvd")), is(nullValue()));
+    assertThat(cache.getHits(), is(1L));
+    assertThat(cache.getMisses(), is(1L));
+  }
+
+  @Test
+  public void dropsLeastRecentlyUsedDecision() {
+    PolicyDecisionCache cache = new PolicyDecisionCache(2);
+
+    cache.put(parameters("book"), decision("loan-1"));
+    cache.put(parameters("dvd"), decision("loan-2"));
+    cache.get(parameters("book"));
+    cache.put(parameters("map"), decision("loan-3"));
+
+    assertThat(cache.size(), is(2));
+    assertThat(cache.get(parameters("dvd")), is(nullValue()));
+    assertThat(cache.get(parameters("book")).getLoanPolicyId(), is("loan-1"));
+    assertThat(cache.get(parameters("map")).getLoanPolicyId(), is("loan-3"));
+  }
+
+  private static RulesExecutionParameters parameters(String materialTypeId) {
+    return new RulesExecutionParameters(materialTypeId, "can-circulate",
+      "undergrad", "main-library", null);
+  }
+
+  private static PolicyDecision decision(String loanPolicyId) {
+    return new PolicyDecision(loanPolicyId, "request", "notice", "overdue",
+      "lost-item", 1);
+  }
+}
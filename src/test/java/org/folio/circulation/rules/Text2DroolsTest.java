@@ -16,6 +16,7 @@ import java.lang.invoke.MethodHandles;
 import java.lang.reflect.Method;
 import java.util.Arrays;
 import java.util.UUID;
+import java.util.stream.IntStream;
 
 import api.support.builders.LocationBuilder;
 import org.folio.circulation.domain.Location;
@@ -137,6 +138,17 @@ public class Text2DroolsTest {
     }
   }
 
+  @Test
+  public void concurrentEvaluations() {
+    Drools drools = new Drools(Text2Drools.convert(test1));
+    IntStream.range(0, 20).parallel().forEach(i -> {
+      for (String [] s : loanTestCases) {
+        assertThat(first4(s), drools.loanPolicy(params(s[0], s[1], s[2], s[3]),
+          createLocation(s[3], SECOND_LIBRARY_ID, SECOND_CAMPUS_ID)), is(s[4]));
+      }
+    });
+  }
+
   @Test
   public void testRequestPolicyList() {
       testRequestPolicies(test1, requestTestCases);
@@ -1,9 +1,33 @@
 package org.folio.circulation.support;
 
-import org.junit.Test;
-
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+import org.folio.circulation.support.http.client.OkapiHttpClient;
+import org.folio.circulation.support.http.client.Response;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import io.vertx.core.Handler;
+import io.vertx.core.MultiMap;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.CaseInsensitiveHeaders;
+import io.vertx.core.http.HttpClientResponse;
+import io.vertx.core.json.JsonObject;
 
 public class CollectionResourceClientTests {
   static private String createQueryString(String urlencodedCqlQuery, Integer pageLimit, Integer pageOffset) {
@@ -18,4 +42,176 @@ public class CollectionResourceClientTests {
     assertThat(createQueryString(null,        null, 11  ), is("?offset=11"));
     assertThat(createQueryString(null,        null, null), is(""));
   }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void identicalGetsInProgressShareOneRequest() throws Exception {
+    final OkapiHttpClient httpClient = okapiClient("diku");
+
+    final CollectionResourceClient client = new CollectionResourceClient(
+      httpClient, new URL("http://localhost:9130/item-storage/items"));
+
+    final CompletableFuture<Response> first = client.get("1");
+    final CompletableFuture<Response> second = client.get("1");
+
+    final ArgumentCaptor<Handler<HttpClientResponse>> responseHandler
+      = ArgumentCaptor.forClass(Handler.class);
+
+    verify(httpClient, times(1)).get(anyString(), responseHandler.capture(),
+      any(Consumer.class));
+
+    respond(responseHandler.getValue(), "{\"id\":\"1\",\"barcode\":\"036000291452\"}");
+
+    first.get().getJson().put("barcode", "changed");
+
+    assertThat(second.get(), not(sameInstance(first.get())));
+    assertThat(second.get().getJson().getString("barcode"), is("036000291452"));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void getAfterPutDoesNotJoinGetSentBeforeIt() throws Exception {
+    final OkapiHttpClient httpClient = okapiClient("diku");
+
+    final CollectionResourceClient client = new CollectionResourceClient(
+      httpClient, new URL("http://localhost:9130/item-storage/items"));
+
+    final CompletableFuture<Response> before = client.get("5");
+
+    final CompletableFuture<Response> put = client.put("5",
+      new JsonObject().put("id", "5").put("barcode", "changed"));
+
+    final ArgumentCaptor<Handler<HttpClientResponse>> putResponseHandler
+      = ArgumentCaptor.forClass(Handler.class);
+
+    verify(httpClient).put(anyString(), any(), putResponseHandler.capture());
+
+    respond(putResponseHandler.getValue(), "{}");
+
+    assertThat(put.isDone(), is(true));
+
+    final CompletableFuture<Response> after = client.get("5");
+
+    final ArgumentCaptor<Handler<HttpClientResponse>> getResponseHandlers
+      = ArgumentCaptor.forClass(Handler.class);
+
+    verify(httpClient, times(2)).get(anyString(), getResponseHandlers.capture(),
+      any(Consumer.class));
+
+    respond(getResponseHandlers.getAllValues().get(0),
+      "{\"id\":\"5\",\"barcode\":\"036000291452\"}");
+
+    respond(getResponseHandlers.getAllValues().get(1),
+      "{\"id\":\"5\",\"barcode\":\"changed\"}");
+
+    assertThat(before.get().getJson().getString("barcode"), is("036000291452"));
+    assertThat(after.get().getJson().getString("barcode"), is("changed"));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void getsForDifferentTenantsAreNotShared() throws MalformedURLException {
+    final OkapiHttpClient dikuClient = okapiClient("diku");
+    final OkapiHttpClient otherClient = okapiClient("other");
+
+    final URL root = new URL("http://localhost:9130/item-storage/items");
+
+    new CollectionResourceClient(dikuClient, root).get("2");
+    new CollectionResourceClient(otherClient, root).get("2");
+
+    verify(dikuClient, times(1)).get(anyString(), any(Handler.class),
+      any(Consumer.class));
+
+    verify(otherClient, times(1)).get(anyString(), any(Handler.class),
+      any(Consumer.class));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void joinedGetsFailWhenSharedRequestFails() throws Exception {
+    final OkapiHttpClient httpClient = okapiClient("diku");
+
+    final CollectionResourceClient client = new CollectionResourceClient(
+      httpClient, new URL("http://localhost:9130/item-storage/items"));
+
+    final CompletableFuture<Response> first = client.get("3");
+    final CompletableFuture<Response> second = client.get("3");
+
+    final ArgumentCaptor<Consumer<Throwable>> failureHandler
+      = ArgumentCaptor.forClass(Consumer.class);
+
+    verify(httpClient, times(1)).get(anyString(), any(Handler.class),
+      failureHandler.capture());
+
+    failureHandler.getValue().accept(new RuntimeException("Connection refused"));
+
+    assertThat(first.isCompletedExceptionally(), is(true));
+    assertThat(second.isCompletedExceptionally(), is(true));
+
+    client.get("3");
+
+    verify(httpClient, times(2)).get(anyString(), any(Handler.class),
+      any(Consumer.class));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void joinedGetsAreHandledByTheirOwnClientWhenSharedRequestFails()
+    throws MalformedURLException {
+
+    final OkapiHttpClient firstClient = okapiClient("diku");
+    final OkapiHttpClient joiningClient = okapiClient("diku");
+
+    final URL root = new URL("http://localhost:9130/item-storage/items");
+
+    new CollectionResourceClient(firstClient, root).get("4");
+    new CollectionResourceClient(joiningClient, root).get("4");
+
+    final ArgumentCaptor<Consumer<Throwable>> failureHandler
+      = ArgumentCaptor.forClass(Consumer.class);
+
+    verify(firstClient, times(1)).get(anyString(), any(Handler.class),
+      failureHandler.capture());
+
+    verify(joiningClient, never()).get(anyString(), any(Handler.class),
+      any(Consumer.class));
+
+    final RuntimeException failure = new RuntimeException("Connection refused");
+
+    failureHandler.getValue().accept(failure);
+
+    verify(joiningClient).reportFailure(failure);
+    verify(firstClient, never()).reportFailure(any(Throwable.class));
+  }
+
+  private static OkapiHttpClient okapiClient(String tenantId) {
+    final OkapiHttpClient httpClient = mock(OkapiHttpClient.class);
+
+    when(httpClient.getTenantId()).thenReturn(tenantId);
+    when(httpClient.getToken()).thenReturn("token");
+
+    return httpClient;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static void respond(Handler<HttpClientResponse> responseHandler,
+    String body) {
+
+    final HttpClientResponse response = mock(HttpClientResponse.class);
+    final MultiMap headers = new CaseInsensitiveHeaders()
+      .add("Content-Type", "application/json");
+
+    when(response.statusCode()).thenReturn(200);
+    when(response.headers()).thenReturn(headers);
+    when(response.exceptionHandler(any())).thenReturn(response);
+
+    final ArgumentCaptor<Handler<Buffer>> bodyHandler
+      = ArgumentCaptor.forClass(Handler.class);
+
+    when(response.bodyHandler(bodyHandler.capture())).thenReturn(response);
+
+    responseHandler.handle(response);
+
+    bodyHandler.getValue().handle(Buffer.buffer(body));
+  }
 }
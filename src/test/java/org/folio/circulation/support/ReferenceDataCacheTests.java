@@ -0,0 +1,108 @@
+package org.folio.circulation.support;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+public class ReferenceDataCacheTests {
+  private final AtomicLong now = new AtomicLong(1000);
+
+  @Test
+  public void recordsAreCachedPerTenant() {
+    final ReferenceDataCache<String> cache = new ReferenceDataCache<>(100, 10, now::get);
+
+    cache.put("diku", "1", "Main library");
+
+    assertThat(cache.get("diku", "1"), is("Main library"));
+    assertThat(cache.get("other", "1"), is(nullValue()));
+    assertThat(cache.get("diku", "2"), is(nullValue()));
+  }
+
+  @Test
+  public void recordExpiresAfterTimeToLive() {
+    final ReferenceDataCache<String> cache = new ReferenceDataCache<>(100, 10, now::get);
+
+    cache.put("diku", "1", "Main library");
+
+    now.addAndGet(99);
+    assertThat(cache.get("diku", "1"), is("Main library"));
+
+    now.addAndGet(1);
+    assertThat(cache.get("diku", "1"), is(nullValue()));
+    assertThat(cache.size("diku"), is(0));
+  }
+
+  @Test
+  public void leastRecentlyUsedRecordIsDropped() {
+    final ReferenceDataCache<String> cache = new ReferenceDataCache<>(100, 2, now::get);
+
+    cache.put("diku", "1", "Main library");
+    cache.put("diku", "2", "Law library");
+    cache.get("diku", "1");
+    cache.put("diku", "3", "Science library");
+
+    assertThat(cache.size("diku"), is(2));
+    assertThat(cache.get("diku", "2"), is(nullValue()));
+    assertThat(cache.get("diku", "1"), is("Main library"));
+    assertThat(cache.get("diku", "3"), is("Science library"));
+  }
+
+  @Test
+  public void getAllOnlyReturnsCachedRecords() {
+    final ReferenceDataCache<String> cache = new ReferenceDataCache<>(100, 10, now::get);
+
+    cache.put("diku", "1", "Main library");
+    cache.put("diku", "3", "Science library");
+
+    final Map<String, String> found = cache.getAll("diku", asList("1", "2", "3"));
+
+    assertThat(found.size(), is(2));
+    assertThat(found.get("1"), is("Main library"));
+    assertThat(found.get("3"), is("Science library"));
+  }
+
+  @Test
+  public void canInvalidateRecordsExplicitly() {
+    final ReferenceDataCache<String> cache = new ReferenceDataCache<>(100, 10, now::get);
+
+    cache.put("diku", "1", "Main library");
+    cache.put("diku", "2", "Law library");
+    cache.put("other", "1", "Other library");
+
+    cache.invalidate("diku", "1");
+
+    assertThat(cache.get("diku", "1"), is(nullValue()));
+    assertThat(cache.get("diku", "2"), is("Law library"));
+
+    cache.invalidate("diku");
+
+    assertThat(cache.get("diku", "2"), is(nullValue()));
+    assertThat(cache.get("other", "1"), is("Other library"));
+
+    cache.invalidateAll();
+
+    assertThat(cache.get("other", "1"), is(nullValue()));
+  }
+
+  @Test
+  public void recordFetchedBeforeInvalidationIsNotCached() {
+    final ReferenceDataCache<String> cache = new ReferenceDataCache<>(100, 10, now::get);
+
+    final long version = cache.getVersion("diku");
+
+    cache.invalidate("diku");
+    cache.put("diku", "1", "Main library", version);
+
+    assertThat(cache.get("diku", "1"), is(nullValue()));
+
+    cache.put("diku", "1", "Main library", cache.getVersion("diku"));
+
+    assertThat(cache.get("diku", "1"), is("Main library"));
+  }
+}
@@ -0,0 +1,122 @@
+package org.folio.circulation.support;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.core.json.JsonObject;
+
+public class StreamingJsonArrayResponseTests {
+  private final StringBuilder body = new StringBuilder();
+  private HttpServerResponse response;
+
+  @Before
+  public void beforeEach() {
+    response = mock(HttpServerResponse.class);
+
+    when(response.write(any(Buffer.class))).then(invocation -> {
+      body.append(invocation.<Buffer>getArgument(0).toString());
+      return response;
+    });
+
+    when(response.write(anyString())).then(invocation -> {
+      body.append(invocation.<String>getArgument(0));
+      return response;
+    });
+
+    when(response.writeQueueFull()).thenReturn(false);
+  }
+
+  @Test
+  public void writesRecordsOfAllBatchesAndTotal() {
+    final StreamingJsonArrayResponse streamingResponse
+      = new StreamingJsonArrayResponse(response, "items");
+
+    streamingResponse.write(asList(record("1"), record("2")));
+    streamingResponse.write(emptyList());
+    streamingResponse.write(singletonList(record("3")));
+    streamingResponse.end();
+
+    verify(response).setChunked(true);
+    verify(response).end("],\"totalRecords\":3}");
+
+    final JsonObject json = new JsonObject(body.toString() + "],\"totalRecords\":3}");
+
+    assertThat(json.getJsonArray("items").size(), is(3));
+    assertThat(json.getJsonArray("items").getJsonObject(2).getString("id"), is("3"));
+  }
+
+  @Test
+  public void writesEmptyArrayWhenThereAreNoRecords() {
+    final StreamingJsonArrayResponse streamingResponse
+      = new StreamingJsonArrayResponse(response, "items");
+
+    streamingResponse.end();
+
+    assertThat(body.toString(), is("{\"items\":["));
+    verify(response).end("],\"totalRecords\":0}");
+  }
+
+  @Test
+  public void closesConnectionWhenFailingAfterRecordsWereWritten() {
+    final StreamingJsonArrayResponse streamingResponse
+      = new StreamingJsonArrayResponse(response, "items");
+
+    streamingResponse.write(singletonList(record("1")));
+    streamingResponse.fail(new ServerErrorFailure("Cannot fetch items"));
+
+    verify(response).close();
+    verify(response, never()).setStatusCode(500);
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void pendingWriteFailsWhenConnectionIsClosed() {
+    final ArgumentCaptor<Handler<Void>> closeHandler
+      = ArgumentCaptor.forClass(Handler.class);
+
+    when(response.closeHandler(closeHandler.capture())).thenReturn(response);
+    when(response.writeQueueFull()).thenReturn(true);
+
+    final StreamingJsonArrayResponse streamingResponse
+      = new StreamingJsonArrayResponse(response, "items");
+
+    final CompletableFuture<Void> written
+      = streamingResponse.write(singletonList(record("1")));
+
+    assertThat(written.isDone(), is(false));
+
+    closeHandler.getValue().handle(null);
+
+    assertThat(written.isCompletedExceptionally(), is(true));
+    assertThat(streamingResponse.isClosed(), is(true));
+
+    assertThat(streamingResponse.write(singletonList(record("2")))
+      .isCompletedExceptionally(), is(true));
+
+    streamingResponse.end();
+
+    verify(response, never()).end(anyString());
+  }
+
+  private static JsonObject record(String id) {
+    return new JsonObject().put("id", id);
+  }
+}
@@ -0,0 +1,81 @@
+package org.folio.circulation.support;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+public class TimingWheelTests {
+  private static final long START = 1_000_000L;
+
+  @Test
+  public void itemsAreNotReturnedBeforeTheyAreDue() {
+    final TimingWheel<String> wheel = new TimingWheel<>(10, 8, START);
+
+    wheel.add("a", START + 25);
+
+    assertThat(wheel.advanceTo(START + 24), is(Collections.<String>emptyList()));
+    assertThat(wheel.advanceTo(START + 25), is(asList("a")));
+    assertThat(wheel.size(), is(0));
+  }
+
+  @Test
+  public void itemsAlreadyDueAreReturnedByTheNextAdvance() {
+    final TimingWheel<String> wheel = new TimingWheel<>(10, 8, START);
+
+    wheel.add("a", START - 500);
+
+    assertThat(wheel.advanceTo(START), is(asList("a")));
+  }
+
+  @Test
+  public void itemsBeyondTheSpanOfTheWheelAreReturnedWhenDue() {
+    final TimingWheel<String> wheel = new TimingWheel<>(10, 8, START);
+
+    wheel.add("later", START + 1_234);
+    wheel.add("much later", START + 12_345);
+
+    assertThat(wheel.size(), is(2));
+    assertThat(wheel.advanceTo(START + 1_233), is(Collections.<String>emptyList()));
+    assertThat(wheel.advanceTo(START + 1_234), is(asList("later")));
+    assertThat(wheel.advanceTo(START + 12_344), is(Collections.<String>emptyList()));
+    assertThat(wheel.advanceTo(START + 12_345), is(asList("much later")));
+  }
+
+  @Test
+  public void itemsAreReturnedInTheTickTheyAreDue() {
+    final TimingWheel<Integer> wheel = new TimingWheel<>(10, 4, START);
+
+    for (int offset = 0; offset < 500; offset += 7) {
+      wheel.add(offset, START + offset);
+    }
+
+    for (long now = START; now < START + 500; now += 3) {
+      final long advancedTo = now;
+
+      wheel.advanceTo(now).forEach(offset ->
+        assertThat(START + offset > advancedTo - 3, is(true)));
+    }
+
+    assertThat(wheel.size(), is(0));
+  }
+
+  @Test
+  public void wheelCanBeAdvancedAfterBeingEmpty() {
+    final TimingWheel<String> wheel = new TimingWheel<>(10, 8, START);
+
+    wheel.advanceTo(START + 1_000_000);
+    wheel.add("a", START + 1_000_050);
+    wheel.add("b", START + 1_005_000);
+
+    final List<String> due = new ArrayList<>(wheel.advanceTo(START + 1_000_050));
+    due.addAll(wheel.advanceTo(START + 1_005_000));
+
+    assertThat(due, is(asList("a", "b")));
+  }
+}
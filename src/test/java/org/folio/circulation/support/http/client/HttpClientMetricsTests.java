@@ -0,0 +1,87 @@
+package org.folio.circulation.support.http.client;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.folio.circulation.support.http.client.HttpClientMetrics.TrackedRequest;
+import org.junit.Test;
+
+import io.vertx.core.json.JsonObject;
+
+public class HttpClientMetricsTests {
+  private final AtomicLong now = new AtomicLong(0);
+  private final HttpClientMetrics metrics = new HttpClientMetrics(now::get);
+
+  @Test
+  public void requestIsWaitingUntilItIsGivenAConnection() {
+    final TrackedRequest first = metrics.requestStarted();
+    final TrackedRequest second = metrics.requestStarted();
+
+    advanceMilliseconds(30);
+    first.connected();
+
+    JsonObject snapshot = metrics.snapshot();
+
+    assertThat(snapshot.getInteger("waiting"), is(1));
+    assertThat(snapshot.getInteger("inUse"), is(1));
+    assertThat(snapshot.getLong("requests"), is(2L));
+
+    advanceMilliseconds(10);
+    second.connected();
+    first.finished();
+
+    snapshot = metrics.snapshot();
+
+    assertThat(snapshot.getInteger("waiting"), is(0));
+    assertThat(snapshot.getInteger("inUse"), is(1));
+    assertThat(snapshot.getLong("averageWaitMilliseconds"), is(40L));
+    assertThat(snapshot.getLong("maximumWaitMilliseconds"), is(40L));
+  }
+
+  @Test
+  public void waitTimesAreSincePreviousSnapshot() {
+    final TrackedRequest first = metrics.requestStarted();
+    advanceMilliseconds(20);
+    first.connected();
+
+    final TrackedRequest second = metrics.requestStarted();
+    advanceMilliseconds(40);
+    second.connected();
+
+    JsonObject snapshot = metrics.snapshot();
+
+    assertThat(snapshot.getLong("averageWaitMilliseconds"), is(30L));
+    assertThat(snapshot.getLong("maximumWaitMilliseconds"), is(40L));
+
+    snapshot = metrics.snapshot();
+
+    assertThat(snapshot.getLong("averageWaitMilliseconds"), is(0L));
+    assertThat(snapshot.getLong("maximumWaitMilliseconds"), is(0L));
+  }
+
+  @Test
+  public void failedRequestIsOnlyCountedOnce() {
+    final TrackedRequest waitingRequest = metrics.requestStarted();
+    final TrackedRequest connectedRequest = metrics.requestStarted();
+
+    connectedRequest.connected();
+
+    waitingRequest.failed();
+    connectedRequest.failed();
+    connectedRequest.failed();
+    connectedRequest.finished();
+
+    final JsonObject snapshot = metrics.snapshot();
+
+    assertThat(snapshot.getInteger("waiting"), is(0));
+    assertThat(snapshot.getInteger("inUse"), is(0));
+    assertThat(snapshot.getLong("failures"), is(2L));
+  }
+
+  private void advanceMilliseconds(long milliseconds) {
+    now.addAndGet(TimeUnit.MILLISECONDS.toNanos(milliseconds));
+  }
+}
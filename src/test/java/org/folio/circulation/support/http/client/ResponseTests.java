@@ -0,0 +1,74 @@
+package org.folio.circulation.support.http.client;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.junit.Test;
+
+import io.vertx.core.MultiMap;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.CaseInsensitiveHeaders;
+import io.vertx.core.http.HttpClientResponse;
+import io.vertx.core.json.JsonObject;
+
+public class ResponseTests {
+  @Test
+  public void jsonIsOnlyParsedOnce() {
+    final Response response = Response.from(vertxResponse(),
+      Buffer.buffer("{\"id\":\"1\",\"name\":\"Main library\"}"));
+
+    final JsonObject json = response.getJson();
+
+    assertThat(json.getString("name"), is("Main library"));
+    assertThat(response.getJson(), sameInstance(json));
+  }
+
+  @Test
+  public void bodyIsDecodedFromTheBuffer() {
+    final Response response = Response.from(vertxResponse(),
+      Buffer.buffer("{\"name\":\"Bibliothèque\"}"));
+
+    assertThat(response.hasBody(), is(true));
+    assertThat(response.getBody(), is("{\"name\":\"Bibliothèque\"}"));
+    assertThat(response.getJson().getString("name"), is("Bibliothèque"));
+  }
+
+  @Test
+  public void blankBodyIsEmptyJson() {
+    final Response response = Response.from(vertxResponse(), Buffer.buffer(" \n"));
+
+    assertThat(response.hasBody(), is(false));
+    assertThat(response.getJson().isEmpty(), is(true));
+  }
+
+  @Test
+  public void eachCopyGetsItsOwnJson() {
+    final Response response = Response.from(vertxResponse(),
+      Buffer.buffer("{\"id\":\"1\",\"name\":\"Main library\"}"));
+
+    final Response copy = response.copy();
+
+    copy.getJson().put("name", "Law library");
+
+    assertThat(copy.getStatusCode(), is(200));
+    assertThat(copy.getJson(), not(sameInstance(response.getJson())));
+    assertThat(copy.getJson().getString("name"), is("Law library"));
+    assertThat(response.getJson().getString("name"), is("Main library"));
+    assertThat(response.copy().getJson().getString("name"), is("Main library"));
+  }
+
+  private static HttpClientResponse vertxResponse() {
+    final HttpClientResponse response = mock(HttpClientResponse.class);
+    final MultiMap headers = new CaseInsensitiveHeaders()
+      .add("Content-Type", "application/json");
+
+    when(response.statusCode()).thenReturn(200);
+    when(response.headers()).thenReturn(headers);
+
+    return response;
+  }
+}